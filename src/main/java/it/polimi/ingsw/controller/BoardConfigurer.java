@@ -3,12 +3,16 @@ package it.polimi.ingsw.controller;
 import it.polimi.ingsw.model.board.*;
 import it.polimi.ingsw.model.cards.AmmoPack;
 import it.polimi.ingsw.model.cards.AmmoTile;
+import it.polimi.ingsw.model.cards.Color;
 import it.polimi.ingsw.model.cards.PowerUp;
 import it.polimi.ingsw.model.cards.Weapon;
 import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
 import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static it.polimi.ingsw.model.board.Player.HeroName;
 
@@ -28,6 +32,8 @@ public class BoardConfigurer {
     private static final String AMMO_SQUARE = "aS";
     private static final String WEAPON_SQUARE = "wS";
     private static final String ID = "Id";
+    private static final Map<Integer, MapTopology> topologies = new ConcurrentHashMap<>();
+    private static final Map<Integer, List<SquareTemplate>> mapTemplates = new ConcurrentHashMap<>();
 
 
     /**
@@ -37,7 +43,10 @@ public class BoardConfigurer {
 
 
     /**
-     * Configures the board setting the map and the walls.
+     * Configures the board setting the map and its topology.
+     * The squares are created from a template of the map, read the first time the map is configured.
+     * The topology, which contains the walls, is built the first time a map is configured and then shared
+     * by all the boards using the same map.
      *
      * @param b         the type of map, to be chosen between 1,2,3,4.
      * @return          the configured board.
@@ -50,18 +59,35 @@ public class BoardConfigurer {
         List<Square> map = new ArrayList<>();
         List<WeaponSquare> spawnPoints = new ArrayList<>();
 
-        int rowsNumber = j.getIntBC("rowsNumber");
-        int columnNumber = j.getIntBC("columnsNumber");
-        boolean[][] topWall = new boolean[rowsNumber][columnNumber];
-        boolean[][] leftWall = new boolean[rowsNumber][columnNumber];
-
-        for (int i = 1; i <= rowsNumber; i++) {
-            for (int k = 1; k <= columnNumber; k++) {
-                topWall[i-1][k-1] = j.getBooleanBC("wallT" + i + k, BOARDS, b);
-                leftWall[i-1][k-1] = j.getBooleanBC("wallL" + i + k, BOARDS, b);
+        for (SquareTemplate t : mapTemplates.computeIfAbsent(b, BoardConfigurer::readMapTemplate)) {
+            if (t.spawnPoint) {
+                WeaponSquare spawnPoint = new WeaponSquare(board, t.id, t.roomId, t.row, t.column, t.color);
+                map.add(spawnPoint);
+                spawnPoints.add(spawnPoint);
+            } else {
+                map.add(new AmmoSquare(board, t.id, t.roomId, t.row, t.column, t.color));
             }
         }
 
+        board.setMap(map);
+        board.setSpawnPoints(spawnPoints);
+        board.setTopology(topologies.computeIfAbsent(b, id -> buildTopology(id, map)));
+
+        return board;
+    }
+
+
+    /**
+     * Reads the squares of a map.
+     * The squares are listed in the order of their ids, hence the spawn points follow the order of their ids too.
+     *
+     * @param b         the type of map, to be chosen between 1,2,3,4.
+     * @return          the unmodifiable list of the templates of the squares.
+     */
+    private static List<SquareTemplate> readMapTemplate(int b) {
+
+        List<SquareTemplate> template = new ArrayList<>();
+
         int ammoSquareNumber = j.getIntBC("aSNumber", BOARDS, b);
         int weaponSquareNumber = j.getIntBC("wSNumber", BOARDS, b);
 
@@ -69,31 +95,60 @@ public class BoardConfigurer {
         int a=1;
         for (int i = 0; i < weaponSquareNumber+ammoSquareNumber; i++){
             if((j.getIntBC(WEAPON_SQUARE + w + ID, BOARDS, b)) == i){
-                map.add(new WeaponSquare(board, j.getIntBC(WEAPON_SQUARE + w + ID, BOARDS, b),
-                        j.getIntBC(WEAPON_SQUARE + w + "RoomId", BOARDS,b),
-                        j.getIntBC(WEAPON_SQUARE + w + "Row", BOARDS,b),
-                        j.getIntBC(WEAPON_SQUARE + w + "Column", BOARDS,b),
-                        j.getColorBC(WEAPON_SQUARE + w + "Color", BOARDS, b)));
+                template.add(readSquareTemplate(true, WEAPON_SQUARE + w, b));
                 w++;
             }else{
-                map.add(new AmmoSquare(board, j.getIntBC(AMMO_SQUARE + a + ID, BOARDS, b),
-                        j.getIntBC(AMMO_SQUARE + a + "RoomId", BOARDS, b),
-                        j.getIntBC(AMMO_SQUARE + a + "Row", BOARDS, b),
-                        j.getIntBC(AMMO_SQUARE + a + "Column", BOARDS, b),
-                        j.getColorBC(AMMO_SQUARE + a + "Color", BOARDS, b)));
+                template.add(readSquareTemplate(false, AMMO_SQUARE + a, b));
                 a++;
             }
         }
+        return Collections.unmodifiableList(template);
 
-        for(int i=1;i<=weaponSquareNumber;i++)
-            spawnPoints.add((WeaponSquare) map.get(j.getIntBC(WEAPON_SQUARE + i + ID, BOARDS, b)));
+    }
 
-        board.setMap(map);
-        board.setSpawnPoints(spawnPoints);
-        board.setTopWalls(topWall);
-        board.setLeftWalls(leftWall);
 
-        return board;
+    /**
+     * Reads a square of a map.
+     *
+     * @param spawnPoint    whether the square is a spawn point.
+     * @param prefix        the prefix of the keys of the square.
+     * @param b             the type of map, to be chosen between 1,2,3,4.
+     * @return              the template of the square.
+     */
+    private static SquareTemplate readSquareTemplate(boolean spawnPoint, String prefix, int b) {
+
+        return new SquareTemplate(spawnPoint,
+                j.getIntBC(prefix + ID, BOARDS, b),
+                j.getIntBC(prefix + "RoomId", BOARDS, b),
+                j.getIntBC(prefix + "Row", BOARDS, b),
+                j.getIntBC(prefix + "Column", BOARDS, b),
+                j.getColorBC(prefix + "Color", BOARDS, b));
+
+    }
+
+
+    /**
+     * Builds the topology of a map, reading its walls.
+     *
+     * @param b         the type of map, to be chosen between 1,2,3,4.
+     * @param map       the squares of the map.
+     * @return          the topology of the map.
+     */
+    private static MapTopology buildTopology(int b, List<Square> map) {
+
+        int rowsNumber = j.getIntBC("rowsNumber");
+        int columnNumber = j.getIntBC("columnsNumber");
+        boolean[][] topWall = new boolean[rowsNumber][columnNumber];
+        boolean[][] leftWall = new boolean[rowsNumber][columnNumber];
+
+        for (int i = 1; i <= rowsNumber; i++) {
+            for (int k = 1; k <= columnNumber; k++) {
+                topWall[i-1][k-1] = j.getBooleanBC("wallT" + i + k, BOARDS, b);
+                leftWall[i-1][k-1] = j.getBooleanBC("wallL" + i + k, BOARDS, b);
+            }
+        }
+        return new MapTopology(map, topWall, leftWall);
+
     }
 
 
@@ -121,48 +176,82 @@ public class BoardConfigurer {
 
     /**
      * Adds a deck of weapon, a deck of ammoTiles and a deck of powerUps to the board.
-     * The decks are filled and randomly shuffled.
+     * The decks are filled from a template, read only once, and randomly shuffled.
      *
      * @param board                 the board the decks must be added to.
      */
     public static void configureDecks(Board board){
 
+        DeckTemplate template = DeckTemplateHolder.INSTANCE;
+
+        //the generators of the decks are derived from the seed, regardless of the generators split before
+        board.setSeed(board.getSeed());
+
         //configures the weapons deck
         WeaponFactory weaponFactory = new WeaponFactory(board);
-        Deck weaponsDeck = new Deck();
+        Deck weaponsDeck = board.createDeck();
         for (Weapon.WeaponName weaponName : Weapon.WeaponName.values()) {
             weaponsDeck.addCard(weaponFactory.createWeapon(weaponName));
         }
         weaponsDeck.shuffleDeck();
 
         //configures the ammo deck
-        Deck ammoDeck = new Deck();
+        Deck ammoDeck = board.createDeck();
+        for (int i = 0; i < template.ammoPowerUp.length; i++) {
+            ammoDeck.addCard(new AmmoTile(template.ammoPowerUp[i],
+                    new AmmoPack(template.ammo[i][0], template.ammo[i][1], template.ammo[i][2])));
+        }
+        ammoDeck.shuffleDeck();
+
+        //configures the powerUps deck
+        PowerUpFactory powerUpFactory = new PowerUpFactory(board);
+        Deck powerUpsDeck = board.createDeck();
+        for (int i = 0; i < template.powerUpNames.length; i++) {
+            powerUpsDeck.addCard(powerUpFactory.createPowerUp(template.powerUpNames[i], template.powerUpColors[i]));
+        }
+        powerUpsDeck.shuffleDeck();
+
+        board.setWeaponDeck(weaponsDeck);
+        board.setAmmoDeck(ammoDeck);
+        board.setPowerUpDeck(powerUpsDeck);
+
+    }
+
+
+    /**
+     * Reads the ammo tiles and the power ups the decks are made of.
+     *
+     * @return      the template of the decks.
+     */
+    private static DeckTemplate readDeckTemplate() {
+
+        List<Boolean> ammoPowerUp = new ArrayList<>();
+        List<int[]> ammo = new ArrayList<>();
         int ammoTilesTypesNumber = j.getIntBC("ammoTilesTypesNumber");
         for(int i=0; i < ammoTilesTypesNumber; i++){
             for(int k = 0; k < j.getIntBC("quantity", AMMO_TILES, i); k++){
-                    ammoDeck.addCard((new AmmoTile((j.getBooleanBC("pU", AMMO_TILES, i)),
-                        new AmmoPack(j.getIntBC("r", AMMO_TILES, i),
-                                j.getIntBC("b", AMMO_TILES, i),
-                                j.getIntBC("y", AMMO_TILES, i)))));
+                ammoPowerUp.add(j.getBooleanBC("pU", AMMO_TILES, i));
+                ammo.add(new int[]{j.getIntBC("r", AMMO_TILES, i), j.getIntBC("b", AMMO_TILES, i), j.getIntBC("y", AMMO_TILES, i)});
             }
         }
-        ammoDeck.shuffleDeck();
 
-        //configures the powerUps deck
-        PowerUpFactory powerUpFactory = new PowerUpFactory(board);
-        Deck powerUpsDeck = new Deck();
+        List<PowerUp.PowerUpName> powerUpNames = new ArrayList<>();
+        List<Color> powerUpColors = new ArrayList<>();
         for (int i = 0; i< j.getIntBC("pUNumberPerColor"); i++) {
             for (PowerUp.PowerUpName powerUpName : PowerUp.PowerUpName.values()) {
                 for(int k = 0; k< j.getIntBC("pUColorsNumber"); k++) {
-                    powerUpsDeck.addCard(powerUpFactory.createPowerUp(powerUpName, j.getColorBC("pUColor"+k)));
+                    powerUpNames.add(powerUpName);
+                    powerUpColors.add(j.getColorBC("pUColor"+k));
                 }
             }
         }
-        powerUpsDeck.shuffleDeck();
 
-        board.setWeaponDeck(weaponsDeck);
-        board.setAmmoDeck(ammoDeck);
-        board.setPowerUpDeck(powerUpsDeck);
+        boolean[] powerUps = new boolean[ammoPowerUp.size()];
+        for (int i = 0; i < powerUps.length; i++) {
+            powerUps[i] = ammoPowerUp.get(i);
+        }
+        return new DeckTemplate(powerUps, ammo.toArray(new int[0][]),
+                powerUpNames.toArray(new PowerUp.PowerUpName[0]), powerUpColors.toArray(new Color[0]));
 
     }
 
@@ -225,4 +314,75 @@ public class BoardConfigurer {
 
     }
 
-}
\ No newline at end of file
+
+
+    /**
+     * The attributes of a square of a map, read from the configuration file.
+     */
+    private static final class SquareTemplate {
+
+        private final boolean spawnPoint;
+        private final int id;
+        private final int roomId;
+        private final int row;
+        private final int column;
+        private final Color color;
+
+        /**
+         * Constructs the template of a square.
+         *
+         * @param spawnPoint    whether the square is a spawn point.
+         * @param id            the id of the square.
+         * @param roomId        the id of the room of the square.
+         * @param row           the row of the square.
+         * @param column        the column of the square.
+         * @param color         the color of the square.
+         */
+        private SquareTemplate(boolean spawnPoint, int id, int roomId, int row, int column, Color color) {
+            this.spawnPoint = spawnPoint;
+            this.id = id;
+            this.roomId = roomId;
+            this.row = row;
+            this.column = column;
+            this.color = color;
+        }
+
+    }
+
+
+    /**
+     * Holder of the template of the decks, read the first time it is accessed.
+     */
+    private static class DeckTemplateHolder {
+        private static final DeckTemplate INSTANCE = readDeckTemplate();
+    }
+
+
+    /**
+     * The cards of the ammo and power up decks, read from the configuration file. The arrays are never modified.
+     */
+    private static final class DeckTemplate {
+
+        private final boolean[] ammoPowerUp;
+        private final int[][] ammo;
+        private final PowerUp.PowerUpName[] powerUpNames;
+        private final Color[] powerUpColors;
+
+        /**
+         * Constructs the template of the decks.
+         *
+         * @param ammoPowerUp       for every ammo tile, whether it allows to draw a power up.
+         * @param ammo              for every ammo tile, the red, blue and yellow ammo it contains.
+         * @param powerUpNames      for every power up, its name.
+         * @param powerUpColors     for every power up, its color.
+         */
+        private DeckTemplate(boolean[] ammoPowerUp, int[][] ammo, PowerUp.PowerUpName[] powerUpNames, Color[] powerUpColors) {
+            this.ammoPowerUp = ammoPowerUp;
+            this.ammo = ammo;
+            this.powerUpNames = powerUpNames;
+            this.powerUpColors = powerUpColors;
+        }
+
+    }
+
+}
@@ -0,0 +1,404 @@
+package it.polimi.ingsw.controller;
+
+import com.google.gson.*;
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.cards.Color;
+import it.polimi.ingsw.model.cards.FireMode;
+import it.polimi.ingsw.model.cards.Weapon;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+
+/**
+ * Checks the files boardConf.json, miscellaneous.json and weapons.json against what the classes reading them expect.
+ * ModelDataReader and WeaponCatalogue replace missing or malformed dates with default values, so an error in the files
+ * would otherwise show up only during a game: the validation is run when the server starts, which refuses to start
+ * with invalid dates, and by the tests, hence invalid dates make the build fail.
+ *
+ * @author davidealde
+ */
+
+final class GameDataValidator {
+
+    private static final String BOARD_CONF_FILE = "boardConf.json";
+    private static final String MISCELLANEOUS_FILE = "miscellaneous.json";
+    private static final String WEAPONS_FILE = "weapons.json";
+
+    private static final String ELEMENT_ID = "elementId";
+    //the colors of the ammo, of the spawn points and of the power ups
+    private static final List<String> AMMO_COLORS = Arrays.asList("r", "b", "y");
+    //the colors of the rooms, which an ammo square can also have
+    private static final List<String> ROOM_COLORS = Arrays.asList("r", "b", "y", "g", "p", "v");
+    private static final String MAIN = "MAIN";
+
+
+    /**
+     * Constructor made private since the class only has static methods.
+     */
+    private GameDataValidator() {
+    }
+
+
+    /**
+     * Validates the files contained in the resources.
+     *
+     * @return      the errors found, empty if the files are valid.
+     */
+    static List<String> validateResources() {
+
+        List<String> errors = new ArrayList<>();
+        JsonObject boardConf = read(BOARD_CONF_FILE, errors);
+        JsonObject miscellaneous = read(MISCELLANEOUS_FILE, errors);
+        JsonObject weapons = read(WEAPONS_FILE, errors);
+        if (errors.isEmpty()) {
+            errors.addAll(validate(boardConf, miscellaneous, weapons));
+        }
+        return errors;
+
+    }
+
+
+    /**
+     * Validates the content of the three files.
+     *
+     * @param boardConf         the content of boardConf.json.
+     * @param miscellaneous     the content of miscellaneous.json.
+     * @param weapons           the content of weapons.json.
+     * @return                  the errors found, empty if the files are valid.
+     */
+    static List<String> validate(JsonObject boardConf, JsonObject miscellaneous, JsonObject weapons) {
+
+        List<String> errors = new ArrayList<>();
+        validateBoardConf(boardConf, errors);
+        validateMiscellaneous(miscellaneous, errors);
+        validateWeapons(weapons, errors);
+        return errors;
+
+    }
+
+
+    /**
+     * Reads a file of the resources.
+     *
+     * @param fileName      the name of the file.
+     * @param errors        the list the errors are added to.
+     * @return              the content of the file, or an empty object if it cannot be read.
+     */
+    private static JsonObject read(String fileName, List<String> errors) {
+
+        InputStream stream = GameDataValidator.class.getResourceAsStream("/" + fileName);
+        if (stream == null) {
+            errors.add(fileName + ": file not found");
+            return new JsonObject();
+        }
+        try {
+            return new JsonParser().parse(new InputStreamReader(stream)).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            errors.add(fileName + ": not a json object (" + e.getMessage() + ")");
+            return new JsonObject();
+        }
+
+    }
+
+
+    /**
+     * Validates the maps, the ammo tiles and the power ups described in boardConf.json.
+     *
+     * @param boardConf     the content of boardConf.json.
+     * @param errors        the list the errors are added to.
+     */
+    private static void validateBoardConf(JsonObject boardConf, List<String> errors) {
+
+        int rows = getInt(boardConf, "rowsNumber", BOARD_CONF_FILE, errors);
+        int columns = getInt(boardConf, "columnsNumber", BOARD_CONF_FILE, errors);
+
+        for (JsonObject board : getElements(boardConf, "boards", BOARD_CONF_FILE, errors)) {
+            String where = BOARD_CONF_FILE + ", board " + board.get(ELEMENT_ID);
+            for (int i = 1; i <= rows; i++) {
+                for (int k = 1; k <= columns; k++) {
+                    getFlag(board, "wallT" + i + k, where, errors);
+                    getFlag(board, "wallL" + i + k, where, errors);
+                }
+            }
+            int squares = 0;
+            Set<Integer> ids = new HashSet<>();
+            for (String prefix : new String[]{"wS", "aS"}) {
+                int number = getInt(board, prefix + "Number", where, errors);
+                for (int i = 1; i <= number; i++) {
+                    ids.add(getInt(board, prefix + i + "Id", where, errors));
+                    getInt(board, prefix + i + "RoomId", where, errors);
+                    checkRange(getInt(board, prefix + i + "Row", where, errors), rows, prefix + i + "Row", where, errors);
+                    checkRange(getInt(board, prefix + i + "Column", where, errors), columns, prefix + i + "Column", where, errors);
+                    getString(board, prefix + i + "Color", "wS".equals(prefix) ? AMMO_COLORS : ROOM_COLORS, where, errors);
+                }
+                squares += Math.max(number, 0);
+            }
+            for (int id = 0; id < squares; id++) {
+                if (!ids.contains(id)) {
+                    errors.add(where + ": no square has id " + id);
+                }
+            }
+        }
+
+        List<JsonObject> ammoTiles = getElements(boardConf, "ammoTiles", BOARD_CONF_FILE, errors);
+        if (ammoTiles.size() != getInt(boardConf, "ammoTilesTypesNumber", BOARD_CONF_FILE, errors)) {
+            errors.add(BOARD_CONF_FILE + ": ammoTilesTypesNumber does not match the number of ammo tiles");
+        }
+        for (JsonObject ammoTile : ammoTiles) {
+            String where = BOARD_CONF_FILE + ", ammo tile " + ammoTile.get(ELEMENT_ID);
+            getFlag(ammoTile, "pU", where, errors);
+            for (String key : new String[]{"quantity", "r", "b", "y"}) {
+                getInt(ammoTile, key, where, errors);
+            }
+        }
+
+        getInt(boardConf, "pUNumberPerColor", BOARD_CONF_FILE, errors);
+        int colors = getInt(boardConf, "pUColorsNumber", BOARD_CONF_FILE, errors);
+        for (int k = 0; k < colors; k++) {
+            getString(boardConf, "pUColor" + k, AMMO_COLORS, BOARD_CONF_FILE, errors);
+        }
+
+    }
+
+
+    /**
+     * Validates the constants and the actions of every status described in miscellaneous.json.
+     *
+     * @param miscellaneous     the content of miscellaneous.json.
+     * @param errors            the list the errors are added to.
+     */
+    private static void validateMiscellaneous(JsonObject miscellaneous, List<String> errors) {
+
+        for (Map.Entry<String, JsonElement> entry : miscellaneous.entrySet()) {
+            if (entry.getValue().isJsonPrimitive()) {
+                getInt(miscellaneous, entry.getKey(), MISCELLANEOUS_FILE, errors);
+            }
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (JsonObject status : getElements(miscellaneous, "status", MISCELLANEOUS_FILE, errors)) {
+            String where = MISCELLANEOUS_FILE + ", status " + status.get(ELEMENT_ID);
+            ids.add(getInt(status, ELEMENT_ID, where, errors));
+            for (int i = 1; i <= getInt(status, "numberOfActions", where, errors); i++) {
+                getInt(status, "steps" + i, where, errors);
+                getFlag(status, "collect" + i, where, errors);
+                getFlag(status, "shoot" + i, where, errors);
+                getFlag(status, "reload" + i, where, errors);
+            }
+        }
+        for (Player.Status status : Player.Status.values()) {
+            if (!ids.contains(status.ordinal())) {
+                errors.add(MISCELLANEOUS_FILE + ": the status " + status + " is not described");
+            }
+        }
+
+    }
+
+
+    /**
+     * Validates the weapons described in weapons.json. Targets and destinations must be expressions of the targeting
+     * language or keys of the predefined finders of WeaponFactory, and effects must be keys of its effects.
+     *
+     * @param weapons       the content of weapons.json.
+     * @param errors        the list the errors are added to.
+     */
+    private static void validateWeapons(JsonObject weapons, List<String> errors) {
+
+        for (Weapon.WeaponName weaponName : Weapon.WeaponName.values()) {
+            String where = WEAPONS_FILE + ", " + weaponName;
+            JsonElement weapon = weapons.get(weaponName.toString());
+            if (weapon == null || !weapon.isJsonObject()) {
+                errors.add(where + ": missing");
+                continue;
+            }
+            JsonObject weaponTree = weapon.getAsJsonObject();
+            String color = getString(weaponTree, "color", null, where, errors);
+            if (color != null && Arrays.stream(Color.values()).noneMatch(c -> c.toString().equalsIgnoreCase(color))) {
+                errors.add(where + ": unknown color " + color);
+            }
+            validateCost(weaponTree, where, errors);
+            JsonElement modes = weaponTree.get("modes");
+            if (modes == null || !modes.isJsonArray() || modes.getAsJsonArray().size() == 0) {
+                errors.add(where + ": no firemodes");
+                continue;
+            }
+            for (JsonElement mode : modes.getAsJsonArray()) {
+                if (!mode.isJsonObject()) {
+                    errors.add(where + ": a firemode is not a json object");
+                } else {
+                    validateFireMode(mode.getAsJsonObject(), where, errors);
+                }
+            }
+        }
+
+    }
+
+
+    /**
+     * Validates a firemode of a weapon.
+     *
+     * @param fireMode      the content of the firemode.
+     * @param weapon        the description of the weapon, used in the errors.
+     * @param errors        the list the errors are added to.
+     */
+    private static void validateFireMode(JsonObject fireMode, String weapon, List<String> errors) {
+
+        String name = getString(fireMode, "name", null, weapon, errors);
+        String where = weapon + ", " + name;
+        if (name != null && Arrays.stream(FireMode.FireModeName.values()).noneMatch(n -> n.toString().equalsIgnoreCase(name))) {
+            errors.add(where + ": unknown firemode");
+        }
+        if (!MAIN.equalsIgnoreCase(name)) {
+            validateCost(fireMode, where, errors);
+        }
+        String target = getString(fireMode, "target", null, where, errors);
+        if (target != null && !WeaponFactory.TARGET_KEYS.contains(target)) {
+            try {
+                Targeting.parseTarget(target);
+            } catch (IllegalArgumentException e) {
+                errors.add(where + ": " + e.getMessage());
+            }
+        }
+        String destination = getString(fireMode, "destination", null, where, errors);
+        if (destination != null && !WeaponFactory.DESTINATION_KEYS.contains(destination)) {
+            try {
+                Targeting.parseDestination(destination);
+            } catch (IllegalArgumentException e) {
+                errors.add(where + ": " + e.getMessage());
+            }
+        }
+        getString(fireMode, "effect", WeaponFactory.EFFECT_KEYS, where, errors);
+        getInt(fireMode, "dmg", where, errors);
+        getInt(fireMode, "mark", where, errors);
+
+    }
+
+
+    /**
+     * Validates the cost of a weapon or of a firemode.
+     *
+     * @param tree          the object containing the cost.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     */
+    private static void validateCost(JsonObject tree, String where, List<String> errors) {
+        for (String key : new String[]{"costR", "costB", "costY"}) {
+            getInt(tree, key, where, errors);
+        }
+    }
+
+
+    /**
+     * Returns the elements of an array of a file.
+     *
+     * @param obj           the object containing the array.
+     * @param array         the name of the array.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     * @return              the elements of the array which are json objects.
+     */
+    private static List<JsonObject> getElements(JsonObject obj, String array, String where, List<String> errors) {
+
+        List<JsonObject> elements = new ArrayList<>();
+        JsonElement element = obj.get(array);
+        if (element == null || !element.isJsonArray()) {
+            errors.add(where + ": missing array " + array);
+            return elements;
+        }
+        for (JsonElement e : element.getAsJsonArray()) {
+            if (e.isJsonObject()) {
+                elements.add(e.getAsJsonObject());
+            } else {
+                errors.add(where + ": an element of " + array + " is not a json object");
+            }
+        }
+        return elements;
+
+    }
+
+
+    /**
+     * Returns a non-negative int date.
+     *
+     * @param obj           the object containing the date.
+     * @param key           the key of the date.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     * @return              the date, or -1 if it is missing or is not a non-negative int.
+     */
+    private static int getInt(JsonObject obj, String key, String where, List<String> errors) {
+
+        String value = getString(obj, key, null, where, errors);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            int out = Integer.parseInt(value.trim());
+            if (out >= 0) {
+                return out;
+            }
+        } catch (NumberFormatException e) {
+            //reported below
+        }
+        errors.add(where + ": " + key + " is not a non-negative int: " + value);
+        return -1;
+
+    }
+
+
+    /**
+     * Checks that a boolean date, represented by 0 or 1, is present.
+     *
+     * @param obj           the object containing the date.
+     * @param key           the key of the date.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     */
+    private static void getFlag(JsonObject obj, String key, String where, List<String> errors) {
+        getString(obj, key, Arrays.asList("0", "1"), where, errors);
+    }
+
+
+    /**
+     * Returns a primitive date.
+     *
+     * @param obj           the object containing the date.
+     * @param key           the key of the date.
+     * @param allowed       the values the date can assume, or null if any value is allowed.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     * @return              the date, or null if it is missing.
+     */
+    private static String getString(JsonObject obj, String key, Collection<String> allowed, String where, List<String> errors) {
+
+        JsonElement element = obj.get(key);
+        if (element == null || !element.isJsonPrimitive()) {
+            errors.add(where + ": missing " + key);
+            return null;
+        }
+        String value = element.getAsString();
+        if (allowed != null && !allowed.contains(value)) {
+            errors.add(where + ": " + key + " has an unexpected value: " + value);
+        }
+        return value;
+
+    }
+
+
+    /**
+     * Checks that a row or a column is between 1 and the number of rows or columns.
+     *
+     * @param value         the row or column.
+     * @param max           the number of rows or columns.
+     * @param key           the key of the date.
+     * @param where         the description of the object, used in the errors.
+     * @param errors        the list the errors are added to.
+     */
+    private static void checkRange(int value, int max, String key, String where, List<String> errors) {
+        if (value != -1 && (value < 1 || value > max)) {
+            errors.add(where + ": " + key + " out of the map: " + value);
+        }
+    }
+
+}
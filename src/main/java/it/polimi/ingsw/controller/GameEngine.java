@@ -4,6 +4,7 @@ import it.polimi.ingsw.model.Updater;
 import it.polimi.ingsw.model.board.Board;
 import it.polimi.ingsw.model.board.KillShotTrack;
 import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.board.Scoring;
 import it.polimi.ingsw.model.board.WeaponSquare;
 import it.polimi.ingsw.model.cards.AmmoPack;
 import it.polimi.ingsw.model.exceptions.*;
@@ -16,7 +17,6 @@ import java.util.stream.Collectors;
 
 import static it.polimi.ingsw.controller.ServerMain.MIN_PLAYERS;
 import static it.polimi.ingsw.model.board.Player.HeroName.*;
-import static java.util.Collections.frequency;
 import static it.polimi.ingsw.controller.ServerMain.SLEEP_TIMEOUT;
 import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
 
@@ -255,6 +255,7 @@ public class GameEngine implements Runnable{
         LOGGER.log(Level.FINE,"All the players are connected.");
         configureMap();
         configureKillShotTrack();
+        LOGGER.log(Level.INFO,"Game seed: {0}", board.getSeed());
         BoardConfigurer.configureDecks(board);
         LOGGER.log(Level.INFO,"Decks configured.");
 
@@ -474,25 +475,15 @@ public class GameEngine implements Runnable{
         else LOGGER.log(Level.INFO,"Frenzy ended. Points are added to the players according to the kill shot track.");
 
         killShotTrack.rewardKillers();
-        leaderboard = new ArrayList<>(players);
 
-        Collections.sort(leaderboard, (p1,p2) -> {
-            if (p1.getModel().getPoints() > p2.getModel().getPoints()) return -1;
-            else if (p1.getModel().getPoints() < p2.getModel().getPoints()) return 1;
-            else {
-                if (frequency(killShotTrack.getKillers(), p1) > frequency(killShotTrack.getKillers(), p2))
-                    return -1;
-                else if (frequency(killShotTrack.getKillers(), p1) < frequency(killShotTrack.getKillers(), p2))
-                    return 1;
-                else {
-                    if (killShotTrack.getKillers().indexOf(p1) < killShotTrack.getKillers().indexOf(p2))
-                        return -1;
-                    else if (killShotTrack.getKillers().indexOf(p1) > killShotTrack.getKillers().indexOf(p2))
-                        return 1;
-                    return 0;
-                }
-            }
-        });
+        Map<Player, VirtualView> views = new LinkedHashMap<>();
+        for (VirtualView p : players) {
+            views.put(p.getModel(), p);
+        }
+        leaderboard = new ArrayList<>();
+        for (Player p : Scoring.leaderboard(views.keySet(), killShotTrack.getKillers())) {
+            leaderboard.add(views.get(p));
+        }
 
         gameOver();
 
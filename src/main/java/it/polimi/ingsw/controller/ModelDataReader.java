@@ -4,6 +4,9 @@ import com.google.gson.*;
 import it.polimi.ingsw.model.cards.*;
 
 import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static it.polimi.ingsw.model.cards.Color.*;
@@ -12,6 +15,7 @@ import static it.polimi.ingsw.model.cards.Color.*;
  * Offers methods to read from a Json file the characteristics of a weapon and the keywords that map the weapon
  * into the algorithms that describes the mechanism of the weapon
  * the files is weapons.json
+ * Each file is read only once: its dates are converted and indexed the first time they are requested.
  *
  * @author  davidealde
  */
@@ -24,6 +28,12 @@ public class ModelDataReader {
     private static String boardConfFile = "boardConf.json";
     private static String miscellaneous = "miscellaneous.json";
     private static final String DATA_NOT_FOUND = "Data not found";
+    private static final String ELEMENT_ID = "elementId";
+
+    /**
+     * The files already read, each loaded only once.
+     */
+    private static final Map<String, ConfigFile> FILES = new ConcurrentHashMap<>();
 
     /**
      * Constructor of a json class
@@ -33,20 +43,13 @@ public class ModelDataReader {
     }
 
     /**
-     *Returns the file of interest as a jsonObject
+     *Returns the dates of the file of interest, reading the file only the first time
      *
      * @param fileName      name of file
-     * @return      jsonObject of the file
+     * @return      record of the dates of the file, or null if the file cannot be read
      */
-    private JsonObject analyzer(String fileName){
-        try {
-            JsonElement jsonTree = parser.parse(new InputStreamReader(this.getClass().getResourceAsStream("/"+fileName)));
-            return jsonTree.getAsJsonObject();
-        }
-        catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read from file", e);
-        }
-        return null;
+    private Record analyzer(String fileName){
+        return FILES.computeIfAbsent(fileName, ModelDataReader::load).root;
     }
 
     /**
@@ -55,22 +58,41 @@ public class ModelDataReader {
      * @param fileName  name of life
      * @param array     name of the json array
      * @param elemId    id of the element of dates
-     * @return      jsonObject containing the date of interest
+     * @return      record containing the date of interest, or null if it is not present
      */
-    private JsonObject analyzer(String fileName, String array, int elemId){
+    private Record analyzer(String fileName, String array, int elemId){
+        Map<Integer, Record> elements = FILES.computeIfAbsent(fileName, ModelDataReader::load).arrays.get(array);
+        return elements == null ? null : elements.get(elemId);
+    }
+
+    /**
+     *Reads a file, indexing the elements of its arrays by their id
+     *
+     * @param fileName  name of file
+     * @return      the dates of the file
+     */
+    private static ConfigFile load(String fileName){
         try {
-            JsonElement jsontree = parser.parse(new InputStreamReader(this.getClass().getResourceAsStream("/"+fileName)));
-            JsonObject je = jsontree.getAsJsonObject();
-            JsonArray ja = je.getAsJsonArray(array);
-            for (Object o : ja) {
-                JsonObject arrayElement = (JsonObject) o;
-                if (elemId==arrayElement.get("elementId").getAsInt()) {
-                    return arrayElement;
-                }}}
+            JsonObject je = parser.parse(new InputStreamReader(ModelDataReader.class.getResourceAsStream("/"+fileName))).getAsJsonObject();
+            Map<String, Map<Integer, Record>> arrays = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : je.entrySet()) {
+                if (entry.getValue().isJsonArray()) {
+                    Map<Integer, Record> elements = new HashMap<>();
+                    for (JsonElement o : entry.getValue().getAsJsonArray()) {
+                        JsonObject arrayElement = o.getAsJsonObject();
+                        if (arrayElement.has(ELEMENT_ID)) {
+                            elements.putIfAbsent(arrayElement.get(ELEMENT_ID).getAsInt(), new Record(arrayElement));
+                        }
+                    }
+                    arrays.put(entry.getKey(), elements);
+                }
+            }
+            return new ConfigFile(new Record(je), arrays);
+        }
         catch (JsonIOException e) {
             LOGGER.log(Level.SEVERE, "Unable to read from file", e);
         }
-        return null;
+        return new ConfigFile(null, new HashMap<>());
     }
 
 
@@ -82,7 +104,7 @@ public class ModelDataReader {
      * @return      the int searched
      */
     int getIntBC(String key) {
-        JsonObject obj = analyzer(boardConfFile);
+        Record obj = analyzer(boardConfFile);
         return getInt(obj, key);
     }
 
@@ -96,7 +118,7 @@ public class ModelDataReader {
      * @return      the int searched
      */
     int getIntBC(String key, String array, int elemId){
-        JsonObject obj = analyzer(boardConfFile, array, elemId);
+        Record obj = analyzer(boardConfFile, array, elemId);
         return getInt(obj, key);
     }
 
@@ -111,7 +133,7 @@ public class ModelDataReader {
      */
     boolean getBooleanBC(String key, String array, int elemId) {
 
-        JsonObject obj = analyzer(boardConfFile,array,elemId);
+        Record obj = analyzer(boardConfFile,array,elemId);
         return getBoolean(obj, key);
     }
 
@@ -122,7 +144,7 @@ public class ModelDataReader {
      * @return      the date searched
      */
     public int getInt(String key) {
-        JsonObject obj = analyzer(miscellaneous);
+        Record obj = analyzer(miscellaneous);
         return getInt(obj, key);
     }
 
@@ -136,7 +158,7 @@ public class ModelDataReader {
      * @return      the date searched
      */
     public int getInt(String key, String array, int elemId) {
-        JsonObject obj = analyzer(miscellaneous,array,elemId);
+        Record obj = analyzer(miscellaneous,array,elemId);
         return getInt(obj, key);
     }
 
@@ -150,7 +172,7 @@ public class ModelDataReader {
      * @return      the date searched
      */
     public boolean getBoolean(String key, String array, int elemId){
-        JsonObject obj = analyzer(miscellaneous,array,elemId);
+        Record obj = analyzer(miscellaneous,array,elemId);
         return getBoolean(obj, key);
     }
 
@@ -164,7 +186,7 @@ public class ModelDataReader {
      * @return      the date searched
      */
     Color getColorBC(String key, String array, int elemId) {
-        JsonObject obj = analyzer(boardConfFile,array,elemId);
+        Record obj = analyzer(boardConfFile,array,elemId);
         return getColor(obj, key);
     }
 
@@ -175,60 +197,113 @@ public class ModelDataReader {
      * @return      the date searched
      */
     Color getColorBC(String key) {
-        JsonObject obj = analyzer(boardConfFile);
+        Record obj = analyzer(boardConfFile);
         return getColor(obj, key);
     }
 
     /**
-     *Extract from a jsonObject of a file a specific int date
+     *Extract from a record of a file a specific int date
      *
-     * @param obj   jsonObject of the file
+     * @param obj   record of the file
      * @param key   the key of the date
      * @return      the date searched
      */
-    private int getInt(JsonObject obj, String key){
-        if(obj==null){
+    private int getInt(Record obj, String key){
+        Integer out = obj == null ? null : obj.ints.get(key);
+        if(out==null){
             LOGGER.log(Level.SEVERE, DATA_NOT_FOUND);
             return -1;
         }
-        return obj.get(key).getAsInt();
+        return out;
     }
 
     /**
-     *Extract from a jsonObject of a file a specific boolean date
+     *Extract from a record of a file a specific boolean date
      *
-     * @param obj   json object of the file
+     * @param obj   record of the file
      * @param key   the key of the date
      * @return      the date searched
      */
-    private boolean getBoolean(JsonObject obj, String key){
-        if(obj==null) {
+    private boolean getBoolean(Record obj, String key){
+        Integer out = obj == null ? null : obj.ints.get(key);
+        if(out==null) {
             LOGGER.log(Level.SEVERE, DATA_NOT_FOUND);
             return false;
         }
-        int out=obj.get(key).getAsInt();
         return (out == 1);
     }
 
     /**
-     *Extract from a jsonObject of a file a specific color date
+     *Extract from a record of a file a specific color date
      *
-     * @param obj   json object of the file
+     * @param obj   record of the file
      * @param key   the key of the date
      * @return      the date searched
      */
-    private Color getColor(JsonObject obj, String key){
-        if(obj==null) {
+    private Color getColor(Record obj, String key){
+        Color out = obj == null ? null : obj.colors.get(key);
+        if(out==null) {
             LOGGER.log(Level.SEVERE, DATA_NOT_FOUND);
             return GREEN;
         }
-        String out=obj.get(key).getAsString();
-        if(out.equals("r")){
-            return Color.RED;
-        } else if (out.equals("b")) {
-            return Color.BLUE;
-        }else
-            return Color.YELLOW;
+        return out;
+    }
+
+
+    /**
+     * The dates of a file: the dates which are not in an array, and the elements of the arrays indexed by their id.
+     */
+    private static final class ConfigFile {
+
+        private final Record root;
+        private final Map<String, Map<Integer, Record>> arrays;
+
+        /**
+         * Constructs the dates of a file.
+         *
+         * @param root      the dates which are not in an array, or null if the file cannot be read
+         * @param arrays    the elements of the arrays, indexed by the name of the array and by their id
+         */
+        private ConfigFile(Record root, Map<String, Map<Integer, Record>> arrays) {
+            this.root = root;
+            this.arrays = arrays;
+        }
+
+    }
+
+
+    /**
+     * A block of dates, already converted to ints and colors.
+     */
+    private static final class Record {
+
+        private final Map<String, Integer> ints = new HashMap<>();
+        private final Map<String, Color> colors = new HashMap<>();
+
+        /**
+         * Converts the dates of a jsonObject. A date is a color if it is one of the letters r, b or y.
+         *
+         * @param obj   the jsonObject
+         */
+        private Record(JsonObject obj) {
+            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
+                if (entry.getValue().isJsonPrimitive()) {
+                    String out = entry.getValue().getAsString();
+                    try {
+                        ints.put(entry.getKey(), Integer.parseInt(out.trim()));
+                    } catch (NumberFormatException e) {
+                        //not an int date
+                    }
+                    if(out.equals("r")){
+                        colors.put(entry.getKey(), Color.RED);
+                    } else if (out.equals("b")) {
+                        colors.put(entry.getKey(), Color.BLUE);
+                    }else
+                        colors.put(entry.getKey(), Color.YELLOW);
+                }
+            }
+        }
+
     }
 
-}
\ No newline at end of file
+}
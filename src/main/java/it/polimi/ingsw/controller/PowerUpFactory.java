@@ -53,32 +53,29 @@ public class PowerUpFactory  {
         switch (powerUpName) {
             case TARGETING_SCOPE:
                 effect = (shooter, target, destination)-> target.sufferDamageNoMarksExtra(j.getInt(TARGETING_SCOPE_DMG), shooter);
-                targetFinder = p -> board.getPlayers().stream()
+                targetFinder = (p, from) -> board.getPlayers().stream()
                         .filter(Player::isJustDamaged)
                         .distinct()
                         .map(Arrays::asList)
                         .collect(Collectors.toList());
-                destinationFinder = (p, t) -> new ArrayList<>();
+                destinationFinder = (p, from, t) -> new ArrayList<>();
                 break;
 
             case NEWTON:
                 effect = (shooter, target, destination)-> target.setPosition(destination);
-                targetFinder = p -> board.getActivePlayers().stream()
+                targetFinder = (p, from) -> board.getActivePlayers().stream()
                         .filter(x->!x.equals(p))
                         .distinct()
                         .map(Arrays::asList)
                         .collect(Collectors.toList());
-                destinationFinder = (p, t) -> {
+                destinationFinder = (p, from, t) -> {
                     if(t.isEmpty()){
-                        return Collections.singletonList(p.getPosition());
+                        return Collections.singletonList(from);
                     }
                     List<Square> res = new ArrayList<>();
                     Square center = t.get(0).getPosition();
                     for (Direction d : Direction.values()) {
-                        res.addAll(board.getSquaresInLine(center, d).stream()
-                                .filter(x->board.getDistance(center, x)< j.getInt(NEWTON_MAX_DISTANCE))
-                                .filter(x->!x.equals(center))
-                                .collect(Collectors.toList()));
+                        res.addAll(board.getSquares(board.getLineMask(center, d, false) & board.getReachableMask(center, j.getInt(NEWTON_MAX_DISTANCE) - 1)));
                     }
                     return res;
                 };
@@ -86,20 +83,20 @@ public class PowerUpFactory  {
 
             case TAGBACK_GRENADE:
                 effect = (shooter, target, destination)-> target.addMarks(j.getInt(TAGBACK_GRENADE_MARKS), shooter);
-                targetFinder = p -> !p.isJustDamaged()? new ArrayList<>():Collections.singletonList(Collections.singletonList(board.getCurrentPlayer()));
-                destinationFinder = (p, t) -> new ArrayList<>();
+                targetFinder = (p, from) -> !p.isJustDamaged()? new ArrayList<>():Collections.singletonList(Collections.singletonList(board.getCurrentPlayer()));
+                destinationFinder = (p, from, t) -> new ArrayList<>();
                 break;
 
             case TELEPORTER:
                 effect = (shooter, target, destination)-> target.setPosition(destination);
-                targetFinder = p -> Collections.singletonList(Collections.singletonList(p));
-                destinationFinder = (p, t) -> board.getMap();
+                targetFinder = (p, from) -> Collections.singletonList(Collections.singletonList(p));
+                destinationFinder = (p, from, t) -> board.getMap();
                 break;
 
             default:
                 effect = (shooter, target, destination)-> shooter.setPosition(destination);
-                targetFinder = p -> Collections.singletonList(Collections.singletonList(p));
-                destinationFinder = (p, t) -> board.getMap();
+                targetFinder = (p, from) -> Collections.singletonList(Collections.singletonList(p));
+                destinationFinder = (p, from, t) -> board.getMap();
                 break;
         }
         return new PowerUp(powerUpName, destinationFinder, targetFinder, effect, color, board);
@@ -137,12 +137,17 @@ public class ServerMain {
 
 
     /**
-     * Initializes the logger, loads properties and creates a reader of System.in, RMI and TCP servers.
+     * Initializes the logger, validates the game data, loads properties and creates a reader of System.in, RMI and TCP servers.
+     *
+     * @throws IllegalStateException    if the files describing the game data are not valid.
      */
     void setup(){
         this.initializeLogger();
         LOGGER.log(Level.FINE, "Logger initialized");
 
+        this.validateGameData();
+        LOGGER.log(Level.FINE, "Game data validated");
+
         Properties prop = this.loadConfig();
         LOGGER.log(Level.FINE, "Config read from file");
 
@@ -282,6 +287,23 @@ public class ServerMain {
     }
 
 
+    /**
+     * Validates the files describing the maps, the weapons and the actions, so that an error in them stops the server
+     * before any game starts.
+     *
+     * @throws IllegalStateException    if the files are not valid.
+     */
+    void validateGameData(){
+        List<String> errors = GameDataValidator.validateResources();
+        for (String error : errors) {
+            LOGGER.log(Level.SEVERE, "Invalid game data: {0}", error);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid game data: " + errors);
+        }
+    }
+
+
     /**
      * Tries to load config from
      *      - a .properties file in the same folder as the jar
@@ -1,6 +1,7 @@
 package it.polimi.ingsw.controller;
 
 import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.Journal;
 import it.polimi.ingsw.model.board.Player;
 import it.polimi.ingsw.model.board.Square;
 import it.polimi.ingsw.model.board.WeaponSquare;
@@ -9,13 +10,15 @@ import it.polimi.ingsw.model.cards.PowerUp;
 import it.polimi.ingsw.model.cards.Weapon;
 import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Contains methods to save the status of the game and to restore the last saved status.
+ * The status is not copied: a checkpoint starts the journal of the board, which saves the positions, damages, marks,
+ * powerups, ammo and weapons of the players and the weapons of the spawn points the first time they change,
+ * and a restore undoes only those changes.
  *
  * @author BassaniRiccardo
  */
@@ -23,54 +26,76 @@ import java.util.logging.Logger;
 class StatusSaver {
 
     private Board board;
-    private List<Square> playersPositions;
-    private List<List<Player>> playersDamages;
-    private List<List<Player>> playersMarks;
-    private List<List<PowerUp>> playersPowerups;
-    private List<AmmoPack> playersAmmoPacks;
-
-    private List<Weapon> currentPlayerWeapons;
-    private List<Boolean> currentPlayerLoadedWeapons;
-
-    private List<List<Weapon>> squareWeapons;
+    private Map<Player, List<PowerUp>> playersPowerups;
 
     private static final Logger LOGGER = Logger.getLogger("serverLogger");
 
 
     /*
-     * Getters
+     * Getters, returning the saved status
      */
 
     List<Square> getPlayersPositions() {
-        return playersPositions;
+        List<Square> positions = new ArrayList<>();
+        for (Player p : board.getActivePlayers()) {
+            try {
+                positions.add(journal().before(p, Journal.POSITION, p.getPosition()));
+            } catch (NotAvailableAttributeException e) { LOGGER.log(Level.SEVERE, "reading the position of a player with no position", e);}
+        }
+        return positions;
     }
 
     List<List<Player>> getPlayersDamages() {
-        return playersDamages;
+        List<List<Player>> damages = new ArrayList<>();
+        for (Player p : board.getActivePlayers()) {
+            damages.add(journal().before(p, Journal.DAMAGES, p.getDamages()));
+        }
+        return damages;
     }
 
     List<List<Player>> getPlayersMarks() {
-        return playersMarks;
+        List<List<Player>> marks = new ArrayList<>();
+        for (Player p : board.getActivePlayers()) {
+            marks.add(journal().before(p, Journal.MARKS, p.getMarks()));
+        }
+        return marks;
     }
 
     List<List<PowerUp>> getPlayersPowerups() {
-        return playersPowerups;
+        List<List<PowerUp>> powerUps = new ArrayList<>();
+        for (Player p : board.getActivePlayers()) {
+            powerUps.add(journal().before(p, Journal.POWERUPS, p.getPowerUpList()));
+        }
+        return powerUps;
     }
 
     List<AmmoPack> getPlayersAmmoPacks() {
-        return playersAmmoPacks;
+        List<AmmoPack> ammoPacks = new ArrayList<>();
+        for (Player p : board.getActivePlayers()) {
+            ammoPacks.add(AmmoPack.fromPacked(journal().before(p, Journal.AMMO, p.getAmmoPack().getPacked())));
+        }
+        return ammoPacks;
     }
 
     List<Weapon> getCurrentPlayerWeapons() {
-        return currentPlayerWeapons;
+        Player current = board.getCurrentPlayer();
+        return journal().before(current, Journal.WEAPONS, current.getWeaponList());
     }
 
     List<Boolean> getCurrentPlayerLoadedWeapons() {
-        return currentPlayerLoadedWeapons;
+        List<Boolean> loaded = new ArrayList<>();
+        for (Weapon w : getCurrentPlayerWeapons()) {
+            loaded.add(journal().before(w, Journal.LOADED, w.isLoaded()));
+        }
+        return loaded;
     }
 
     List<List<Weapon>> getSquareWeapons() {
-        return squareWeapons;
+        List<List<Weapon>> weapons = new ArrayList<>();
+        for (WeaponSquare s : board.getSpawnPoints()) {
+            weapons.add(journal().before(s, Journal.WEAPONS, s.getWeapons()));
+        }
+        return weapons;
     }
 
 
@@ -82,70 +107,43 @@ class StatusSaver {
     StatusSaver(Board board) {
 
         this.board = board;
-        playersPositions = new ArrayList<>();
-        playersDamages = new ArrayList<>();
-        playersMarks = new ArrayList<>();
-        playersPowerups = new ArrayList<>();
-        playersAmmoPacks = new ArrayList<>();
+        playersPowerups = new HashMap<>();
 
-        currentPlayerWeapons = new ArrayList<>();
-        currentPlayerLoadedWeapons = new ArrayList<>();
+    }
 
-        squareWeapons = new ArrayList<>();
 
+    /**
+     * Returns whether a checkpoint has been saved.
+     *
+     * @return      true if restoreCheckpoint() can be called.
+     */
+    boolean hasCheckpoint(){
+        return journal().isRecording();
     }
 
 
     /**
      * Updates the last checkpoint which will be restored by the method restoreCheckpoint().
+     * The changes made since the previous checkpoint are forgotten.
      */
     void updateCheckpoint(){
 
-        LOGGER.log(Level.FINE, () -> "playersPowerups saved: " + playersPowerups);
-
-            //attributes shared by all players
-                playersPositions.clear();
-                playersDamages.clear();
-                playersMarks.clear();
-                playersPowerups.clear();
-                playersAmmoPacks.clear();
-            for (Player p : board.getActivePlayers()) {
-                try {
-                    playersPositions.add(p.getPosition());
-                } catch (NotAvailableAttributeException e) { LOGGER.log(Level.SEVERE, "updating the psition of a player with no position", e);}
-                    playersDamages.add(new ArrayList<>(p.getDamages()));
-                    playersMarks.add(new ArrayList<>(p.getMarks()));
-                    playersPowerups.add(new ArrayList<>(p.getPowerUpList()));
-                    playersAmmoPacks.add(new AmmoPack(p.getAmmoPack().getRedAmmo(), p.getAmmoPack().getBlueAmmo(), p.getAmmoPack().getYellowAmmo()));
-            }
-            //current player
-            currentPlayerWeapons = new ArrayList<>(board.getCurrentPlayer().getWeaponList());
-            currentPlayerLoadedWeapons.clear();
-            for (Weapon w : board.getCurrentPlayer().getWeaponList()){
-                currentPlayerLoadedWeapons.add(w.isLoaded());
-            }
-            //squares
-            squareWeapons.clear();
-            for (WeaponSquare s : board.getSpawnPoints()) {
-                List<Weapon> lw = new ArrayList<>(s.getWeapons());
-                squareWeapons.add(lw);
-            }
+        journal().checkpoint();
         LOGGER.log(Level.FINE, "updating checkpoint");
-        LOGGER.log(Level.FINE, () -> "playersPowerups saved: " + playersPowerups);
-
-
 
     }
 
 
     /**
      * Updates the lists of power ups which will be restored by the method restorePowerUps().
+     * The current power ups are also the ones restoreCheckpoint() will restore.
      */
     void updatePowerups(){
-        LOGGER.log(Level.FINE, () -> "playersPowerups: " + playersPowerups);
+
         playersPowerups.clear();
         for (Player p : board.getActivePlayers()) {
-            playersPowerups.add(new ArrayList<>(p.getPowerUpList()));
+            playersPowerups.put(p, new ArrayList<>(p.getPowerUpList()));
+            journal().forget(p, Journal.POWERUPS);
         }
         LOGGER.log(Level.FINE, "updating powerUps");
         LOGGER.log(Level.FINE, () -> "playersPowerups: " + playersPowerups);
@@ -154,51 +152,43 @@ class StatusSaver {
 
 
     /**
-     * Restores the last checkpoint saved by the method updateCheckpoint().
+     * Restores the last checkpoint saved by the method updateCheckpoint(), undoing the changes recorded by the journal.
      */
     void restoreCheckpoint(){
 
         board.setReset(true);
-        int i;
-        //attributes shared by all players
-        for (Player p : board.getActivePlayers()) {
-            i = board.getActivePlayers().indexOf(p);
-            if (playersPositions.size() > i) {
-                p.setPosition(playersPositions.get(i));
-                p.setDamages(new ArrayList<>(playersDamages.get(i)));
-                p.setMarks(new ArrayList<>(playersMarks.get(i)));
-                p.setDead(playersDamages.get(i).size() >= 11);
-                p.setPowerUpList(new ArrayList<>(playersPowerups.get(i)));
-                AmmoPack ap = new AmmoPack(playersAmmoPacks.get(i).getRedAmmo(), playersAmmoPacks.get(i).getBlueAmmo(), playersAmmoPacks.get(i).getYellowAmmo());
-                p.setAmmoPack(ap);
-            }
-        }
+        journal().rollback();
         //current player
-        board.getCurrentPlayer().setWeaponList(new ArrayList<>(currentPlayerWeapons));
-        for (Weapon w : board.getCurrentPlayer().getWeaponList()){
-            w.setLoaded(currentPlayerLoadedWeapons.get(board.getCurrentPlayer().getWeaponList().indexOf(w)));
-            w.setHolder(board.getCurrentPlayer());
-        }
-        board.getCurrentPlayer().getMainTargets().clear();
-        board.getCurrentPlayer().getOptionalTargets().clear();
-        //squares
-        for (Square s : board.getSpawnPoints()) {
-            ((WeaponSquare)s).setWeapons(new ArrayList<>(squareWeapons.get(board.getSpawnPoints().indexOf(s))));
+        Player current = board.getCurrentPlayer();
+        for (Weapon w : current.getWeaponList()){
+            w.setHolder(current);
         }
+        current.getMainTargets().clear();
+        current.getOptionalTargets().clear();
         LOGGER.log(Level.FINE, "Restoring checkpoint");
 
     }
 
 
     /**
-     * Restores the lists of power ups saved by the method updateCheckpoint().
+     * Restores the lists of power ups saved by the method updatePowerups().
      */
     void restorePowerUps(){
 
         board.setReset(true);
-        for (Player p : board.getActivePlayers()) {
-            p.setPowerUpList(new ArrayList<>(playersPowerups.get(board.getActivePlayers().indexOf(p))));
+        for (Map.Entry<Player, List<PowerUp>> saved : playersPowerups.entrySet()) {
+            saved.getKey().setPowerUpList(new ArrayList<>(saved.getValue()));
         }
     }
 
+
+    /**
+     * Returns the journal of the board.
+     *
+     * @return      the journal recording the changes since the last checkpoint.
+     */
+    private Journal journal(){
+        return board.getJournal();
+    }
+
 }
@@ -0,0 +1,551 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.MapTopology;
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.board.Square;
+import it.polimi.ingsw.model.cards.DestinationFinder;
+import it.polimi.ingsw.model.cards.TargetFinder;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Declarative language describing the targets and the destinations of a firemode in the file weapons.json.
+ * An expression is parsed once into a specification, which is then bound to the board of a game,
+ * obtaining a TargetFinder or a DestinationFinder working on the masks of MapTopology.
+ *
+ * A target expression has the form grouping(area[, afterMain]), where grouping is one of:
+ *  one         every player in the area is a group of one target;
+ *  upTo2       every player or pair of players in the area is a group;
+ *  upTo3       every player, pair or triple of players in the area is a group;
+ *  all         the players in the area are a single group, possibly empty;
+ *  bySquare    the players in every square of the area are a group.
+ * The shooter is never a target. The filter afterMain requires the shooter to have main targets and excludes them.
+ * The groups follow the order of the squares in the map, and of the players in the squares,
+ * regardless of how the area reaches the squares.
+ *
+ * A destination expression is an area. An area is built from the squares:
+ *  none                the empty area;
+ *  square              the square of the origin;
+ *  visible             the squares visible from the origin;
+ *  reachable(n)        the squares reachable from the origin with n steps;
+ *  line                the squares in line with the origin, in any direction, considering the walls;
+ *  lineThroughWalls    the squares in line with the origin, in any direction, ignoring the walls;
+ *  near(area, n)       the squares reachable with n steps from the squares of an area;
+ *  ofMain(area)        an area whose origin is the first main target of the shooter, empty if there is none;
+ *  ofTarget(area)      an area whose origin is the first selected target, empty if there is none;
+ * combined with the operators ! (complement), &amp; (intersection), | (union) and - (difference), evaluated from left to right,
+ * and with parentheses. The origin is the square the shooter acts from, which can be a hypothetical position.
+ *
+ * For instance, "one(visible - reachable(1))" selects one visible player at least two steps away,
+ * and "visible &amp; ofTarget(reachable(2))" selects the visible squares at most two steps away from the target.
+ *
+ * @author  marcobaga
+ */
+
+final class Targeting {
+
+    private static final String AFTER_MAIN = "afterMain";
+
+    /**
+     * The empty area, recognised when binding a destination.
+     */
+    private static final Area NONE = (board, origin, shooter, targets) -> 0;
+
+
+    /**
+     * Private constructor: the class only offers static parsing methods.
+     */
+    private Targeting() {
+    }
+
+
+    /**
+     * Functional interface computing a set of squares.
+     */
+    private interface Area {
+
+        /**
+         * Returns the mask of the squares of the area.
+         *
+         * @param board         the board of the game.
+         * @param origin        the square the area is relative to.
+         * @param shooter       the shooting player.
+         * @param targets       the selected targets, empty when looking for targets.
+         * @return              the mask of the squares, as defined by MapTopology.
+         * @throws NotAvailableAttributeException if the position of one of the involved players has not been set.
+         */
+        long squares(Board board, Square origin, Player shooter, List<Player> targets) throws NotAvailableAttributeException;
+
+    }
+
+
+    /**
+     * The ways the players found in an area are grouped.
+     */
+    private enum Grouping {
+        ONE, UP_TO_2, UP_TO_3, ALL, BY_SQUARE
+    }
+
+
+    /**
+     * Parses a target expression.
+     *
+     * @param expression        the expression.
+     * @return                  the specification of the targets.
+     * @throws                  IllegalArgumentException    if the expression is malformed.
+     */
+    static TargetSpec parseTarget(String expression) {
+        return new Parser(expression).parseTarget();
+    }
+
+
+    /**
+     * Parses a destination expression.
+     *
+     * @param expression        the expression.
+     * @return                  the specification of the destinations.
+     * @throws                  IllegalArgumentException    if the expression is malformed.
+     */
+    static DestinationSpec parseDestination(String expression) {
+        return new Parser(expression).parseDestination();
+    }
+
+
+    /**
+     * Immutable specification of the targets of a firemode, independent of the game.
+     */
+    static final class TargetSpec {
+
+        private final Grouping grouping;
+        private final Area area;
+        private final boolean afterMain;
+
+        /**
+         * Constructs the specification of the targets.
+         *
+         * @param grouping      the way the players are grouped.
+         * @param area          the area containing the targets.
+         * @param afterMain     whether main targets are required and excluded.
+         */
+        private TargetSpec(Grouping grouping, Area area, boolean afterMain) {
+            this.grouping = grouping;
+            this.area = area;
+            this.afterMain = afterMain;
+        }
+
+        /**
+         * Returns a TargetFinder looking for the specified targets on a board.
+         * The finder checks the existence of targets on the masks of the players, without creating lists.
+         *
+         * @param board         the board of the game.
+         * @return              the TargetFinder.
+         */
+        TargetFinder bind(Board board) {
+            return new TargetFinder() {
+                @Override
+                public List<List<Player>> find(Player shooter, Square from) throws NotAvailableAttributeException {
+                    return list(board, shooter, from);
+                }
+
+                @Override
+                public boolean exists(Player shooter, Square from) throws NotAvailableAttributeException {
+                    return !(afterMain && shooter.getMainTargets().isEmpty())
+                            && players(board, shooter, area.squares(board, from, shooter, Collections.emptyList())) != 0;
+                }
+            };
+        }
+
+        /**
+         * Returns the mask of the players which can be targeted in a set of squares.
+         *
+         * @param board         the board of the game.
+         * @param shooter       the shooting player.
+         * @param squares       the mask of the squares.
+         * @return              the mask of the players, as defined by Board.
+         */
+        private long players(Board board, Player shooter, long squares) {
+            long players = board.getOccupancyMask(squares) & ~Board.bitOf(shooter);
+            if (afterMain) {
+                for (Player x : shooter.getMainTargets()) {
+                    players &= ~Board.bitOf(x);
+                }
+            }
+            return players;
+        }
+
+        /**
+         * Lists the groups of targets, following the order of the squares in the map and of the players in the squares.
+         *
+         * @param board         the board of the game.
+         * @param shooter       the shooting player.
+         * @param from          the square the shooter shoots from.
+         * @return              the groups of targets.
+         * @throws NotAvailableAttributeException if the position of one of the involved players has not been set.
+         */
+        private List<List<Player>> list(Board board, Player shooter, Square from) throws NotAvailableAttributeException {
+
+            List<List<Player>> res = new ArrayList<>();
+            if (afterMain && shooter.getMainTargets().isEmpty()) {
+                return res;
+            }
+            long squares = area.squares(board, from, shooter, Collections.emptyList()) & board.getOccupiedMask();
+            long players = players(board, shooter, squares);
+            List<Player> listed = new ArrayList<>();
+            for (Square s : board.getSquares(squares)) {
+                List<Player> inSquare = new ArrayList<>();
+                for (Player x : s.getPlayers()) {
+                    if ((players & Board.bitOf(x)) != 0) inSquare.add(x);
+                }
+                if (grouping == Grouping.BY_SQUARE && !inSquare.isEmpty()) {
+                    res.add(inSquare);
+                }
+                listed.addAll(inSquare);
+            }
+            switch (grouping) {
+                case ALL:
+                    res.add(listed);
+                    break;
+                case ONE:
+                case UP_TO_2:
+                case UP_TO_3:
+                    for (Player x : listed) {
+                        res.add(Arrays.asList(x));
+                    }
+                    if (grouping != Grouping.ONE) {
+                        for (int i = 0; i < listed.size(); i++) {
+                            for (int j = i + 1; j < listed.size(); j++) {
+                                res.add(new ArrayList<>(Arrays.asList(listed.get(i), listed.get(j))));
+                            }
+                        }
+                    }
+                    if (grouping == Grouping.UP_TO_3) {
+                        for (int i = 0; i < listed.size(); i++) {
+                            for (int j = i + 1; j < listed.size(); j++) {
+                                for (int k = j + 1; k < listed.size(); k++) {
+                                    res.add(new ArrayList<>(Arrays.asList(listed.get(i), listed.get(j), listed.get(k))));
+                                }
+                            }
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return res;
+
+        }
+
+    }
+
+
+    /**
+     * Immutable specification of the destinations of a firemode, independent of the game.
+     */
+    static final class DestinationSpec {
+
+        private final Area area;
+
+        /**
+         * Constructs the specification of the destinations.
+         *
+         * @param area          the area containing the destinations.
+         */
+        private DestinationSpec(Area area) {
+            this.area = area;
+        }
+
+        /**
+         * Returns a DestinationFinder listing the specified squares of a board, in the order of the map.
+         *
+         * @param board         the board of the game.
+         * @return              the DestinationFinder.
+         */
+        DestinationFinder bind(Board board) {
+            if (area == NONE) {
+                return (shooter, from, targets) -> new ArrayList<>();
+            }
+            return (shooter, from, targets) -> board.getSquares(area.squares(board, from, shooter, targets));
+        }
+
+    }
+
+
+    /**
+     * Recursive descent parser of the expressions.
+     */
+    private static final class Parser {
+
+        private final String expression;
+        private int position;
+
+        /**
+         * Constructs a parser of an expression.
+         *
+         * @param expression    the expression to parse.
+         */
+        private Parser(String expression) {
+            this.expression = expression;
+            this.position = 0;
+        }
+
+        /**
+         * Parses the whole expression as a target expression.
+         *
+         * @return              the specification of the targets.
+         */
+        private TargetSpec parseTarget() {
+
+            String name = identifier();
+            Grouping grouping;
+            switch (name) {
+                case "one":
+                    grouping = Grouping.ONE;
+                    break;
+                case "upTo2":
+                    grouping = Grouping.UP_TO_2;
+                    break;
+                case "upTo3":
+                    grouping = Grouping.UP_TO_3;
+                    break;
+                case "all":
+                    grouping = Grouping.ALL;
+                    break;
+                case "bySquare":
+                    grouping = Grouping.BY_SQUARE;
+                    break;
+                default:
+                    throw error("unknown grouping " + name);
+            }
+            expect('(');
+            Area area = area();
+            boolean afterMain = false;
+            while (accept(',')) {
+                String filter = identifier();
+                if (!filter.equals(AFTER_MAIN)) {
+                    throw error("unknown filter " + filter);
+                }
+                afterMain = true;
+            }
+            expect(')');
+            end();
+            return new TargetSpec(grouping, area, afterMain);
+
+        }
+
+        /**
+         * Parses the whole expression as a destination expression.
+         *
+         * @return              the specification of the destinations.
+         */
+        private DestinationSpec parseDestination() {
+            Area area = area();
+            end();
+            return new DestinationSpec(area);
+        }
+
+        /**
+         * Parses a sequence of terms joined by binary operators, evaluated from left to right.
+         *
+         * @return              the area.
+         */
+        private Area area() {
+
+            Area left = term();
+            while (true) {
+                Area l = left;
+                if (accept('&')) {
+                    Area r = term();
+                    left = (b, o, p, t) -> l.squares(b, o, p, t) & r.squares(b, o, p, t);
+                } else if (accept('|')) {
+                    Area r = term();
+                    left = (b, o, p, t) -> l.squares(b, o, p, t) | r.squares(b, o, p, t);
+                } else if (accept('-')) {
+                    Area r = term();
+                    left = (b, o, p, t) -> l.squares(b, o, p, t) & ~r.squares(b, o, p, t);
+                } else {
+                    return left;
+                }
+            }
+
+        }
+
+        /**
+         * Parses a complement, a parenthesized area or a named area.
+         *
+         * @return              the area.
+         */
+        private Area term() {
+
+            if (accept('!')) {
+                Area a = term();
+                return (b, o, p, t) -> ~a.squares(b, o, p, t);
+            }
+            if (accept('(')) {
+                Area a = area();
+                expect(')');
+                return a;
+            }
+            String name = identifier();
+            switch (name) {
+                case "none":
+                    return NONE;
+                case "square":
+                    return (b, o, p, t) -> MapTopology.bitOf(o.getId());
+                case "visible":
+                    return (b, o, p, t) -> b.getVisibleMask(o);
+                case "reachable": {
+                    expect('(');
+                    int steps = integer();
+                    expect(')');
+                    return (b, o, p, t) -> b.getReachableMask(o, steps);
+                }
+                case "line":
+                    return (b, o, p, t) -> lines(b, o, false);
+                case "lineThroughWalls":
+                    return (b, o, p, t) -> lines(b, o, true);
+                case "near": {
+                    expect('(');
+                    Area a = area();
+                    expect(',');
+                    int steps = integer();
+                    expect(')');
+                    return (b, o, p, t) -> b.getReachableMask(a.squares(b, o, p, t), steps);
+                }
+                case "ofMain": {
+                    expect('(');
+                    Area a = area();
+                    expect(')');
+                    return (b, o, p, t) -> p.getMainTargets().isEmpty() ? 0 : a.squares(b, p.getMainTargets().get(0).getPosition(), p, t);
+                }
+                case "ofTarget": {
+                    expect('(');
+                    Area a = area();
+                    expect(')');
+                    return (b, o, p, t) -> t.isEmpty() ? 0 : a.squares(b, t.get(0).getPosition(), p, t);
+                }
+                default:
+                    throw error("unknown area " + name);
+            }
+
+        }
+
+        /**
+         * Returns the mask of the squares in line with a square, in any direction.
+         *
+         * @param board             the board of the game.
+         * @param s                 the square.
+         * @param ignoringWalls     whether the walls are ignored.
+         * @return                  the mask of the squares, as defined by MapTopology.
+         */
+        private static long lines(Board board, Square s, boolean ignoringWalls) {
+            long mask = 0;
+            for (Board.Direction d : Board.Direction.values()) {
+                mask |= board.getLineMask(s, d, ignoringWalls);
+            }
+            return mask;
+        }
+
+        /**
+         * Skips the blanks and consumes the specified character, if present.
+         *
+         * @param c             the character.
+         * @return              true if the character has been consumed.
+         */
+        private boolean accept(char c) {
+            skipBlanks();
+            if (position < expression.length() && expression.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Consumes the specified character.
+         *
+         * @param c             the character.
+         * @throws              IllegalArgumentException    if the character is not present.
+         */
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("'" + c + "' expected");
+            }
+        }
+
+        /**
+         * Checks that the whole expression has been consumed.
+         *
+         * @throws              IllegalArgumentException    if some characters are left.
+         */
+        private void end() {
+            skipBlanks();
+            if (position < expression.length()) {
+                throw error("unexpected '" + expression.charAt(position) + "'");
+            }
+        }
+
+        /**
+         * Consumes an identifier, made of letters and digits and starting with a letter.
+         *
+         * @return              the identifier.
+         * @throws              IllegalArgumentException    if no identifier is present.
+         */
+        private String identifier() {
+            skipBlanks();
+            int start = position;
+            if (position < expression.length() && Character.isLetter(expression.charAt(position))) {
+                while (position < expression.length() && Character.isLetterOrDigit(expression.charAt(position))) {
+                    position++;
+                }
+            }
+            if (start == position) {
+                throw error("identifier expected");
+            }
+            return expression.substring(start, position);
+        }
+
+        /**
+         * Consumes a non negative integer.
+         *
+         * @return              the integer.
+         * @throws              IllegalArgumentException    if no integer is present.
+         */
+        private int integer() {
+            skipBlanks();
+            int start = position;
+            while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw error("integer expected");
+            }
+            return Integer.parseInt(expression.substring(start, position));
+        }
+
+        /**
+         * Skips the blanks.
+         */
+        private void skipBlanks() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Returns the exception describing a syntax error at the current position.
+         *
+         * @param message       the description of the error.
+         * @return              the exception.
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Malformed targeting expression \"" + expression + "\" at position " + position + ": " + message + ".");
+        }
+
+    }
+
+}
@@ -90,8 +90,7 @@ import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
     private static final String SELECT_WEAPON_TO_RELOAD_MANDATORY = "You have to reload one of these weapons to shoot. Which one do you choose?";
     private static final String SELECT_TARGETING_SCOPE = "Which targeting scope do you want to use?";
     private static final String SELECT_TAGBACK_GRENADE = "Which tagback grenade do you want to use?";
-    private static final String OPTIONAL_CONVERSION = "Do you want to convert a powerup to gain an ammo to make the payment?";
-    private static final String MANDATORY_CONVERSION = "You must convert one of this powerups to pay. Choose one.";
+    private static final String CHOOSE_PAYMENT = "How do you want to pay? You can convert powerups to gain ammo of their color.";
 
     private static final String COMMA = ", ";
 
@@ -191,7 +190,7 @@ import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
             updateAndNotifyAll();
 
         } catch(SlowAnswerException e){
-            if (!statusSaver.getPlayersPositions().isEmpty()) {
+            if (statusSaver.hasCheckpoint()) {
                 statusSaver.restoreCheckpoint();
             }
             handleDeaths();
@@ -741,7 +740,7 @@ import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
      * to do and applying the effects of the firemode according to his preferences.
      *
      * @param fireMode                          the selected firemode.
-     * @throws NotAvailableAttributeException   if thrown by TargetFinder.find() or Firemode.applyEffects().
+     * @throws NotAvailableAttributeException   if thrown by Firemode.findTargets() or Firemode.applyEffects().
      * @throws SlowAnswerException              if the user do not complete the turn before the timer expires.
      * @throws NotEnoughPlayersException        if the number of connected players falls below three during the turn.
      */
@@ -749,7 +748,8 @@ import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
 
         board.setReset(false);
 
-        List<List<Player>> targetsList = new ArrayList<>(fireMode.getTargetFinder().find(currentPlayer));
+        //the cached targets are unmodifiable, hence they are copied before removing the empty groups
+        List<List<Player>> targetsList = new ArrayList<>(fireMode.findTargets());
         List<List<Player>> toRemove = new ArrayList<>();
         for (List<Player> l : targetsList) {
             if (l.isEmpty()) toRemove.add(l);
@@ -1294,84 +1294,39 @@ import static it.polimi.ingsw.network.server.VirtualView.ChooseOptionsType.*;
 
 
     /**
-     * Handles the payment, asking the player if he wants to convert some powerups instead of using his ammo.
-     * The player is forced to convert powerups when they are necessary to pay.
+     * Handles the payment, asking the player in a single choice which powerups he wants to convert instead of using his ammo.
+     * The options are the payment plans of the player: the plans which convert powerups are listed only if the powerups are
+     * necessary to pay or the player can choose to keep them. If there is only a plan, the player is not asked.
      *
-     * @param originalCost      the ammo to pay
+     * @param cost      the ammo to pay
      * @throws SlowAnswerException          if the user do not complete the turn before the timer expires.
      * @throws NotEnoughPlayersException    if the number of connected players falls below three during the turn.
      */
-    private void handlePayment(AmmoPack originalCost) throws SlowAnswerException, NotEnoughPlayersException {
+    private void handlePayment(AmmoPack cost) throws SlowAnswerException, NotEnoughPlayersException {
 
-        AmmoPack cost = new AmmoPack(originalCost.getRedAmmo(), originalCost.getBlueAmmo(), originalCost.getYellowAmmo());
-
-        if (cost.isEmpty())
+        if (cost.getPacked() == PackedAmmo.EMPTY)
             return;
 
-        AmmoPack toPay = cost.getNeededAmmo(currentPlayer.getAmmoPack());
+        List<PaymentSolver.Plan> plans = currentPlayer.getPaymentPlans(cost);
+        if (plans.isEmpty())
+            throw new IllegalArgumentException("The player can not pay " + cost + ".");
 
-        while (toPay.getRedAmmo() > 0) {
-            mandatoryConversion(RED);
-            toPay.subAmmo(RED);
-            cost.subAmmo(RED);
-        }
-        while (toPay.getBlueAmmo() > 0) {
-            mandatoryConversion(BLUE);
-            toPay.subAmmo(BLUE);
-            cost.subAmmo(BLUE);
-        }
-        while (toPay.getYellowAmmo() > 0) {
-            mandatoryConversion(YELLOW);
-            toPay.subAmmo(YELLOW);
-            cost.subAmmo(YELLOW);
+        PaymentSolver.Plan plan = plans.get(0);
+        if (plans.size() > 1) {
+            currentPlayerConnection.choose(CHOOSE_STRING.toString(), CHOOSE_PAYMENT, toStringList(plans));
+            int selected = Integer.parseInt(gameEngine.wait(currentPlayerConnection));
+            plan = plans.get(selected - 1);
         }
 
-        boolean askAgain = true;
-        while (!cost.isEmpty() && askAgain) {
-            List<PowerUp> optionsPowerUps = new ArrayList<>();
-            if (cost.getRedAmmo() > 0)
-                optionsPowerUps.addAll(currentPlayer.getPowerUps(RED));
-            if (cost.getBlueAmmo() > 0)
-                optionsPowerUps.addAll(currentPlayer.getPowerUps(BLUE));
-            if (cost.getYellowAmmo() > 0)
-                optionsPowerUps.addAll(currentPlayer.getPowerUps(YELLOW));
-            if (!optionsPowerUps.isEmpty()) {
-                List<String> options = toStringList(optionsPowerUps);
-                options.add(NONE);
-                currentPlayerConnection.choose(CHOOSE_POWERUP.toString(), OPTIONAL_CONVERSION, options);
-                int selected = Integer.parseInt(gameEngine.wait(currentPlayerConnection));
-                if (selected == options.size()) {
-                    askAgain = false;
-                } else {
-                    PowerUp selectedPowerup = optionsPowerUps.get(selected - 1);
-                    currentPlayer.discardPowerUp(selectedPowerup);
-                    cost.subAmmo(selectedPowerup.getColor());
-                }
-            }
-            else
-                askAgain = false;
+        for (PowerUp p : plan.getConverted()) {
+            currentPlayer.discardPowerUp(p);
         }
-
-        currentPlayer.useAmmo(cost);
+        currentPlayer.useAmmo(AmmoPack.fromPacked(plan.getAmmo()));
         board.notifyObserver(currentPlayerConnection);
 
     }
 
 
-    /**
-     * Ask a player to choose which powerup to convert when a convertion is necessary in order to pay.
-     *
-     * @param color         the color of the powerup that must be converted in order to obtain an ammo
-     * @throws SlowAnswerException          if the user do not complete the turn before the timer expires.
-     * @throws NotEnoughPlayersException    if the number of connected players falls below three during the turn.
-     */
-    private void mandatoryConversion(Color color) throws SlowAnswerException, NotEnoughPlayersException{
-        currentPlayerConnection.choose(CHOOSE_POWERUP.toString(), MANDATORY_CONVERSION, currentPlayer.getPowerUps(color));
-        int selected = Integer.parseInt(gameEngine.wait(currentPlayerConnection));
-        PowerUp selectedPowerup = currentPlayer.getPowerUps(color).get(selected-1);
-        currentPlayer.discardPowerUp(selectedPowerup);
-    }
-
     /*
     only for testing
      */
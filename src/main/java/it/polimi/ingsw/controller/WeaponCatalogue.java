@@ -0,0 +1,402 @@
+package it.polimi.ingsw.controller;
+
+import com.google.gson.*;
+import it.polimi.ingsw.model.cards.AmmoPack;
+import it.polimi.ingsw.model.cards.Color;
+import it.polimi.ingsw.model.cards.FireMode;
+import it.polimi.ingsw.model.cards.Weapon;
+
+import java.io.InputStreamReader;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static it.polimi.ingsw.model.cards.Color.*;
+import static it.polimi.ingsw.model.cards.FireMode.FireModeName.*;
+
+/**
+ * Immutable catalogue of the weapon definitions contained in the file weapons.json.
+ * The file is parsed only once, the first time the catalogue is requested, and the definitions are shared by all the games:
+ * WeaponFactory binds them to the board of a game when it creates the weapons.
+ *
+ * @author  marcobaga
+ */
+
+final class WeaponCatalogue {
+
+    private static final Logger LOGGER = Logger.getLogger("serverLogger");
+    private static final String WEAPONS_FILE = "weapons.json";
+
+    private static final String MODES_TAG = "modes";
+    private static final String NAME_TAG = "name";
+    private static final String COLOR_TAG = "color";
+    private static final String MAIN_TAG = "MAIN";
+
+    private static final String COST_R = "costR";
+    private static final String COST_B = "costB";
+    private static final String COST_Y = "costY";
+
+    private static final String TARGET_TAG = "target";
+    private static final String DESTINATION_TAG = "destination";
+    private static final String EFFECT_TAG = "effect";
+    private static final String DMG_TAG = "dmg";
+    private static final String MARK_TAG = "mark";
+
+    private final Map<Weapon.WeaponName, WeaponDefinition> definitions;
+
+
+    /**
+     * Holder of the catalogue shared by all the games, initialized the first time it is accessed.
+     */
+    private static class Holder {
+        private static final WeaponCatalogue INSTANCE = new WeaponCatalogue();
+    }
+
+
+    /**
+     * Constructs the catalogue, parsing the file weapons.json.
+     */
+    private WeaponCatalogue() {
+
+        Map<Weapon.WeaponName, WeaponDefinition> map = new EnumMap<>(Weapon.WeaponName.class);
+        JsonObject weaponList = new JsonObject();
+        try {
+            weaponList = new JsonParser().parse(new InputStreamReader(this.getClass().getResourceAsStream("/" + WEAPONS_FILE))).getAsJsonObject();
+        } catch (JsonIOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to read weapons from file", e);
+        }
+        for (Weapon.WeaponName weaponName : Weapon.WeaponName.values()) {
+            JsonObject weaponTree = weaponList.getAsJsonObject(weaponName.toString());
+            if (weaponTree == null) {
+                LOGGER.log(Level.SEVERE, "Weapon missing from file: {0}", weaponName);
+            } else {
+                map.put(weaponName, parseWeapon(weaponTree));
+            }
+        }
+        this.definitions = Collections.unmodifiableMap(map);
+
+    }
+
+
+    /**
+     * Returns the catalogue shared by all the games.
+     *
+     * @return      the catalogue.
+     */
+    static WeaponCatalogue getInstance() {
+        return Holder.INSTANCE;
+    }
+
+
+    /**
+     * Returns the definition of a weapon.
+     *
+     * @param weaponName        the name of the weapon.
+     * @return                  the definition of the weapon.
+     * @throws                  IllegalArgumentException    if the weapon is not described in the file.
+     */
+    WeaponDefinition get(Weapon.WeaponName weaponName) {
+
+        WeaponDefinition definition = definitions.get(weaponName);
+        if (definition == null) {
+            throw new IllegalArgumentException("The weapon " + weaponName + " is not described in " + WEAPONS_FILE + ".");
+        }
+        return definition;
+
+    }
+
+
+    /**
+     * Parses the description of a weapon.
+     *
+     * @param weaponTree    jsonObject to parse
+     * @return              the definition of the weapon
+     */
+    private static WeaponDefinition parseWeapon(JsonObject weaponTree) {
+
+        Color color = parseColor(weaponTree);
+        int[] fullCost = parseCost(weaponTree);
+        int[] reducedCost = fullCost.clone();
+        if (color == RED) {
+            reducedCost[0]--;
+        } else if (color == BLUE) {
+            reducedCost[1]--;
+        } else if (color == YELLOW) {
+            reducedCost[2]--;
+        } else {
+            LOGGER.log(Level.SEVERE, "Error in computing reduced cost");
+        }
+        List<FireModeDefinition> fireModes = new ArrayList<>();
+        for (JsonElement firemodeElement : weaponTree.getAsJsonArray(MODES_TAG)) {
+            fireModes.add(parseFireMode(firemodeElement.getAsJsonObject()));
+        }
+        return new WeaponDefinition(color, fullCost, reducedCost, fireModes);
+
+    }
+
+
+    /**
+     * Parses the weaponTree to get information about the color
+     *
+     * @param weaponTree    jsonObject to parse
+     * @return              the color of the weapon
+     */
+    private static Color parseColor(JsonObject weaponTree) {
+        String color = "";
+        try {
+            color = weaponTree.get(COLOR_TAG).getAsString();
+        } catch (JsonIOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to read color in weaponTree", e);
+        }
+        for(Color c : Color.values()){
+            if(c.toString().equalsIgnoreCase(color)){
+                return c;
+            }
+        }
+        LOGGER.log(Level.SEVERE, "Color from weapon file does not match: {0}", color);
+        return PURPLE;
+    }
+
+
+    /**
+     * Parses a jsonObject to get a cost, as the amounts of red, blue and yellow ammo.
+     *
+     * @param tree          jsonObject to parse
+     * @return              the cost
+     */
+    private static int[] parseCost(JsonObject tree) {
+        try {
+            return new int[]{tree.get(COST_R).getAsInt(), tree.get(COST_B).getAsInt(), tree.get(COST_Y).getAsInt()};
+        } catch (JsonIOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to read cost from jsonTree", e);
+        }
+        return new int[3];
+    }
+
+
+    /**
+     * Parses a jsonObject with information about a firemode.
+     *
+     * @param firemode      jsonObject to parse
+     * @return              the definition of the firemode
+     */
+    private static FireModeDefinition parseFireMode(JsonObject firemode) {
+
+        String name = firemode.get(NAME_TAG).getAsString();
+        int[] cost = name.equalsIgnoreCase(MAIN_TAG) ? new int[3] : parseCost(firemode);
+        String target = "";
+        String destination = "";
+        String effect = "";
+        int dmg = 0;
+        int mark = 0;
+        try {
+            target = firemode.get(TARGET_TAG).getAsString();
+            destination = firemode.get(DESTINATION_TAG).getAsString();
+            effect = firemode.get(EFFECT_TAG).getAsString();
+            dmg = firemode.get(DMG_TAG).getAsInt();
+            mark = firemode.get(MARK_TAG).getAsInt();
+        } catch (JsonIOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to read firemode from jsonTree", e);
+        }
+        return new FireModeDefinition(parseFireModeName(name), cost, target, destination, effect, dmg, mark);
+
+    }
+
+
+    /**
+     * Parses the target of a firemode as an expression of the targeting language.
+     *
+     * @param target        the target of the firemode.
+     * @return              the specification of the targets, or null if the target is the key of a predefined finder.
+     */
+    private static Targeting.TargetSpec parseTargetSpec(String target) {
+        try {
+            return Targeting.parseTarget(target);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, "Target used as the key of a predefined finder: {0}", target);
+            return null;
+        }
+    }
+
+
+    /**
+     * Parses the destination of a firemode as an expression of the targeting language.
+     *
+     * @param destination   the destination of the firemode.
+     * @return              the specification of the destinations, or null if the destination is the key of a predefined finder.
+     */
+    private static Targeting.DestinationSpec parseDestinationSpec(String destination) {
+        try {
+            return Targeting.parseDestination(destination);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, "Destination used as the key of a predefined finder: {0}", destination);
+            return null;
+        }
+    }
+
+
+    /**
+     * Converts a String representing a FireModeName to the correct object
+     *
+     * @param name    string to convert
+     * @return        proper FireModeName
+     */
+    private static FireMode.FireModeName parseFireModeName(String name){
+        for(FireMode.FireModeName fn : FireMode.FireModeName.values()){
+            if(fn.toString().equalsIgnoreCase(name)){
+                return fn;
+            }
+        }
+        LOGGER.log(Level.SEVERE, "Firemode name from weapon file does not match: {0}", name);
+        return MAIN;
+    }
+
+
+    /**
+     * Immutable definition of a weapon: its color, its costs and the definitions of its firemodes.
+     */
+    static final class WeaponDefinition {
+
+        private final Color color;
+        private final int[] fullCost;
+        private final int[] reducedCost;
+        private final List<FireModeDefinition> fireModes;
+
+        /**
+         * Constructs the definition of a weapon.
+         *
+         * @param color             the color of the weapon.
+         * @param fullCost          the amounts of red, blue and yellow ammo of the full cost.
+         * @param reducedCost       the amounts of red, blue and yellow ammo of the reduced cost.
+         * @param fireModes         the definitions of the firemodes.
+         */
+        private WeaponDefinition(Color color, int[] fullCost, int[] reducedCost, List<FireModeDefinition> fireModes) {
+            this.color = color;
+            this.fullCost = fullCost;
+            this.reducedCost = reducedCost;
+            this.fireModes = Collections.unmodifiableList(new ArrayList<>(fireModes));
+        }
+
+        Color getColor() {
+            return color;
+        }
+
+        /**
+         * Returns the full cost of the weapon, as a new ammo pack.
+         *
+         * @return      the full cost.
+         */
+        AmmoPack getFullCost() {
+            return new AmmoPack(fullCost[0], fullCost[1], fullCost[2]);
+        }
+
+        /**
+         * Returns the reduced cost of the weapon, as a new ammo pack.
+         *
+         * @return      the reduced cost.
+         */
+        AmmoPack getReducedCost() {
+            return new AmmoPack(reducedCost[0], reducedCost[1], reducedCost[2]);
+        }
+
+        List<FireModeDefinition> getFireModes() {
+            return fireModes;
+        }
+
+    }
+
+
+    /**
+     * Immutable definition of a firemode: its name, its cost, its targets and destinations, its effect and the damage
+     * and the marks it deals. Targets and destinations are either expressions of the targeting language, already parsed,
+     * or keys of predefined finders.
+     */
+    static final class FireModeDefinition {
+
+        private final FireMode.FireModeName name;
+        private final int[] cost;
+        private final String target;
+        private final String destination;
+        private final Targeting.TargetSpec targetSpec;
+        private final Targeting.DestinationSpec destinationSpec;
+        private final String effect;
+        private final int dmg;
+        private final int mark;
+
+        /**
+         * Constructs the definition of a firemode.
+         *
+         * @param name              the name of the firemode.
+         * @param cost              the amounts of red, blue and yellow ammo of the cost.
+         * @param target            the targets, as an expression or as the key of a predefined finder.
+         * @param destination       the destinations, as an expression or as the key of a predefined finder.
+         * @param effect            the key of the effect.
+         * @param dmg               the damage dealt.
+         * @param mark              the marks dealt.
+         */
+        private FireModeDefinition(FireMode.FireModeName name, int[] cost, String target, String destination, String effect, int dmg, int mark) {
+            this.name = name;
+            this.cost = cost;
+            this.target = target;
+            this.destination = destination;
+            this.targetSpec = parseTargetSpec(target);
+            this.destinationSpec = parseDestinationSpec(destination);
+            this.effect = effect;
+            this.dmg = dmg;
+            this.mark = mark;
+        }
+
+        FireMode.FireModeName getName() {
+            return name;
+        }
+
+        /**
+         * Returns the cost of the firemode, as a new ammo pack.
+         *
+         * @return      the cost.
+         */
+        AmmoPack getCost() {
+            return new AmmoPack(cost[0], cost[1], cost[2]);
+        }
+
+        String getTarget() {
+            return target;
+        }
+
+        String getDestination() {
+            return destination;
+        }
+
+        /**
+         * Returns the specification of the targets.
+         *
+         * @return      the specification, or null if the target is the key of a predefined finder.
+         */
+        Targeting.TargetSpec getTargetSpec() {
+            return targetSpec;
+        }
+
+        /**
+         * Returns the specification of the destinations.
+         *
+         * @return      the specification, or null if the destination is the key of a predefined finder.
+         */
+        Targeting.DestinationSpec getDestinationSpec() {
+            return destinationSpec;
+        }
+
+        String getEffect() {
+            return effect;
+        }
+
+        int getDmg() {
+            return dmg;
+        }
+
+        int getMark() {
+            return mark;
+        }
+
+    }
+
+}
@@ -1,24 +1,22 @@
 package it.polimi.ingsw.controller;
 
-import com.google.gson.*;
 import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.MapTopology;
 import it.polimi.ingsw.model.board.Player;
 import it.polimi.ingsw.model.board.Square;
 import it.polimi.ingsw.model.cards.*;
 import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 
-import java.io.InputStreamReader;
 import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import static it.polimi.ingsw.model.board.Board.Direction;
-import static it.polimi.ingsw.model.cards.Color.*;
-import static it.polimi.ingsw.model.cards.FireMode.FireModeName.*;
 
 /**
- * Factory class that creates Weapons loading attributes from a Json file. Each weapon has a number of different firemodes,
+ * Factory class that creates Weapons from the definitions of the WeaponCatalogue, parsed once from a Json file. Each weapon has a number of different firemodes,
  * and each firemode has a TargetFinder (function finding lists of possible targets), a DestinationFinder (function selecting
  * possible destination for the target or the shooter) and an Effect (function applying the firemode effects to the game state).
  * This classes retrieves these three functions and other simple parameters.
@@ -32,36 +30,13 @@ public class WeaponFactory {
     private Board board;
 
     private static final Logger LOGGER = Logger.getLogger("serverLogger");
-    private static final String WEAPONS_FILE = "weapons.json";
 
-    private static final String MODES_TAG = "modes";
-    private static final String NAME_TAG = "name";
-    private static final String COLOR_TAG = "color";
-    private static final String MAIN_TAG = "MAIN";
-
-    private static final String COST_R = "costR";
-    private static final String COST_B = "costB";
-    private static final String COST_Y = "costY";
-
-    private static final String TARGET = "target";
-    private static final String ONE_VISIBLE = "1visible";
-    private static final String ONE_OTHER_VISIBLE = "1otherVisible";
-    private static final String ONE_OR_TWO_VISIBLE = "1or2visible";
     private static final String ONE_MAIN_TARGET = "1mainTarget";
     private static final String ONE_MAIN_TARGET_OR_OTHER_VIISBLE = "1mainTargetOrOtherVisible";
-    private static final String THOR_ONE = "thor1";
     private static final String THOR_TWO = "thor2";
     private static final String PLASMA_GUN_ONE = "plasmaGun1";
-    private static final String WHISPER = "whisper";
-    private static final String ALL_SAME_SQUARE = "allSameSquare";
-    private static final String TRACTOR_BEAM_MAIN = "tractorBeamMain";
-    private static final String TRACTOR_BEAM_ALT = "tractorBeamAlt";
-    private static final String VORTEX_CANNON_MAIN = "vortexCannonMain";
     private static final String VORTEX_CANNON_ONE = "vortexCannon1";
     private static final String OTHER_ROOM = "otherRoom";
-    private static final String ADJACENT_SQUARE = "adjacentSquare";
-    private static final String NOT_VISIBLE = "notVisible";
-    private static final String NOT_SHOOTER_SQUARE_VISIBLE = "notShooterSquareVisible";
     private static final String FLAMETHROWER_MAIN = "flamethrowerMain";
     private static final String FLAMETHROWER_ALT = "flamethrowerAlt";
     private static final String GRENADE_LAUNCHER = "grenadeLauncher1";
@@ -69,24 +44,12 @@ public class WeaponFactory {
     private static final String ROCKET_LAUNCHER_TWO = "rocketLauncher2";
     private static final String RAILGUN_MAIN = "railgunMain";
     private static final String RAILGUN_ALT = "railgunAlt";
-    private static final String ONE_SAME_SQUARE = "1sameSquare";
     private static final String CYBERBLADE_ONE = "cyberblade1";
-    private static final String ONE_OTHER_SAME_SQUARE = "1otherSameSquare";
-    private static final String THREE_VISIBLE = "3visible";
-    private static final String ONE_STEP_AWAY = "1stepAway";
     private static final String POWER_GLOVE_ALT = "powerGloveAlt";
     private static final String SHOCKWAVE_MAIN = "shockwaveMain";
-    private static final String SHOCKWAVE_ALT = "shockwaveAlt";
 
-    private static final String NONE = "none";
-    private static final String SHOOTER_SQAURE = "shooterSquare";
-    private static final String ADJACENT_TO_TARGET = "adjacentToTarget";
-    private static final String TARGET_SQUARE = "targetSquare";
     private static final String SLEDGEHAMMER_ALT = "sledgehammerAlt";
 
-    private static final String EFFECT = "effect";
-    private static final String DMG = "dmg";
-    private static final String MARK = "mark";
     private static final String STANDARD = "standard";
     private static final String MOVE = "move";
     private static final String MOVE_DAMAGE = "moveDamage";
@@ -94,7 +57,50 @@ public class WeaponFactory {
     private static final String HELLION = "hellion";
     private static final String POWER_GLOVE = "powerGlove";
 
-    private static final String MISSING_POSITION = "Some players do not have a position.";
+    /**
+     * The predefined finders and effects, indexed by the keys which can be used in the file weapons.json.
+     */
+    private static final Map<String, Function<WeaponFactory, TargetFinder>> TARGET_FINDERS = new HashMap<>();
+    private static final Map<String, Function<WeaponFactory, DestinationFinder>> DESTINATION_FINDERS = new HashMap<>();
+    private static final Map<String, EffectFactory> EFFECTS = new HashMap<>();
+
+    static {
+        TARGET_FINDERS.put(ONE_MAIN_TARGET, WeaponFactory::oneMainTargetTargets);
+        TARGET_FINDERS.put(ONE_MAIN_TARGET_OR_OTHER_VIISBLE, WeaponFactory::oneMainTargetOrOtherVisibleTargets);
+        TARGET_FINDERS.put(THOR_TWO, WeaponFactory::thorTwoTargets);
+        TARGET_FINDERS.put(PLASMA_GUN_ONE, WeaponFactory::plasmaGunOneTargets);
+        TARGET_FINDERS.put(VORTEX_CANNON_ONE, WeaponFactory::vortexCannonOneTargets);
+        TARGET_FINDERS.put(OTHER_ROOM, WeaponFactory::otherRoomTargets);
+        TARGET_FINDERS.put(FLAMETHROWER_MAIN, WeaponFactory::flamethrowerMainTargets);
+        TARGET_FINDERS.put(FLAMETHROWER_ALT, WeaponFactory::flamethrowerAltTargets);
+        TARGET_FINDERS.put(GRENADE_LAUNCHER, WeaponFactory::grenadeLauncherTargets);
+        TARGET_FINDERS.put(ROCKET_LAUNCHER_ONE, WeaponFactory::rocketLauncherOneTargets);
+        TARGET_FINDERS.put(ROCKET_LAUNCHER_TWO, WeaponFactory::rocketLauncherTwoTargets);
+        TARGET_FINDERS.put(RAILGUN_MAIN, WeaponFactory::railgunMainTargets);
+        TARGET_FINDERS.put(RAILGUN_ALT, WeaponFactory::railgunAltTargets);
+        TARGET_FINDERS.put(CYBERBLADE_ONE, WeaponFactory::cyberbladeOneTargets);
+        TARGET_FINDERS.put(POWER_GLOVE_ALT, WeaponFactory::powerGloveAltTargets);
+        TARGET_FINDERS.put(SHOCKWAVE_MAIN, WeaponFactory::shockwaveMainTargets);
+        DESTINATION_FINDERS.put(PLASMA_GUN_ONE, WeaponFactory::plasmaGunOneDestinations);
+        DESTINATION_FINDERS.put(ROCKET_LAUNCHER_ONE, WeaponFactory::rocketLauncherOneDestinations);
+        DESTINATION_FINDERS.put(CYBERBLADE_ONE, WeaponFactory::cyberbladeOneDestinations);
+        DESTINATION_FINDERS.put(POWER_GLOVE_ALT, WeaponFactory::powerGloveAltDestinations);
+        DESTINATION_FINDERS.put(SLEDGEHAMMER_ALT, WeaponFactory::sledgehammerAltDestinations);
+        EFFECTS.put(STANDARD, WeaponFactory::standardEffect);
+        EFFECTS.put(MOVE, WeaponFactory::moveEffect);
+        EFFECTS.put(MOVE_DAMAGE, WeaponFactory::moveDamageEffect);
+        EFFECTS.put(DAMAGE_MOVE, WeaponFactory::damageMoveEffect);
+        EFFECTS.put(HELLION, WeaponFactory::hellionEffect);
+        EFFECTS.put(FLAMETHROWER_ALT, WeaponFactory::flamethrowerAltEffect);
+        EFFECTS.put(POWER_GLOVE, WeaponFactory::powerGloveEffect);
+    }
+
+    /**
+     * The keys of the predefined finders and of the effects.
+     */
+    static final Set<String> TARGET_KEYS = Collections.unmodifiableSet(TARGET_FINDERS.keySet());
+    static final Set<String> DESTINATION_KEYS = Collections.unmodifiableSet(DESTINATION_FINDERS.keySet());
+    static final Set<String> EFFECT_KEYS = Collections.unmodifiableSet(EFFECTS.keySet());
 
 
     /**
@@ -105,41 +111,27 @@ public class WeaponFactory {
     public WeaponFactory(Board board){this.board = board;}
 
     /**
-     *Creates a Weapon object according to its name
+     *Creates a Weapon object according to its name.
+     * The weapon is instantiated from its definition in the WeaponCatalogue, binding the finders and the effects to the board.
      *
      * @param       weaponName  the name of the weapon to create
      * @return      the Weapon created
      */
     public Weapon createWeapon(Weapon.WeaponName weaponName) {
 
-        FireMode fireMode;
-        TargetFinder targetFinder;
-        DestinationFinder destinationFinder;
-        Effect effect;
-
-        JsonObject weaponTree = getWeaponTree(weaponName);
-
-        Color color = getColor(weaponTree);
-        AmmoPack fullCost = getFullCost(weaponTree);
-        AmmoPack reducedCost = getReducedCost(fullCost, color);
-
-        JsonArray fireModeArray = weaponTree.getAsJsonArray(MODES_TAG);
-        List<FireMode> fireModeList = new ArrayList<>(fireModeArray.size());
-        AmmoPack fireModeCost;
+        WeaponCatalogue.WeaponDefinition definition = WeaponCatalogue.getInstance().get(weaponName);
 
-        for (JsonElement firemodeElement : fireModeArray) {
-            JsonObject firemode = firemodeElement.getAsJsonObject();
-            FireMode.FireModeName name = getFireModeName(firemode.get(NAME_TAG).getAsString());
-            effect = getEffect(firemode);
-            targetFinder = getTargetFinder(firemode);
-            destinationFinder = getDestinationFinder(firemode);
-            fireModeCost = getFireModeCost(firemode);
-
-            fireMode = new FireMode(name, fireModeCost, destinationFinder, targetFinder, effect);
-            fireModeList.add(fireMode);
+        List<FireMode> fireModeList = new ArrayList<>(definition.getFireModes().size());
+        for (WeaponCatalogue.FireModeDefinition firemode : definition.getFireModes()) {
+            DestinationFinder destinationFinder = firemode.getDestinationSpec() != null ?
+                    firemode.getDestinationSpec().bind(board) : getDestinationFinder(firemode.getDestination());
+            TargetFinder targetFinder = firemode.getTargetSpec() != null ?
+                    firemode.getTargetSpec().bind(board) : getTargetFinder(firemode.getTarget());
+            fireModeList.add(new FireMode(firemode.getName(), firemode.getCost(), destinationFinder, targetFinder,
+                    getEffect(firemode.getEffect(), firemode.getDmg(), firemode.getMark())));
         }
 
-        Weapon weapon = new Weapon(weaponName, color, fullCost, reducedCost, fireModeList, board);
+        Weapon weapon = new Weapon(weaponName, definition.getColor(), definition.getFullCost(), definition.getReducedCost(), fireModeList, board);
 
         for (FireMode f : fireModeList) {
             f.setWeapon(weapon);
@@ -148,866 +140,674 @@ public class WeaponFactory {
     }
 
     /**
-     * Retrieves a jsonObject with information about the weapon from a file.
-     * @param weaponName    weapon to describe
-     * @return              information about the weapon
+     * Returns a lambda implementing the TargetFinder. Each possible lambda is associated with a string that can also be found
+     * in the file weapons.json. Only the targets which cannot be described by the targeting language have a predefined lambda.
+     *
+     * @param target   the key of the target finder
+     * @return          targetFinder logic
      */
-    private JsonObject getWeaponTree(Weapon.WeaponName weaponName){
-        JsonParser parser = new JsonParser();
-        JsonObject weaponTree = new JsonObject();
-        try {
-            JsonElement weaponElement = parser.parse(new InputStreamReader(this.getClass().getResourceAsStream("/" + WEAPONS_FILE)));
-            JsonObject weaponList = weaponElement.getAsJsonObject();
-            weaponTree = weaponList.getAsJsonObject(weaponName.toString());
-        }catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read weapon from file", e);
+    private TargetFinder getTargetFinder(String target) {
+
+        Function<WeaponFactory, TargetFinder> finder = TARGET_FINDERS.get(target);
+        if (finder == null) {
+            LOGGER.log(Level.SEVERE, "Target name does not match: {0}", target);
+            return (p, from) -> new ArrayList<>();
         }
-        return weaponTree;
+        return finder.apply(this);
     }
 
     /**
-     * Parses the weaponTree to get information about the color
+     * Returns a lambda implementing the DestinationFinder. Each possible lambda is associated with a string that can also be found
+     * in the file weapons.json. Only the destinations which cannot be described by the targeting language have a predefined lambda.
      *
-     * @param weaponTree    jsonObject to parse
-     * @return              the color of the weapon
+     * @param destination   the key of the destination finder
+     * @return              destinationFinder logic
      */
-    public Color getColor(JsonObject weaponTree) {
-        String color = "";
-        try {
-            color = weaponTree.get(COLOR_TAG).getAsString();
-        } catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read color in weaponTree", e);
-        }
-        for(Color c : Color.values()){
-            if(c.toString().equalsIgnoreCase(color)){
-                return c;
-            }
+    private DestinationFinder getDestinationFinder(String destination) {
+
+        Function<WeaponFactory, DestinationFinder> finder = DESTINATION_FINDERS.get(destination);
+        if (finder == null) {
+            LOGGER.log(Level.SEVERE, "Destination name does not match: {0}", destination);
+            return (p, from, t) -> new ArrayList<>();
         }
-        LOGGER.log(Level.SEVERE, "Color from weapon file does not match: {0}", color);
-        return PURPLE;
+        return finder.apply(this);
     }
 
     /**
-     * Parses the weaponTree to get information about the full cost
+     * Returns a lambda implementing the effect. Each possible lambda is associated with a string that can also be found
+     * in the file weapons.json.
      *
-     * @param weaponTree    jsonObject to parse
-     * @return              the full cost of the weapon
+     * @param effect    the key of the effect
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
      */
-    private AmmoPack getFullCost(JsonObject weaponTree) {
-        try {
-            int r = weaponTree.get(COST_R).getAsInt();
-            int b = weaponTree.get(COST_B).getAsInt();
-            int y = weaponTree.get(COST_Y).getAsInt();
-            return new AmmoPack(r, b, y);
-        } catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read cost in weaponTree", e);
+    private Effect getEffect(String effect, int dmg, int mark) {
+
+        EffectFactory factory = EFFECTS.get(effect);
+        if (factory == null) {
+            LOGGER.log(Level.SEVERE, "Effect name does not match: {0}", effect);
+            return createEffect(dmg, mark);
         }
-        return new AmmoPack(0,0,0);
+        return factory.create(this, dmg, mark);
     }
 
     /**
-     * Computes the reduced cost of a weapon from its fullcost and its color.
+     * Returns the target finder associated with the key 1mainTarget.
      *
-     * @param ammoPack      full cost
-     * @param color         color of the weapon
-     * @return              the reduced cost of the weapon
+     * @return          targetFinder logic
      */
-    private AmmoPack getReducedCost(AmmoPack ammoPack, Color color) {
-        AmmoPack reduced = new AmmoPack(ammoPack.getRedAmmo(), ammoPack.getBlueAmmo(), ammoPack.getYellowAmmo());
-        if (color == RED ) {
-            reduced.subAmmoPack(new AmmoPack(1,0,0));
-        }else if (color == BLUE) {
-            reduced.subAmmoPack(new AmmoPack(0,1,0));
-        }else if (color == YELLOW){
-            reduced.subAmmoPack(new AmmoPack(0,0,1));
-        }else{
-            LOGGER.log(Level.SEVERE, "Error in computing reduced cost");
-        }
-        return reduced;
+    private TargetFinder oneMainTargetTargets() {
+
+        return withProbe((p, from) -> (p.getMainTargets().stream()
+                .distinct()
+                .filter(x -> !p.getOptionalTargets().contains(x))
+                .map(Arrays::asList)
+                .collect(Collectors.toList())),
+                (p, from) -> (maskOf(p.getMainTargets()) & ~maskOf(p.getOptionalTargets())) != 0);
+
     }
 
     /**
-     * Converts a String representing a FireModeName to the correct object
+     * Returns the target finder associated with the key 1mainTargetOrOtherVisible.
      *
-     * @param name    string to convert
-     * @return        proper FireModeName
+     * @return          targetFinder logic
      */
-    private FireMode.FireModeName getFireModeName (String name){
-        for(FireMode.FireModeName fn : FireMode.FireModeName.values()){
-            if(fn.toString().equalsIgnoreCase(name)){
-                return fn;
+    private TargetFinder oneMainTargetOrOtherVisibleTargets() {
+
+        return withProbe((p, from) -> {
+            if(p.getMainTargets().isEmpty()){
+                return new ArrayList<>();
             }
-        }
-        LOGGER.log(Level.SEVERE, "Firemode name from weapon file does not match: {0}", name);
-        return MAIN;
+            List<List<Player>> pastTargets = p.getMainTargets().stream()
+                    .distinct()
+                    .filter(x -> !p.getOptionalTargets().contains(x))
+                    .map(Arrays::asList)
+                    .collect(Collectors.toList());
+            List<List<Player>> others = getPlayersIn(board.getVisibleMask(from), p).stream()
+                    .filter(x -> !(p.getMainTargets().contains(x) || p.getOptionalTargets().contains(x)))
+                    .map(Arrays::asList)
+                    .collect(Collectors.toList());
+            others.addAll(cartesian(pastTargets, others));
+            others.addAll(pastTargets);
+            return others;
+        },
+                (p, from) -> {
+                    if (p.getMainTargets().isEmpty()) {
+                        return false;
+                    }
+                    long excluded = maskOf(p.getMainTargets()) | maskOf(p.getOptionalTargets());
+                    return (maskOf(p.getMainTargets()) & ~maskOf(p.getOptionalTargets())) != 0
+                            || (othersIn(board.getVisibleMask(from), p) & ~excluded) != 0;
+                });
+
     }
 
     /**
-     * Parses a jsonObject with information about the firemode to retrieve its cost
+     * Returns the target finder associated with the key thor2.
      *
-     * @param fireMode  information about the firemode
-     * @return          the cost of the firemode
+     * @return          targetFinder logic
      */
-    private AmmoPack getFireModeCost (JsonObject fireMode) {
-        try {
-            if (fireMode.get(NAME_TAG).getAsString().equalsIgnoreCase(MAIN_TAG)) {
-                return new AmmoPack(0, 0, 0);
-            }
-            int r = fireMode.get(COST_R).getAsInt();
-            int b = fireMode.get(COST_B).getAsInt();
-            int y = fireMode.get(COST_Y).getAsInt();
-            return new AmmoPack(r, b, y);
-        }catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read firemode cost from jsonTree", e);
-        }
-        return new AmmoPack(0,0,0);
+    private TargetFinder thorTwoTargets() {
+
+        return withProbe((p, from) -> (p.getMainTargets().isEmpty() || p.getOptionalTargets().isEmpty()) ?
+                new ArrayList<>() : getPlayersIn(board.getVisibleMask(p.getOptionalTargets().get(0).getPosition()), p).stream()
+                .filter(x -> !(p.getMainTargets().contains(x) || p.getOptionalTargets().contains(x)))
+                .map(Arrays::asList)
+                .collect(Collectors.toList()),
+                (p, from) -> !p.getMainTargets().isEmpty() && !p.getOptionalTargets().isEmpty()
+                        && (othersIn(board.getVisibleMask(p.getOptionalTargets().get(0).getPosition()), p) & ~(maskOf(p.getMainTargets()) | maskOf(p.getOptionalTargets()))) != 0);
+
     }
 
     /**
-     * Returns a lambda implementing the TargetFinder. Each possible lambda is associated with a string that can also be found
-     * in the file weapons.json.
+     * Returns the target finder associated with the key plasmaGun1.
      *
-     * @param firemode  information about the firemode
      * @return          targetFinder logic
      */
-    private TargetFinder getTargetFinder(JsonObject firemode) {
+    private TargetFinder plasmaGunOneTargets() {
 
-        String target = "";
-        try {
-            target = firemode.get(TARGET).getAsString();
-        }catch(JsonIOException e){
-            LOGGER.log(Level.SEVERE, "Unable to get target from jsonTree", e);
-        }
+        return (p, from) -> {
+                    if (!p.getMainTargets().isEmpty()) {
+                        return Collections.singletonList(Collections.singletonList(p));
+                    }
+                    List<Square> l = board.getReachable(from, 2);
+                    for (Square s : l) {
+                        if (!s.equals(from) && anyPlayerIn(board.getVisibleMask(s), p)) {
+                            return Collections.singletonList(Collections.singletonList(p));
+                        }
+                    }
+                    return new ArrayList<>();
+                };
 
-        switch(target) {
-            case ONE_VISIBLE:
-                return p -> board.getVisible(p.getPosition()).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case ONE_OTHER_VISIBLE:
-                return p -> (p.getMainTargets().isEmpty() ? new ArrayList<>() : board.getVisible(p.getPosition()).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !x.equals(p) && !p.getMainTargets().isEmpty())
-                        .filter(x -> !p.getMainTargets().contains(x))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList()));
-            case ONE_OR_TWO_VISIBLE:
-                return p -> {
-                    List<List<Player>> res = board.getVisible(p.getPosition()).stream()
-                            .map(Square::getPlayers)
-                            .flatMap(List::stream)
-                            .distinct()
-                            .filter(x -> !x.equals(p))
+    }
+
+    /**
+     * Returns the target finder associated with the key vortexCannon1.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder vortexCannonOneTargets() {
+
+        return withProbe((p, from) -> {
+                    if (p.getMainTargets().isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    List<List<Player>> lp = getPlayersIn(board.getReachableMask(p.getMainTargets().get(0).getPosition(), 1), p).stream()
+                            .filter(x -> !p.getMainTargets().contains(x))
                             .map(Arrays::asList)
                             .collect(Collectors.toList());
-                    res.addAll(cartesian(res, res));
+                    List<List<Player>> res = cartesian(lp, lp);
+                    res.addAll(lp);
+                    return res;
+                },
+                (p, from) -> !p.getMainTargets().isEmpty()
+                        && (othersIn(board.getReachableMask(p.getMainTargets().get(0).getPosition(), 1), p) & ~maskOf(p.getMainTargets())) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key otherRoom.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder otherRoomTargets() {
+
+        return (p, from) -> {
+                    int shooterRoom = from.getRoomId();
+                    List<List<Player>> res = new ArrayList<>();
+                    List<Integer> rooms = new ArrayList<>();
+                    for (Square s : board.getSquares(board.getVisibleMask(from))) {
+                        if (s.getRoomId() != shooterRoom && !rooms.contains(s.getRoomId())) {
+                            rooms.add(s.getRoomId());
+                            //the shooter is excluded, since he can be evaluated from a hypothetical position out of his room
+                            List<Player> inRoom = new ArrayList<>();
+                            for (Player x : board.getPlayersInRoom(s.getRoomId())) {
+                                if (x != p) inRoom.add(x);
+                            }
+                            if (!inRoom.isEmpty()) {
+                                res.add(inRoom);
+                            }
+                        }
+                    }
                     return res;
                 };
-            case ONE_MAIN_TARGET:
-                return p -> (p.getMainTargets().stream()
-                        .distinct()
-                        .filter(x -> !p.getOptionalTargets().contains(x))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList()));
-            case ONE_MAIN_TARGET_OR_OTHER_VIISBLE:
-                return p -> {
-                    if(p.getMainTargets().isEmpty()){
+
+    }
+
+    /**
+     * Returns the target finder associated with the key flamethrowerMain.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder flamethrowerMainTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    for (Direction d : Direction.values()) {
+                        List<List<Player>> close = getPlayersInRay(p, from, d, false, 1).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        List<List<Player>> far = getPlayersInRay(p, from, d, false, 2).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        targets.addAll(close);
+                        targets.addAll(far);
+                        targets.addAll(cartesian(close, far));
+                    }
+                    return targets;
+                },
+                (p, from) -> othersIn(getLinesMask(from, false) & board.getReachableMask(from, 2), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key flamethrowerAlt.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder flamethrowerAltTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    for (Direction d : Direction.values()) {
+                        List<Player> line = getPlayersIn(board.getLineMask(from, d, false) & board.getReachableMask(from, 2), p);
+                        if(!line.isEmpty()) {
+                            targets.add(line);
+                        }
+                    }
+                    return targets;
+                },
+                (p, from) -> othersIn(getLinesMask(from, false) & board.getReachableMask(from, 2), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key grenadeLauncher1.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder grenadeLauncherTargets() {
+
+        return withProbe((p, from) -> {
+                    long others = board.getVisibleMask(from) & ~MapTopology.bitOf(from.getId());
+                    List<List<Player>> l = getPlayersBySquare(others, p);
+                    List<Player> inSameRoomAsPlayer = from.getPlayers().stream().filter(x -> !x.equals(p)).collect(Collectors.toList());
+                    if(!inSameRoomAsPlayer.isEmpty()){
+                        l.add(inSameRoomAsPlayer);
+                    }
+                    return l;
+                },
+                (p, from) -> othersIn(board.getVisibleMask(from), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key rocketLauncher1.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder rocketLauncherOneTargets() {
+
+        return (p, from) -> {
+                    if(!p.getMainTargets().isEmpty()){
+                        return Collections.singletonList(Collections.singletonList(p));
+                    }
+                    List<Square> l = board.getReachable(from, 2);
+                    long shooterSquare = MapTopology.bitOf(from.getId());
+                    for (Square s : l) {
+                        if (!s.equals(from) && anyPlayerIn(board.getVisibleMask(s) & ~shooterSquare, p)) {
+                            return Collections.singletonList(Collections.singletonList(p));
+                        }
+                    }
+                    return new ArrayList<>();
+                };
+
+    }
+
+    /**
+     * Returns the target finder associated with the key rocketLauncher2.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder rocketLauncherTwoTargets() {
+
+        return (p, from) -> {
+                    if (p.getMainTargets().isEmpty()) {
                         return new ArrayList<>();
                     }
-                    List<List<Player>> pastTargets = p.getMainTargets().stream()
+                    List<Player> l = new ArrayList<>(p.getMainTargets());
+                    for (Player player : p.getMainTargets()) {
+                        for (Player opt2target : player.getPreviousPosition().getPlayers())
+                            if (!l.contains(opt2target))
+                                l.add(opt2target);
+                    }
+                    return Collections.singletonList(l);
+                };
+
+    }
+
+    /**
+     * Returns the target finder associated with the key railgunMain.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder railgunMainTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    for (Direction d : Direction.values()) {
+                        List<List<Player>> single = getPlayersIn(board.getLineMask(from, d, true), p).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        targets.addAll(single);
+                    }
+                    targets.addAll(from.getPlayers().stream()
                             .distinct()
-                            .filter(x -> !p.getOptionalTargets().contains(x))
+                            .filter(x -> !x.equals(p))
                             .map(Arrays::asList)
-                            .collect(Collectors.toList());
-                    List<List<Player>> others = board.getVisible(p.getPosition()).stream()
-                            .map(Square::getPlayers)
-                            .flatMap(List::stream)
+                            .collect(Collectors.toList())
+                    );
+                    return targets;
+                },
+                (p, from) -> othersIn(getLinesMask(from, true) | MapTopology.bitOf(from.getId()), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key railgunAlt.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder railgunAltTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    List<List<Player>> close = from.getPlayers().stream()
                             .distinct()
                             .filter(x -> !x.equals(p))
-                            .filter(x -> !(p.getMainTargets().contains(x) || p.getOptionalTargets().contains(x)))
                             .map(Arrays::asList)
                             .collect(Collectors.toList());
-                    others.addAll(cartesian(pastTargets, others));
-                    others.addAll(pastTargets);
-                    return others;
+                    targets.addAll(close);
+                    targets.addAll(cartesian(close, close));
+                    for (Direction d : Direction.values()) {
+                        List<List<Player>> single = getPlayersIn(board.getLineMask(from, d, true), p).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        targets.addAll(single);
+                        List<List<Player>> both = new ArrayList<>(close);
+                        both.addAll(single);
+                        targets.addAll(cartesian(both, single));
+                    }
+                    return targets;
+                },
+                (p, from) -> othersIn(getLinesMask(from, true) | MapTopology.bitOf(from.getId()), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key cyberblade1.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder cyberbladeOneTargets() {
+
+        return (p, from) -> {
+                    if(!p.getMainTargets().isEmpty()){
+                        return Collections.singletonList(Collections.singletonList(p));
+                    }
+                    if (anyPlayerIn(board.getReachableMask(from, 1) & ~MapTopology.bitOf(from.getId()), p)) {
+                        return Collections.singletonList(Collections.singletonList(p));
+                    }
+                    return new ArrayList<>();
                 };
-            case THOR_ONE:
-                return p -> (p.getMainTargets().isEmpty()) ?
-                        new ArrayList<>() : board.getVisible(p.getMainTargets().get(0).getPosition()).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !p.getMainTargets().contains(x))
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case THOR_TWO:
-                return p -> (p.getMainTargets().isEmpty() || p.getOptionalTargets().isEmpty()) ?
-                        new ArrayList<>() : board
-                        .getVisible(p.getOptionalTargets().get(0).getPosition()).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !(p.getMainTargets().contains(x) || p.getOptionalTargets().contains(x)))
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case PLASMA_GUN_ONE:
-                return p -> {
-                            if (!p.getMainTargets().isEmpty()) {
-                                return Collections.singletonList(Collections.singletonList(p));
-                            }
-                            List<Square> l = board.getReachable(p.getPosition(), 2);
-                            for (Square s : l) {
-                                if (!s.containsPlayer(p)) {
-                                    if (board.getVisible(s).stream()
-                                            .map(Square::getPlayers)
-                                            .flatMap(List::stream)
-                                            .distinct()
-                                            .filter(x -> !x.equals(p))
-                                            .map(Arrays::asList)
-                                            .count()!=0) {
-                                        return Collections.singletonList(Collections.singletonList(p));
-                                    }
-                                }
-                            }
-                            return new ArrayList<>();
-                        };
-            case WHISPER:
-                return p -> board.getVisible(p.getPosition()).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .filter(x -> {
-                            try {
-                                return board.getDistance(x.getPosition(), p.getPosition()) >= 2;
-                            } catch (NotAvailableAttributeException e) {
-                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                return false;
+
+    }
+
+    /**
+     * Returns the target finder associated with the key powerGloveAlt.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder powerGloveAltTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    for (Direction d : Direction.values()) {
+                        List<List<Player>> close = getPlayersInRay(p, from, d, true, 1).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        List<List<Player>> far = getPlayersInRay(p, from, d, true, 2).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        targets.addAll(close);
+                        targets.addAll(far);
+                        targets.addAll(cartesian(close, far));
+                    }
+                    return targets;
+                },
+                (p, from) -> othersIn(getLinesMask(from, true) & board.getReachableMask(from, 2), p) != 0);
+
+    }
+
+    /**
+     * Returns the target finder associated with the key shockwaveMain.
+     *
+     * @return          targetFinder logic
+     */
+    private TargetFinder shockwaveMainTargets() {
+
+        return withProbe((p, from) -> {
+                    List<List<Player>> targets = new ArrayList<>();
+                    List<List<List<Player>>> directionalTargets = new ArrayList<>();
+                    for (Direction d : Direction.values()) {
+                        List<List<Player>> candidate = getPlayersInRay(p, from, d, false, 1).stream()
+                                .map(Arrays::asList)
+                                .collect(Collectors.toList());
+                        if (!candidate.isEmpty()) {
+                            directionalTargets.add(candidate);
+                        }
+                    }
+                    for (int i = 0; i < directionalTargets.size(); i++) {
+                        targets.addAll(directionalTargets.get(i));
+                        for (int j = i + 1; j < directionalTargets.size(); j++) {
+                            targets.addAll(cartesian(directionalTargets.get(i), directionalTargets.get(j)));
+                            for (int k = j + 1; k < directionalTargets.size(); k++) {
+                                targets.addAll(cartesian(cartesian(directionalTargets.get(i), directionalTargets.get(j)), directionalTargets.get(k)));
                             }
-                        })
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case ALL_SAME_SQUARE:
-                return p -> Collections.singletonList(p.getPosition().getPlayers().stream()
-                        .distinct()
-                        .filter(x -> (!x.equals(p)))
-                        .collect(Collectors.toList()));
-            case TRACTOR_BEAM_MAIN:
-                return p -> {
-                    List<Square> l = board.getVisible(p.getPosition());
-                    List<Square> temp = new ArrayList<>();
+                        }
+                    }
+                    return targets;
+                },
+                (p, from) -> othersIn(board.getReachableMask(from, 1) & ~MapTopology.bitOf(from.getId()), p) != 0);
+
+    }
+
+    /**
+     * Returns the destination finder associated with the key plasmaGun1.
+     *
+     * @return          destinationFinder logic
+     */
+    private DestinationFinder plasmaGunOneDestinations() {
+
+        return (p, from, t) -> {
+                    List<Square> l = board.getReachable(from, 2);
+                    l.remove(from);
+                    if (!p.getMainTargets().isEmpty()) {
+                        return l;
+                    }
+                    List<Square> selectable = new ArrayList<>(l);
                     for (Square s : l) {
-                        temp.addAll(board.getReachable(s, 2));
+                        if (!anyPlayerIn(board.getVisibleMask(s), p)) {
+                            selectable.remove(s);
+                        }
                     }
-                    return temp.stream()
-                            .distinct()
-                            .map(Square::getPlayers)
-                            .flatMap(List::stream)
-                            .distinct()
-                            .filter(x -> !x.equals(p))
-                            .map(Arrays::asList)
-                            .collect(Collectors.toList());
+                    return selectable;
                 };
-            case TRACTOR_BEAM_ALT:
-                return p -> board.getReachable(p.getPosition(), 2).stream()
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case VORTEX_CANNON_MAIN:
-                return p -> {
-                            List<Square> l = board.getVisible(p.getPosition());
-                            List<Square> temp = new ArrayList<>();
-                            for (Square s : l) {
-                                temp.addAll(board.getReachable(s, 1));
-                            }
-                            return temp.stream()
-                                    .map(Square::getPlayers)
-                                    .flatMap(List::stream)
-                                    .distinct()
-                                    .filter(x -> !x.equals(p))
-                                    .map(Arrays::asList)
-                                    .collect(Collectors.toList());
-                        };
-            case VORTEX_CANNON_ONE:
-                return p -> {
-                            if (p.getMainTargets().isEmpty()) {
-                                return new ArrayList<>();
-                            }
-                            List<List<Player>> lp = board.getReachable(p.getMainTargets().get(0).getPosition(), 1).stream()
-                                    .map(Square::getPlayers)
-                                    .flatMap(List::stream)
-                                    .distinct()
-                                    .filter(x -> !x.equals(p))
-                                    .filter(x -> !p.getMainTargets().contains(x))
-                                    .map(Arrays::asList)
-                                    .collect(Collectors.toList());
-                            List<List<Player>> res = cartesian(lp, lp);
-                            res.addAll(lp);
-                            return res;
-                        };
-            case OTHER_ROOM:
-                return p -> {
-                            List<List<Square>> roomList = board.getVisible(p.getPosition()).stream()
-                                    .map(Square::getRoomId)
-                                    .distinct()
-                                    .filter(x -> {
-                                        try {
-                                            return x != p.getPosition().getRoomId();
-                                        } catch (NotAvailableAttributeException ex) {
-                                            LOGGER.log(Level.SEVERE, MISSING_POSITION, ex);
-                                            return false;
-                                        }
-                                    })
-                                    .map(x -> board.getSquaresInRoom(x))
-                                    .collect(Collectors.toList());
-                            List<List<Player>> res = new ArrayList<>();
-                            List<Player> temp = new ArrayList<>();
-                            for (List<Square> ls : roomList) {
-                                for (Square s : ls) {
-                                    temp.addAll(s.getPlayers());
-                                }
-                                if (!temp.isEmpty()) {
-                                    res.add(temp);
-                                }
-                                temp = new ArrayList<>();
-                            }
-                            return res;
-                        };
-            case ADJACENT_SQUARE:
-                return p -> board.getReachable(p.getPosition(), 1).stream()
-                        .filter(x -> !x.containsPlayer(p))
-                        .map(Square::getPlayers)
-                        .filter(x -> !x.isEmpty())
-                        .collect(Collectors.toList());
-            case NOT_VISIBLE:
-                return p -> board.getMap().stream()
-                        .filter(x -> {
-                            try {
-                                return !board.getVisible(p.getPosition()).contains(x);
-                            } catch (NotAvailableAttributeException e) {
-                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                return false;
-                            }
-                        })
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case NOT_SHOOTER_SQUARE_VISIBLE:
-                return p -> board.getVisible(p.getPosition()).stream()
-                        .filter(x -> !x.containsPlayer(p))
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case FLAMETHROWER_MAIN:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            for (Direction d : Direction.values()) {
-                                List<List<Player>> close = board.getSquaresInLine(p.getPosition(), d).stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getReachable(p.getPosition(), 1).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                List<List<Player>> far = board.getSquaresInLine(p.getPosition(), d).stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getReachable(p.getPosition(), 2).contains(x) && !board.getReachable(p.getPosition(), 1).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                targets.addAll(close);
-                                targets.addAll(far);
-                                targets.addAll(cartesian(close, far));
-                            }
-                            return targets;
-                        };
-            case FLAMETHROWER_ALT:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            for (Direction d : Direction.values()) {
-                                List<Player> line = board.getSquaresInLine(p.getPosition(), d).stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getReachable(p.getPosition(), 2).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .collect(Collectors.toList());
-                                if(!line.isEmpty()) {
-                                    targets.add(line);
-                                }
-                            }
-                            return targets;
-                        };
-            case GRENADE_LAUNCHER:
-                return p -> {
-                            List<List<Player>> l = board.getVisible(p.getPosition()).stream()
-                                    .filter(x -> !x.containsPlayer(p))
-                                    .map(Square::getPlayers)
-                                    .filter(x->!x.isEmpty())
-                                    .collect(Collectors.toList());
-                            List<Player> inSameRoomAsPlayer = p.getPosition().getPlayers().stream().filter(x -> !x.equals(p)).collect(Collectors.toList());
-                            if(!inSameRoomAsPlayer.isEmpty()){
-                                l.add(inSameRoomAsPlayer);
-                            }
-                            return l;
-                        };
-            case ROCKET_LAUNCHER_ONE:
-                return p -> {
-                            if(!p.getMainTargets().isEmpty()){
-                                return Collections.singletonList(Collections.singletonList(p));
-                            }
-                            List<Square> l = board.getReachable(p.getPosition(), 2);
-                            for (Square s : l) {
-                                List<Square> targets = board.getVisible(s).stream()
-                                        .filter(x->!x.containsPlayer(p))
-                                        .filter(x->!x.getPlayers().isEmpty())
-                                        .collect(Collectors.toList());
-                                if (!targets.isEmpty() && !s.containsPlayer(p)) {
-                                    return Collections.singletonList(Collections.singletonList(p));
-                                }
-                            }
-                            return new ArrayList<>();
-                        };
-            case ROCKET_LAUNCHER_TWO:
-                return p -> {
-                            if (p.getMainTargets().isEmpty()) {
-                                return new ArrayList<>();
-                            }
-                            List<Player> l = new ArrayList<>(p.getMainTargets());
-                            for (Player player : p.getMainTargets()) {
-                                for (Player opt2target : player.getPreviousPosition().getPlayers())
-                                    if (!l.contains(opt2target))
-                                        l.add(opt2target);
-                            }
-                            return Collections.singletonList(l);
-                        };
-            case RAILGUN_MAIN:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            for (Direction d : Direction.values()) {
-                                List<List<Player>> single = board.getSquaresInLineIgnoringWalls(p.getPosition(), d)
-                                        .stream()
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                targets.addAll(single);
-                            }
-                            targets.addAll(p.getPosition().getPlayers().stream()
-                                    .distinct()
-                                    .filter(x -> !x.equals(p))
-                                    .map(Arrays::asList)
-                                    .collect(Collectors.toList())
-                            );
-                            return targets;
-                        };
-            case RAILGUN_ALT:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            List<List<Player>> close = p.getPosition().getPlayers().stream()
-                                    .distinct()
-                                    .filter(x -> !x.equals(p))
-                                    .map(Arrays::asList)
-                                    .collect(Collectors.toList());
-                            targets.addAll(close);
-                            targets.addAll(cartesian(close, close));
-                            for (Direction d : Direction.values()) {
-                                List<List<Player>> single = board.getSquaresInLineIgnoringWalls(p.getPosition(), d)
-                                        .stream()
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                targets.addAll(single);
-                                List<List<Player>> both = new ArrayList<>(close);
-                                both.addAll(single);
-                                targets.addAll(cartesian(both, single));
-                            }
-                            return targets;
-                        };
-            case ONE_SAME_SQUARE:
-                return p -> p.getPosition().getPlayers().stream()
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-
-            case CYBERBLADE_ONE:
-                return p -> {
-                            if(!p.getMainTargets().isEmpty()){
-                                return Collections.singletonList(Collections.singletonList(p));
-                            }
-                            for (Square s : board.getReachable(p.getPosition(), 1)) {
-                                if (!s.containsPlayer(p)&&!s.getPlayers().isEmpty()) {
-                                    return Collections.singletonList(Collections.singletonList(p));
-                                }
-                            }
-                            return new ArrayList<>();
-                        };
-            case ONE_OTHER_SAME_SQUARE:
-                return p -> p.getMainTargets().isEmpty()? new ArrayList<>():p.getPosition().getPlayers().stream()
-                        .distinct()
-                        .filter(x -> !x.equals(p))
-                        .filter(x -> !p.getMainTargets().contains(x))
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case THREE_VISIBLE:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            List<List<Player>> single = board.getVisible(p.getPosition()).stream()
-                                    .map(Square::getPlayers)
-                                    .flatMap(List::stream)
-                                    .distinct()
-                                    .filter(x -> !x.equals(p))
-                                    .map(Arrays::asList)
-                                    .collect(Collectors.toList());
-                            targets.addAll(single);
-                            targets.addAll(cartesian(single, single));
-                            targets.addAll(cartesian(cartesian(single, single), single));
-                            return targets;
-                        };
-            case ONE_STEP_AWAY:
-                return p -> board.getReachable(p.getPosition(), 1).stream()
-                        .filter(x -> (!x.getPlayers().contains(p)))
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .map(Arrays::asList)
-                        .collect(Collectors.toList());
-            case POWER_GLOVE_ALT:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            for (Direction d : Direction.values()) {
-                                List<List<Player>> close = board.getSquaresInLineIgnoringWalls(p.getPosition(), d)
-                                        .stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getReachable(p.getPosition(), 1).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                List<List<Player>> far = board.getSquaresInLineIgnoringWalls(p.getPosition(), d)
-                                        .stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getReachable(p.getPosition(), 2).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .filter(x -> {
-                                            try {
-                                                return !board.getReachable(p.getPosition(), 1).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                targets.addAll(close);
-                                targets.addAll(far);
-                                targets.addAll(cartesian(close, far));
-                            }
-                            return targets;
-                        };
-            case SHOCKWAVE_MAIN:
-                return p -> {
-                            List<List<Player>> targets = new ArrayList<>();
-                            List<List<List<Player>>> directionalTargets = new ArrayList<>();
-                            for (Direction d : Direction.values()) {
-                                List<List<Player>> candidate = board.getReachable(p.getPosition(), 1).stream()
-                                        .filter(x -> {
-                                            try {
-                                                return board.getSquaresInLine(p.getPosition(), d).contains(x);
-                                            } catch (NotAvailableAttributeException e) {
-                                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                                return false;
-                                            }
-                                        })
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .map(Arrays::asList)
-                                        .collect(Collectors.toList());
-                                if (!candidate.isEmpty()) {
-                                    directionalTargets.add(candidate);
-                                }
-                            }
-                            for (int i = 0; i < directionalTargets.size(); i++) {
-                                targets.addAll(directionalTargets.get(i));
-                                for (int j = i + 1; j < directionalTargets.size(); j++) {
-                                    targets.addAll(cartesian(directionalTargets.get(i), directionalTargets.get(j)));
-                                    for (int k = j + 1; k < directionalTargets.size(); k++) {
-                                        targets.addAll(cartesian(cartesian(directionalTargets.get(i), directionalTargets.get(j)), directionalTargets.get(k)));
-                                    }
-                                }
-                            }
-                            return targets;
-                        };
-            case SHOCKWAVE_ALT:
-                return p -> Collections.singletonList(board.getReachable(p.getPosition(), 1).stream()
-                        .filter(x -> (!x.getPlayers().contains(p)))
-                        .map(Square::getPlayers)
-                        .flatMap(List::stream)
-                        .distinct()
-                        .collect(Collectors.toList()));
-
-            default:
-                LOGGER.log(Level.SEVERE, "Target name does not match: {0}", target);
-                return p -> new ArrayList<>();
-        }
+
     }
 
     /**
-     * Returns a lambda implementing the DestinationFinder. Each possible lambda is associated with a string that can also be found
-     * in the file weapons.json.
+     * Returns the destination finder associated with the key rocketLauncher1.
      *
-     * @param firemode  information about the firemode
      * @return          destinationFinder logic
      */
-    private DestinationFinder getDestinationFinder(JsonObject firemode) {
-        String destination = "";
-        try {
-            destination = firemode.get("destination").getAsString();
-        }catch (JsonIOException e){
-            LOGGER.log(Level.SEVERE, "Unable to get destination from jsonTree", e);
-        }
+    private DestinationFinder rocketLauncherOneDestinations() {
 
-        switch(destination) {
-            case NONE:
-                return (p, t) -> new ArrayList<>();
-            case PLASMA_GUN_ONE:
-                return (p, t) -> {
-                            List<Square> l = board.getReachable(p.getPosition(), 2);
-                            l.remove(p.getPosition());
-                            if (!p.getMainTargets().isEmpty()) {
-                                return l;
-                            }
-                            List<Square> selectable = new ArrayList<>(l);
-                            for (Square s : l) {
-                                if (board.getVisible(s).stream()
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .filter(x -> !x.equals(p))
-                                        .map(Arrays::asList)
-                                        .count()==0) {
-                                    selectable.remove(s);
-                                }
-                            }
-                            return selectable;
-                        };
-            case TRACTOR_BEAM_MAIN:
-                return (p, t) -> board.getVisible(p.getPosition()).stream()
-                        .distinct()
-                        .filter(x -> {
-                            try {
-                                return !t.isEmpty() && board.getReachable(t.get(0).getPosition(), 2).contains(x);
-                            } catch (NotAvailableAttributeException e) {
-                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                return false;
-                            }
-                        })
-                        .collect(Collectors.toList());
-            case SHOOTER_SQAURE:
-                return (p, t) -> Collections.singletonList(p.getPosition());
-            case VORTEX_CANNON_MAIN:
-                return (p, t) -> board.getVisible(p.getPosition()).stream()
-                        .filter(x -> {
-                            try {
-                                return !t.isEmpty() && board.getReachable(t.get(0).getPosition(), 1).contains(x);
-                            } catch (NotAvailableAttributeException e) {
-                                LOGGER.log(Level.SEVERE, MISSING_POSITION, e);
-                                return false;
-                            }
-                        })
-                        .filter(x -> !x.containsPlayer(p))
-                        .distinct()
-                        .collect(Collectors.toList());
-            case VORTEX_CANNON_ONE:
-                return (p, t) -> p.getMainTargets().isEmpty() ? new ArrayList<>() : Collections.singletonList(p.getMainTargets().get(0).getPosition());
-            case ADJACENT_TO_TARGET:
-                return (p, t) -> t.isEmpty() ? new ArrayList<>() : board.getReachable(t.get(0).getPosition(), 1);
-            case ROCKET_LAUNCHER_ONE:
-                return (p, t) -> {
-                            List<Square> l = board.getReachable(p.getPosition(), 2);
-                            l.remove(p.getPosition());
-                            if (!p.getMainTargets().isEmpty()) {
-                                return l;
-                            }
-                            List<Square> res = new ArrayList<>(l);
-                            for (Square s : l) {
-                                if (board.getVisible(s).stream()
-                                        .filter(x -> !x.equals(s))
-                                        .map(Square::getPlayers)
-                                        .flatMap(List::stream)
-                                        .distinct()
-                                        .filter(x -> !x.equals(p))
-                                        .map(Arrays::asList)
-                                        .count()==0) {
-                                    res.remove(s);
-                                }
-                            }
-                            return res;
-                        };
-            case CYBERBLADE_ONE:
-                return (p, t) -> {
-                            if (p.getMainTargets().isEmpty()) {
-                                return board.getReachable(p.getPosition(), 1).stream().filter(x -> !x.getPlayers().contains(p)&&!x.getPlayers().isEmpty()).collect(Collectors.toList());
-                            }
-                            return board.getReachable(p.getPosition(), 1).stream().filter(x -> !x.containsPlayer(p)).collect(Collectors.toList());
-                        };
-            case TARGET_SQUARE:
-                return (p, t) -> t.isEmpty() ? new ArrayList<>() : Collections.singletonList(t.get(0).getPosition());
-            case POWER_GLOVE_ALT:
-                return (p, t) -> {
-                            for (Player temp : t) {
-                                if (board.getDistance(p.getPosition(), temp.getPosition()) > 1) {
-                                    return Collections.singletonList(temp.getPosition());
-                                }
-                            }
-                            List<Square> res = new ArrayList<>();
-                            res.add(t.get(0).getPosition());
-                            for (Direction d : Direction.values()) {
-                                if (board.getSquaresInLine(p.getPosition(), d).contains(t.get(0).getPosition())) {
-                                    for (Square sq : board.getSquaresInLine(p.getPosition(), d)) {
-                                        if (board.getDistance(sq, p.getPosition()) == 2) {
-                                            res.add(sq);
-                                        }
-                                    }
-                                }
+        return (p, from, t) -> {
+                    List<Square> l = board.getReachable(from, 2);
+                    l.remove(from);
+                    if (!p.getMainTargets().isEmpty()) {
+                        return l;
+                    }
+                    List<Square> res = new ArrayList<>(l);
+                    for (Square s : l) {
+                        if (!anyPlayerIn(board.getVisibleMask(s) & ~MapTopology.bitOf(s.getId()), p)) {
+                            res.remove(s);
+                        }
+                    }
+                    return res;
+                };
 
-                            }
-                            return res;
-                        };
-            case SLEDGEHAMMER_ALT:
-                return (p, t) -> {
-                            List<Square> res = new ArrayList<>();
-                            Square center = p.getPosition();
-                            res.add(center);
-                            for (Direction d : Direction.values()) {
-                                res.addAll(board.getSquaresInLine(center, d).stream()
-                                        .filter(x -> board.getDistance(center, x) < 3)
-                                        .collect(Collectors.toList()));
-                            }
-                            return res;
-                        };
-            default:
-                LOGGER.log(Level.SEVERE, "Destination name does not match: {0}", destination);
-                return (p, t) -> new ArrayList<>();
-        }
     }
 
     /**
-     * Returns a lambda implementing the effect. Each possible lambda is associated with a string that can also be found
-     * in the file weapons.json.
+     * Returns the destination finder associated with the key cyberblade1.
      *
-     * @param firemode  information about the firemode
-     * @return          effect logic
+     * @return          destinationFinder logic
      */
-    private Effect getEffect(JsonObject firemode) {
-        String effect = "";
-        int tmpDmg = 0;
-        int tmpMark = 0;
-        try {
-            effect = firemode.get(EFFECT).getAsString();
-            tmpDmg = firemode.get(DMG).getAsInt();
-            tmpMark = firemode.get(MARK).getAsInt();
-        }catch (JsonIOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read effect from jsonTree", e);
-        }
-        int dmg = tmpDmg;
-        int mark = tmpMark;
-
-        switch (effect) {
-            case STANDARD:
-                return createEffect(dmg, mark);
-            case MOVE:
-                return (shooter, target, destination) -> target.setPosition(destination);
-            case MOVE_DAMAGE:
-                return (shooter, target, destination) -> {
-                    target.setPosition(destination);
-                    target.sufferDamage(dmg, shooter);
-                    target.addMarks(mark, shooter);
-                };
-            case DAMAGE_MOVE:
-                return (shooter, target, destination) -> {
-                    target.sufferDamage(dmg, shooter);
-                    target.addMarks(mark, shooter);
-                    target.setPosition(destination);
-                };
-            case HELLION:
-                return (shooter, target, destination) -> {
-                    target.sufferDamage(dmg, shooter);
-                    board.getPlayersInside(target.getPosition()).forEach(x -> x.addMarks(mark, shooter));
+    private DestinationFinder cyberbladeOneDestinations() {
+
+        return (p, from, t) -> {
+                    long adjacent = board.getReachableMask(from, 1) & ~MapTopology.bitOf(from.getId());
+                    if (p.getMainTargets().isEmpty()) {
+                        long occupied = 0;
+                        for (long rest = adjacent; rest != 0; rest &= rest - 1) {
+                            if (anyPlayerIn(Long.lowestOneBit(rest), p)) {
+                                occupied |= Long.lowestOneBit(rest);
+                            }
+                        }
+                        return board.getSquares(occupied);
+                    }
+                    return board.getSquares(adjacent);
                 };
-            case FLAMETHROWER_ALT:
-                return (shooter, target, destination) -> {
-                    if (board.getReachable(shooter.getPosition(), 1).contains(target.getPosition())) {
-                        target.sufferDamage(dmg, shooter);
-                    } else target.sufferDamage(1, shooter);
+
+    }
+
+    /**
+     * Returns the destination finder associated with the key powerGloveAlt.
+     *
+     * @return          destinationFinder logic
+     */
+    private DestinationFinder powerGloveAltDestinations() {
+
+        return (p, from, t) -> {
+                    for (Player temp : t) {
+                        if (board.getDistance(from, temp.getPosition()) > 1) {
+                            return Collections.singletonList(temp.getPosition());
+                        }
+                    }
+                    List<Square> res = new ArrayList<>();
+                    res.add(t.get(0).getPosition());
+                    long farSquares = board.getReachableMask(from, 2) & ~board.getReachableMask(from, 1);
+                    for (Direction d : Direction.values()) {
+                        long line = board.getLineMask(from, d, false);
+                        if ((line & MapTopology.bitOf(t.get(0).getPosition().getId())) != 0) {
+                            res.addAll(board.getSquares(line & farSquares));
+                        }
+                    }
+                    return res;
                 };
-            case POWER_GLOVE:
-                return (shooter, target, destination) -> {
-                    shooter.setPosition(destination);
-                    target.sufferDamage(dmg, shooter);
-                    target.addMarks(mark, shooter);
+
+    }
+
+    /**
+     * Returns the destination finder associated with the key sledgehammerAlt.
+     *
+     * @return          destinationFinder logic
+     */
+    private DestinationFinder sledgehammerAltDestinations() {
+
+        return (p, from, t) -> {
+                    List<Square> res = new ArrayList<>();
+                    Square center = from;
+                    res.add(center);
+                    for (Direction d : Direction.values()) {
+                        res.addAll(board.getSquares(board.getLineMask(center, d, false) & board.getReachableMask(center, 2)));
+                    }
+                    return res;
                 };
-            default:
-                LOGGER.log(Level.SEVERE, "Effect name does not match: {0}", effect);
-                return createEffect(dmg, mark);
-        }
+
+    }
+
+    /**
+     * Returns the effect associated with the key standard.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect standardEffect(int dmg, int mark) {
+
+        return createEffect(dmg, mark);
+
+    }
+
+    /**
+     * Returns the effect associated with the key move.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect moveEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> target.setPosition(destination);
+
+    }
+
+    /**
+     * Returns the effect associated with the key moveDamage.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect moveDamageEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> {
+            target.setPosition(destination);
+            target.sufferDamage(dmg, shooter);
+            target.addMarks(mark, shooter);
+        };
+
+    }
+
+    /**
+     * Returns the effect associated with the key damageMove.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect damageMoveEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> {
+            target.sufferDamage(dmg, shooter);
+            target.addMarks(mark, shooter);
+            target.setPosition(destination);
+        };
+
+    }
+
+    /**
+     * Returns the effect associated with the key hellion.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect hellionEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> {
+            target.sufferDamage(dmg, shooter);
+            board.getPlayersInside(target.getPosition()).forEach(x -> x.addMarks(mark, shooter));
+        };
+
+    }
+
+    /**
+     * Returns the effect associated with the key flamethrowerAlt.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect flamethrowerAltEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> {
+            if (board.getDistance(shooter.getPosition(), target.getPosition()) <= 1) {
+                target.sufferDamage(dmg, shooter);
+            } else target.sufferDamage(1, shooter);
+        };
+
+    }
+
+    /**
+     * Returns the effect associated with the key powerGlove.
+     *
+     * @param dmg       the damage dealt
+     * @param mark      the marks dealt
+     * @return          effect logic
+     */
+    private Effect powerGloveEffect(int dmg, int mark) {
+
+        return (shooter, target, destination) -> {
+            shooter.setPosition(destination);
+            target.sufferDamage(dmg, shooter);
+            target.addMarks(mark, shooter);
+        };
+
     }
 
     /**
@@ -1035,6 +835,183 @@ public class WeaponFactory {
 
     }
 
+    /**
+     * Functional interface creating an effect of a factory, given the damage and the marks dealt.
+     */
+    private interface EffectFactory {
+
+        /**
+         * Creates the effect.
+         *
+         * @param factory       the factory binding the effect to its board.
+         * @param dmg           the damage dealt.
+         * @param mark          the marks dealt.
+         * @return              the effect.
+         */
+        Effect create(WeaponFactory factory, int dmg, int mark);
+
+    }
+
+    /**
+     * Functional interface establishing whether a player can hit at least a group of targets, without listing them.
+     */
+    private interface TargetProbe {
+
+        /**
+         * Returns whether the player can hit at least a non-empty group of targets from the specified square.
+         *
+         * @param shooter       the shooting player.
+         * @param from          the square the player shoots from.
+         * @return              true if there is at least a non-empty group of targets.
+         *                      false otherwise.
+         * @throws NotAvailableAttributeException if the position of one of the involved players has not been set.
+         */
+        boolean exists(Player shooter, Square from) throws NotAvailableAttributeException;
+
+    }
+
+    /**
+     * Returns a TargetFinder which lists the targets with the specified finder and checks the existence of targets
+     * with the specified probe. The two must agree on the groups of targets.
+     *
+     * @param finder        the finder creating the lists of targets.
+     * @param probe         the probe checking the existence of targets.
+     * @return              the combined finder.
+     */
+    private static TargetFinder withProbe(TargetFinder finder, TargetProbe probe) {
+        return new TargetFinder() {
+            @Override
+            public List<List<Player>> find(Player shooter, Square from) throws NotAvailableAttributeException {
+                return finder.find(shooter, from);
+            }
+
+            @Override
+            public boolean exists(Player shooter, Square from) throws NotAvailableAttributeException {
+                return probe.exists(shooter, from);
+            }
+        };
+    }
+
+    /**
+     * Returns the mask of a list of players.
+     *
+     * @param players       the players.
+     * @return              the mask of the players, as defined by Board.
+     */
+    private static long maskOf(List<Player> players) {
+        long mask = 0;
+        for (Player x : players) {
+            mask |= Board.bitOf(x);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the mask of the squares in line with a square, in any direction.
+     *
+     * @param s                 the square.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @return                  the mask of the squares, as defined by MapTopology.
+     */
+    private long getLinesMask(Square s, boolean ignoringWalls) {
+        long mask = 0;
+        for (Direction d : Direction.values()) {
+            mask |= board.getLineMask(s, d, ignoringWalls);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the mask of the players standing in a set of squares, excluding the specified player.
+     *
+     * @param squares       the mask of the squares, as defined by MapTopology.
+     * @param excluded      the player to exclude.
+     * @return              the mask of the players, as defined by Board.
+     */
+    private long othersIn(long squares, Player excluded) {
+        return board.getOccupancyMask(squares) & ~Board.bitOf(excluded);
+    }
+
+    /**
+     * Returns the players standing in a set of squares, excluding the specified player.
+     * The players are listed following the order of the squares in the map.
+     *
+     * @param squares       the mask of the squares, as defined by MapTopology.
+     * @param excluded      the player to exclude.
+     * @return              the players in the squares.
+     */
+    private List<Player> getPlayersIn(long squares, Player excluded) {
+        List<Player> res = new ArrayList<>();
+        long occupied = squares & board.getOccupiedMask();
+        if (occupied == 0) {
+            return res;
+        }
+        for (Square s : board.getMap()) {
+            if ((occupied & MapTopology.bitOf(s.getId())) != 0) {
+                for (Player x : s.getPlayers()) {
+                    if (!x.equals(excluded)) res.add(x);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the players standing in line with a square, in the specified direction, at the specified distance in steps.
+     *
+     * @param shooter           the shooter, who is excluded.
+     * @param from              the square the shooter shoots from.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the line goes through walls.
+     * @param distance          the distance in steps.
+     * @return                  the players at the specified distance.
+     * @throws NotAvailableAttributeException if the topology of the board has not been set.
+     */
+    private List<Player> getPlayersInRay(Player shooter, Square from, Direction direction, boolean ignoringWalls, int distance) throws NotAvailableAttributeException {
+        MapTopology topology = board.getTopology();
+        int id = from.getId();
+        List<Player> res = new ArrayList<>();
+        for (int k = 0; k < topology.getRayLength(id, direction, ignoringWalls); k++) {
+            if (topology.getRayDistance(id, direction, ignoringWalls, k) == distance) {
+                for (Player x : board.getSquare(topology.getRaySquare(id, direction, ignoringWalls, k)).getPlayers()) {
+                    if (!x.equals(shooter)) res.add(x);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns, for every square of a set containing a player other than the specified one, the players standing in it.
+     * The squares follow the order of the map.
+     *
+     * @param squares       the mask of the squares, as defined by MapTopology.
+     * @param excluded      the player to exclude.
+     * @return              the players in each square.
+     */
+    private List<List<Player>> getPlayersBySquare(long squares, Player excluded) {
+        List<List<Player>> res = new ArrayList<>();
+        for (Square s : board.getSquares(squares & board.getOccupiedMask())) {
+            List<Player> inSquare = getPlayersIn(MapTopology.bitOf(s.getId()), excluded);
+            if (!inSquare.isEmpty()) {
+                res.add(inSquare);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns whether a set of squares contains a player other than the specified one.
+     *
+     * @param squares       the mask of the squares, as defined by MapTopology.
+     * @param excluded      the player to exclude.
+     * @return              true if the squares contain another player.
+     *                      false otherwise.
+     */
+    private boolean anyPlayerIn(long squares, Player excluded) {
+        return (board.getOccupancyMask(squares) & ~Board.bitOf(excluded)) != 0;
+    }
+
     /**
      * Takes two sets of possible target groups and computes the cartesian product of those two sets
      *
@@ -390,14 +390,8 @@ public class Updater {
     private static ClientModel.SimplePlayer createSimplePlayer(Player p, Board board){
 
         //create a new simplePlayer
-        List<Integer> damages = new ArrayList<>();
-        for (Player shooter : p.getDamages()){
-            damages.add(shooter.getId());
-        }
-        List<Integer> marks = new ArrayList<>();
-        for (Player marker : p.getMarks()){
-            marks.add(marker.getId());
-        }
+        List<Integer> damages = p.getDamagesIds();
+        List<Integer> marks = p.getMarksIds();
         List<ClientModel.SimpleWeapon> weapons = new ArrayList<>();
         for (Weapon weapon : p.getWeaponList()){
             weapons.add(toSimpleWeapon(weapon));
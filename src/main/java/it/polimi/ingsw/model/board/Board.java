@@ -7,13 +7,13 @@ import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 import it.polimi.ingsw.network.server.VirtualView;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static it.polimi.ingsw.controller.ServerMain.MAX_PLAYERS;
 import static it.polimi.ingsw.controller.ServerMain.MIN_PLAYERS;
 import static it.polimi.ingsw.model.cards.Color.*;
-import static java.util.Collections.frequency;
 
 /**
  * Represents the game board, made of a map with walls.
@@ -32,14 +32,21 @@ public class Board {
     //depend on the map_id, set by BoardConfigurer
     private int id;
     private List<Square> map;
-    private boolean[][] leftWalls;
-    private boolean[][] topWalls;
     private List<WeaponSquare> spawnPoints;
+    private MapTopology topology;
+    private Square[] squaresById;
+    private List<List<Player>> roomOccupants;
+    private long[] occupancyBySquare;
+    private int[] squareByPlayer;
 
     //depend on the game settings, set by BoardConfigurer
     private List<Player> players;
     private Player currentPlayer;
 
+    //the decks are shuffled by generators split from the random generator of the game
+    private long seed;
+    private SplittableRandom random;
+
     //set by BoardConfigurer
     private Deck weaponDeck;
     private Deck powerUpDeck;
@@ -52,6 +59,8 @@ public class Board {
     private Map<VirtualView, List<JsonObject>> updates;
 
     private boolean reset;
+    private long version;
+    private final Journal journal;
 
     private static final Logger LOGGER = Logger.getLogger("serverLogger");
     private static final String END_DECK_EXCEPTION_STIRNG = " drawable cards and 0 discards at the beginning of the game";
@@ -67,7 +76,6 @@ public class Board {
     static final int MAP_COLUMNS = 4;
     private static final int MIN_MAP_SIZE = 10;
     private static final int MAX_MAP_SIZE = 12;
-    private static final int MAX_DISTANCE = 6;
 
 
 
@@ -80,13 +88,21 @@ public class Board {
     public Board() {
 
         this.map = new ArrayList<>();
-        this.topWalls = null;
-        this.leftWalls = null;
         this.spawnPoints = new ArrayList<>();
+        this.topology = null;
+        this.squaresById = new Square[MAP_ROWS * MAP_COLUMNS];
+        this.roomOccupants = null;
+        this.occupancyBySquare = new long[MAP_ROWS * MAP_COLUMNS];
+        this.squareByPlayer = new int[Long.SIZE];
+        Arrays.fill(squareByPlayer, MapTopology.NO_SQUARE);
 
         this.players = new ArrayList<>();
         this.currentPlayer = null;
 
+        this.seed = ThreadLocalRandom.current().nextLong();
+        this.random = new SplittableRandom(seed);
+
+        //empty decks, replaced by the ones created from the seed when the decks are configured
         this.weaponDeck = new Deck();
         this.powerUpDeck = new Deck();
         this.ammoDeck = new Deck();
@@ -97,12 +113,48 @@ public class Board {
         this.updates = new HashMap<>();
 
         this.reset = false;
+        this.version = 0;
+        this.journal = new Journal();
 
         LOGGER.setLevel(Level.SEVERE);
 
     }
 
 
+    /**
+     * Getter for seed.
+     *
+     * @return      the seed of the random generator of the game.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+
+    /**
+     * Setter for seed.
+     * Resets the random generator of the game: if the seed of a previous game is set before the decks are configured,
+     * the decks are shuffled as in that game. The decks are configured restarting the generator from the seed,
+     * hence the seed of a game replays it on any new board.
+     *
+     * @param seed      the seed of the random generator of the game.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+
+    /**
+     * Creates an empty deck, with a random generator split from the one of the game.
+     *
+     * @return      the deck.
+     */
+    public Deck createDeck() {
+        return new Deck(random.split());
+    }
+
+
     /**
      * Getter for map.
      *
@@ -210,18 +262,24 @@ public class Board {
     }
 
     /**
-     * Getter for leftWalls
+     * Getter for leftWalls.
+     * The walls are read from the topology.
      *
-     * @return      the left walls.
+     * @return      a copy of the left walls, null if the map has not been configured yet.
      */
-    public boolean[][] getLeftWalls() { return leftWalls; }
+    public boolean[][] getLeftWalls() {
+        return topology == null ? null : topology.getLeftWalls();
+    }
 
     /**
      * Getter for topWalls.
+     * The walls are read from the topology.
      *
-     * @return      the top walls.
+     * @return      a copy of the top walls, null if the map has not been configured yet.
      */
-    public boolean[][] getTopWalls() { return topWalls; }
+    public boolean[][] getTopWalls() {
+        return topology == null ? null : topology.getTopWalls();
+    }
 
     /**
      * Getter for reset.
@@ -238,6 +296,49 @@ public class Board {
      */
     public int getId(){return id; }
 
+    /**
+     * Getter for version.
+     * The version changes every time the position, the damages, the marks or the status of a player,
+     * or the current player, change: results computed from the state of the board can be reused while it stays the same.
+     *
+     * @return      the version of the board state.
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Records a change in the state of the board, incrementing its version.
+     */
+    void nextVersion() { version++; }
+
+    /**
+     * Takes a snapshot of the state of the game, which does not change when the game goes on.
+     * Only the state of the players, of the spawn points and of the kill shot track is copied:
+     * the map, its topology and the cards are shared with the board.
+     *
+     * @return      the snapshot.
+     */
+    public BoardSnapshot snapshot() { return new BoardSnapshot(this, topology, killShotTrack); }
+
+    /**
+     * Getter for journal.
+     *
+     * @return      the journal recording the changes made to the players and to the spawn points since the last checkpoint.
+     */
+    public Journal getJournal() { return journal; }
+
+    /**
+     * Getter for topology.
+     *
+     * @return      the topology of the map.
+     * @throws      NotAvailableAttributeException      if the topology has not been set yet.
+     */
+    public MapTopology getTopology() throws NotAvailableAttributeException {
+        if (topology == null){
+            throw new NotAvailableAttributeException("Impossible to return the topology: the board has not been initialized yet.");
+        }
+        return topology;
+    }
+
     /**
      * Setter for map.
      *
@@ -248,13 +349,26 @@ public class Board {
             throw new IllegalArgumentException ("The map must contain between 10 and 12 squares");
         }
         this.map = map;
+        nextVersion();
+        this.squaresById = new Square[MAP_ROWS * MAP_COLUMNS];
+        this.occupancyBySquare = new long[MAP_ROWS * MAP_COLUMNS];
+        Arrays.fill(squareByPlayer, MapTopology.NO_SQUARE);
+        for (Square s : map) {
+            squaresById[s.getId()] = s;
+            for (Player p : s.getPlayers()) {
+                occupancyBySquare[s.getId()] |= bitOf(p);
+                squareByPlayer[bitIndexOf(p)] = s.getId();
+            }
+        }
     }
 
     /**
      * Setter for leftWalls.
+     * The topology of the map is rebuilt with the new left walls and the current top walls.
      *
      * @param leftWalls   the value to assign to leftWalls.
-     * @throws          IllegalArgumentException        if the matrix of left walls is not of dimension 3x4.
+     * @throws          IllegalArgumentException        if the matrix of left walls is not of dimension 3x4,
+     *                                                  or if the map has not been configured yet.
      */
     public void setLeftWalls(boolean[][] leftWalls) {
         if (leftWalls.length != MAP_ROWS) {
@@ -265,15 +379,16 @@ public class Board {
                 throw new IllegalArgumentException("The matrix of left walls must have" + MAP_COLUMNS + "rows");
             }
         }
-        this.leftWalls = leftWalls;
-
+        rebuildTopology(getTopWalls(), leftWalls);
     }
 
     /**
      * Setter for topWalls.
+     * The topology of the map is rebuilt with the new top walls and the current left walls.
      *
      * @param topWalls   the value to assign to topWalls.
-     * @throws          IllegalArgumentException        if the matrix of top walls is not of dimension 3x4.
+     * @throws          IllegalArgumentException        if the matrix of top walls is not of dimension 3x4,
+     *                                                  or if the map has not been configured yet.
      */
     public void setTopWalls(boolean[][] topWalls) {
         if (topWalls.length != MAP_ROWS) {
@@ -284,7 +399,45 @@ public class Board {
                 throw new IllegalArgumentException("The matrix of top walls must have" + MAP_COLUMNS + "rows");
             }
         }
-        this.topWalls = topWalls;
+        rebuildTopology(topWalls, getLeftWalls());
+    }
+
+    /**
+     * Replaces the topology of the map with one built from the specified walls.
+     *
+     * @param topWalls      the top walls.
+     * @param leftWalls     the left walls.
+     * @throws              IllegalArgumentException        if the map has not been configured yet.
+     */
+    private void rebuildTopology(boolean[][] topWalls, boolean[][] leftWalls) {
+        requireTopology();
+        setTopology(new MapTopology(map, topWalls, leftWalls));
+        nextVersion();
+    }
+
+    /**
+     * Setter for topology.
+     * The topology is never modified after its construction, and it can be shared by all the boards using the same map.
+     * The occupancy of the rooms is rebuilt from the players currently standing on the map.
+     *
+     * @param topology   the value to assign to topology.
+     * @throws          IllegalArgumentException        if the topology does not contain every square of the map.
+     */
+    public void setTopology(MapTopology topology) {
+        for (Square s : map) {
+            if (!topology.contains(s.getId())) {
+                throw new IllegalArgumentException("The topology must contain every square of the map");
+            }
+        }
+        this.topology = topology;
+        this.roomOccupants = new ArrayList<>();
+        for (int roomId = 0; roomId <= topology.getMaxRoomId(); roomId++) {
+            List<Player> occupants = new ArrayList<>();
+            for (Square s : getSquares(topology.getRoomMask(roomId))) {
+                occupants.addAll(s.getPlayers());
+            }
+            roomOccupants.add(occupants);
+        }
     }
 
     /**
@@ -327,6 +480,7 @@ public class Board {
             throw new IllegalArgumentException ("The number of players must be between 3 and 5");
         }
         this.players = players;
+        nextVersion();
     }
 
     /**
@@ -386,7 +540,7 @@ public class Board {
      *
      * @param currentPlayer   the value to assign to killShotTrack.
      */
-    public void setCurrentPlayer(Player currentPlayer){this.currentPlayer= currentPlayer;}
+    public void setCurrentPlayer(Player currentPlayer){this.currentPlayer= currentPlayer; nextVersion();}
 
 
     /**
@@ -419,27 +573,12 @@ public class Board {
      *
      * @param   s       the starting square.
      * @return          the squares adjacent to s.
+     * @throws          IllegalArgumentException    if the square does not belong to the board.
      */
     public List<Square> getAdjacent(Square s) {
 
-        List<Square> adjacent = new ArrayList<>();
-        int c;
-        int r;
-        int sc;
-        int sr;
-        sc = s.getColumn();
-        sr = s.getRow();
-        for (Square s1 : map){
-            c = s1.getColumn();
-            r = s1.getRow();
-            if     (r == sr - 1 && c == sc && !topWalls[sr-1][sc-1]    ||            //top
-                    r == sr + 1 && c == sc && !topWalls[r-1][c-1]  ||                //down
-                    r == sr && c == sc + 1 && !leftWalls[r-1][c-1]   ||              //right
-                    r == sr && c == sc - 1 && !leftWalls[sr-1][sc-1]) {              //left
-                adjacent.add(s1);
-            }
-        }
-        return adjacent;
+        requireSquare(s);
+        return getSquares(topology.getAdjacentMask(s.getId()));
 
     }
 
@@ -451,16 +590,51 @@ public class Board {
      * @param s             the starting square.
      * @param steps         the number of steps that can be taken.
      * @return              the reachable squares.
+     * @throws              IllegalArgumentException    if the square does not belong to the board.
      */
     public List<Square> getReachable (Square s, int steps) {
 
-        List<Square> reachable = new ArrayList<>();
-        for (Square s1 : map){
-            if (getDistance(s,s1) <= steps) {
-                reachable.add(s1);
+        return getSquares(getReachableMask(s, steps));
+
+    }
+
+
+    /**
+     * Returns the mask of the squares reachable from the starting square with the specified number of steps.
+     * The starting square is included.
+     *
+     * @param s             the starting square.
+     * @param steps         the number of steps that can be taken.
+     * @return              the mask of the reachable squares, as defined by MapTopology.
+     * @throws              IllegalArgumentException    if the square does not belong to the board.
+     */
+    public long getReachableMask(Square s, int steps) {
+
+        requireSquare(s);
+        return topology.getReachableMask(s.getId(), steps);
+
+    }
+
+
+    /**
+     * Returns the mask of the squares reachable from any of the starting squares with the specified number of steps.
+     * The starting squares are included.
+     *
+     * @param origins       the mask of the starting squares, as defined by MapTopology.
+     * @param steps         the number of steps that can be taken.
+     * @return              the mask of the reachable squares, as defined by MapTopology.
+     * @throws              IllegalArgumentException    if the map has not been configured yet.
+     */
+    public long getReachableMask(long origins, int steps) {
+
+        requireTopology();
+        long res = 0;
+        for (Square s : map) {
+            if ((origins & MapTopology.bitOf(s.getId())) != 0) {
+                res |= topology.getReachableMask(s.getId(), steps);
             }
         }
-        return reachable;
+        return res;
 
     }
 
@@ -471,22 +645,65 @@ public class Board {
      *
      * @param s             the starting square.
      * @return              the visible squares.
+     * @throws              IllegalArgumentException    if the square does not belong to the board.
      */
     public List<Square> getVisible (Square s) {
 
-        List<Square> visible = new ArrayList<>();
-        for (Square s1 : map) {
-            if (getSquaresInRoom(s.getRoomId()).contains(s1)) {
-                visible.add(s1);
-            } else {
-                for (Square adj : getAdjacent(s)) {
-                    if (getSquaresInRoom(s1.getRoomId()).contains(adj) || s1.getId() == adj.getId()) {
-                        visible.add(s1);
-                    }
-                }
+        requireSquare(s);
+        return getSquares(topology.getVisibleMask(s.getId()));
+
+    }
+
+
+    /**
+     * Returns the mask of the squares visible from the starting square.
+     * The starting square is included.
+     *
+     * @param s             the starting square.
+     * @return              the mask of the visible squares, as defined by MapTopology.
+     * @throws              IllegalArgumentException    if the square does not belong to the board.
+     */
+    public long getVisibleMask(Square s) {
+
+        requireSquare(s);
+        return topology.getVisibleMask(s.getId());
+
+    }
+
+
+    /**
+     * Returns whether a square is visible from the starting square.
+     *
+     * @param from          the starting square.
+     * @param to            the observed square.
+     * @return              true if the square is visible.
+     *                      false otherwise.
+     * @throws              IllegalArgumentException    if one of the squares does not belong to the board.
+     */
+    public boolean isVisible(Square from, Square to) {
+
+        requireSquare(from);
+        requireSquare(to);
+        return topology.isVisible(from.getId(), to.getId());
+
+    }
+
+
+    /**
+     * Returns the squares of the map contained in a mask of squares, in the order of the map.
+     *
+     * @param mask          the mask of squares, as defined by MapTopology.
+     * @return              the squares in the mask.
+     */
+    public List<Square> getSquares(long mask) {
+
+        List<Square> squares = new ArrayList<>();
+        for (Square s : map) {
+            if ((mask & MapTopology.bitOf(s.getId())) != 0) {
+                squares.add(s);
             }
         }
-        return visible;
+        return squares;
 
     }
 
@@ -503,13 +720,138 @@ public class Board {
         if ( roomId < MIN_ROOM_ID || this.getMap().size() - roomId < MIN_MAP_SIZE_MINUS_ROOM_ID) {
             throw new IllegalArgumentException("This map does not contain so many rooms");
         }
-        List<Square> inRoom = new ArrayList<>();
-        for (Square s1 : map){
-            if (s1.getRoomId() == roomId) {
-                inRoom.add(s1);
+        return getSquares(topology.getRoomMask(roomId));
+
+    }
+
+
+    /**
+     * Returns the players in the specified room, following the order of the squares in the map.
+     * The returned list is a read-only view, kept up to date as the players move.
+     *
+     * @param roomId    the id of the room.
+     * @return          the players in the room.
+     * @throws          IllegalArgumentException if no room with the specified ID is present in the current map.
+     */
+    public List<Player> getPlayersInRoom(int roomId){
+
+        if (roomOccupants == null || topology.getRoomMask(roomId) == 0) {
+            throw new IllegalArgumentException("This map does not contain a room with the specified id");
+        }
+        return Collections.unmodifiableList(roomOccupants.get(roomId));
+
+    }
+
+
+    /**
+     * Returns the mask of the players standing in a set of squares.
+     * In a mask of players, the player with id i is represented by the bit i.
+     *
+     * @param squares   the mask of the squares, as defined by MapTopology.
+     * @return          the mask of the players in the squares.
+     */
+    public long getOccupancyMask(long squares) {
+
+        long players = 0;
+        long remaining = squares & ((1L << occupancyBySquare.length) - 1);
+        while (remaining != 0) {
+            players |= occupancyBySquare[Long.numberOfTrailingZeros(remaining)];
+            remaining &= remaining - 1;
+        }
+        return players;
+
+    }
+
+
+    /**
+     * Returns the mask of the squares containing at least one player.
+     *
+     * @return          the mask of the occupied squares, as defined by MapTopology.
+     */
+    public long getOccupiedMask() {
+
+        long squares = 0;
+        for (int id = 0; id < occupancyBySquare.length; id++) {
+            if (occupancyBySquare[id] != 0) {
+                squares |= MapTopology.bitOf(id);
             }
         }
-        return inRoom;
+        return squares;
+
+    }
+
+
+    /**
+     * Returns the id of the square where the specified player stands.
+     *
+     * @param p         the player.
+     * @return          the id of the square, -1 if the player has no position on this board.
+     */
+    public int getSquareId(Player p) {
+        return squareByPlayer[bitIndexOf(p)];
+    }
+
+
+    /**
+     * Returns the mask containing only the specified player.
+     *
+     * @param p         the player.
+     * @return          the mask of the player.
+     * @throws          IllegalArgumentException    if the id of the player can not be represented in a mask.
+     */
+    public static long bitOf(Player p) {
+        return 1L << bitIndexOf(p);
+    }
+
+
+    /**
+     * Returns the bit representing the specified player in a mask of players.
+     *
+     * @param p         the player.
+     * @return          the index of the bit.
+     * @throws          IllegalArgumentException    if the id of the player can not be represented in a mask.
+     */
+    private static int bitIndexOf(Player p) {
+        if (p.getId() < 0 || p.getId() >= Long.SIZE) {
+            throw new IllegalArgumentException("The id of the player must be between 0 and " + (Long.SIZE - 1));
+        }
+        return p.getId();
+    }
+
+
+    /**
+     * Updates the occupancy of the squares and of the rooms after a player has moved.
+     * The player has already been removed from the starting square and added to the destination square.
+     *
+     * @param p         the player who moved.
+     * @param from      the starting square, null if the player had no position.
+     * @param to        the destination square.
+     */
+    void updateOccupancy(Player p, Square from, Square to) {
+
+        if (from != null && belongsToMap(from)) {
+            occupancyBySquare[from.getId()] &= ~bitOf(p);
+        }
+        occupancyBySquare[to.getId()] |= bitOf(p);
+        squareByPlayer[bitIndexOf(p)] = to.getId();
+
+        if (roomOccupants == null) {
+            return;
+        }
+        if (from != null && belongsToMap(from)) {
+            roomOccupants.get(from.getRoomId()).remove(p);
+        }
+        long room = topology.getRoomMask(to.getRoomId());
+        int index = 0;
+        for (Square s : map) {
+            if ((room & MapTopology.bitOf(s.getId())) != 0) {
+                index += s.getPlayers().size();
+                if (s.equals(to)) {
+                    break;
+                }
+            }
+        }
+        roomOccupants.get(to.getRoomId()).add(index - 1, p);
 
     }
 
@@ -524,21 +866,7 @@ public class Board {
      */
     public List<Square> getSquaresInLine(Square s, Direction direction){
 
-        ArrayList<Square> squaresInLine = new ArrayList<>();
-        int sr = s.getRow();
-        int sc = s.getColumn();
-        for (Square s1 : map){
-            int r = s1.getRow();
-            int c = s1.getColumn();
-            if ( (direction==Direction.UP   && inLineTop  (sr, sc, r, c))    ||
-                 (direction==Direction.DOWN  && inLineDown (sr, sc, r, c))    ||
-                 (direction==Direction.LEFT && inLineLeft (sr, sc, r, c))    ||
-                 (direction==Direction.RIGHT && inLineRight(sr, sc, r, c))     )
-            {
-                squaresInLine.add(s1);
-            }
-        }
-        return squaresInLine;
+        return getSquares(getLineMask(s, direction, false));
 
     }
 
@@ -553,167 +881,115 @@ public class Board {
      */
     public List<Square> getSquaresInLineIgnoringWalls(Square s, Direction direction){
 
-        ArrayList<Square> squaresInLineThroughWall = new ArrayList<>();
-        Iterator<Square> squareIt = map.iterator();
-        int sr = s.getRow();
-        int sc = s.getColumn();
-        while (squareIt.hasNext()) {
-            Square s1 = squareIt.next();
-            int r = s1.getRow();
-            int c = s1.getColumn();
-            if ((direction==Direction.UP && r < sr && c == sc) || (direction==Direction.DOWN && r > sr && c == sc) ||
-            (direction==Direction.RIGHT && r == sr && c > sc) || (direction==Direction.LEFT && r == sr && c < sc)){
-                squaresInLineThroughWall.add(s1);
-            }
-        }
-        return squaresInLineThroughWall;
+        return getSquares(getLineMask(s, direction, true));
 
     }
 
 
     /**
-     * Returns the distance, in steps, form a square to another.
+     * Returns the mask of the squares in line with the starting square, moving in a specified direction.
+     * The starting square is excluded.
      *
-     * @param start         the starting square.
-     * @param dest          the destination square.
-     * @return              the distance in steps.
-     * @throws              IllegalArgumentException    if one of the squares does not belong to the board.
+     * @param s                 the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @return                  the mask of the squares in line, as defined by MapTopology.
+     * @throws                  IllegalArgumentException    if the square does not belong to the board.
      */
-    public int getDistance(Square start, Square dest) {
+    public long getLineMask(Square s, Direction direction, boolean ignoringWalls) {
 
-        if (!this.getMap().contains(start) || !this.getMap().contains(dest)){
-            throw new IllegalArgumentException("The squares must belong to the board.");
-        }
-
-        List<List<Square>> levels = new ArrayList<>(MAX_DISTANCE);
-
-        levels.add(new ArrayList<>());
-        levels.get(0).add(start);
-        levels.add(getAdjacent(start));
-        levels.add(new ArrayList<>());
-        levels.add(new ArrayList<>());
-        levels.add(new ArrayList<>());
-        levels.add(new ArrayList<>());
-
-        for (int i = 2; i < MAX_DISTANCE; i++) {
-            for (Square lev : levels.get(i - 1)) {
-                for (Square levAdj : getAdjacent(lev)) {
-                    boolean alreadyReached = false;
-                    int j = i;
-                    while (j > 0 && !alreadyReached) {
-                        if (levels.get(j).contains(levAdj)) {
-                            alreadyReached = true;
-                        }
-                        j--;
-                    }
-                    if (!alreadyReached) {
-                        levels.get(i).add(levAdj);
-                    }
-                }
-            }
-        }
-
-        for (List<Square> lev: levels) {
-            if (lev.contains(dest)){
-                return levels.indexOf(lev);
-            }
-        }
-        return -1;
+        requireSquare(s);
+        return topology.getLineMask(s.getId(), direction, ignoringWalls);
 
     }
 
 
     /**
-     * Returns whether two squares are in line moving up from the starting square.
+     * Returns the square of the map with the specified id.
      *
-     * @param startRow                the row of the starting square.
-     * @param startCol                the column of the starting square.
-     * @param destRow                 the row of the destination square.
-     * @param destCol                 the column of the destination square.
-     * @return                        true if the squares are in line.
-     *                                false otherwise.
+     * @param id            the id of the square.
+     * @return              the square with the specified id.
+     * @throws              IllegalArgumentException    if the map does not contain a square with the specified id.
      */
-    private boolean inLineTop(int startRow, int startCol, int destRow, int destCol){
+    public Square getSquare(int id) {
 
-        return ( destCol == startCol && (destRow == startRow - 1 && !topWalls[startRow-1][startCol-1]||
-                destRow == startRow - 2 && !topWalls[startRow-1][startCol-1] && !topWalls[startRow-1-1][startCol-1]));
+        if (squaresById == null || id < 0 || id >= squaresById.length || squaresById[id] == null) {
+            throw new IllegalArgumentException("The map does not contain a square with the specified id.");
+        }
+        return squaresById[id];
 
     }
 
 
     /**
-     * Returns whether two squares are in line moving down from the starting square.
+     * Returns the distance, in steps, form a square to another.
      *
-     * @param startRow                the row of the starting square.
-     * @param startCol                the column of the starting square.
-     * @param destRow                 the row of the destination square.
-     * @param destCol                 the column of the destination square.
-     * @return                        true if the squares are in line.
-     *                                false otherwise.
+     * @param start         the starting square.
+     * @param dest          the destination square.
+     * @return              the distance in steps.
+     * @throws              IllegalArgumentException    if one of the squares does not belong to the board.
      */
-    private boolean inLineDown(int startRow, int startCol, int destRow, int destCol){
+    public int getDistance(Square start, Square dest) {
 
-        return ( destCol == startCol && (destRow == startRow + 1 && !topWalls[destRow-1][destCol-1] ||
-                destRow == startRow + 2 && !topWalls[destRow-1][destCol-1] && !topWalls[destRow-1-1][startCol-1]));
+        requireSquare(start);
+        requireSquare(dest);
+        return topology.getDistance(start.getId(), dest.getId());
 
     }
 
 
     /**
-     * Returns whether two squares are in line moving left from the starting square.
+     * Returns whether a square belongs to the map of the board.
      *
-     * @param startRow                the row of the starting square.
-     * @param startCol                the column of the starting square.
-     * @param destRow                 the row of the destination square.
-     * @param destCol                 the column of the destination square.
-     * @return                        true if the squares are in line.
-     *                                false otherwise.
+     * @param s             the square.
+     * @return              true if the square belongs to the map.
+     *                      false otherwise.
      */
-    private boolean inLineLeft(int startRow, int startCol, int destRow, int destCol){
+    private boolean belongsToMap(Square s) {
+        return s != null && s.equals(squaresById[s.getId()]);
+    }
 
-        return ( destRow == startRow && (destCol == startCol - 1 && !leftWalls[destRow-1][startCol-1] ||
-                destCol ==startCol - 2 && !leftWalls[destRow-1][startCol-1] && !leftWalls[destRow-1][startCol-1-1] ||
-                destCol == startCol - 3 && !leftWalls[destRow-1][startCol-1] && !leftWalls[destRow-1][startCol-1-1]
-                        && !leftWalls[destRow-1][startCol-2-1] ));
 
+    /**
+     * Checks that the topology of the map has been set.
+     *
+     * @throws              IllegalArgumentException    if the map has not been configured yet.
+     */
+    private void requireTopology() {
+        if (topology == null) {
+            throw new IllegalArgumentException("The map has not been configured yet.");
+        }
     }
 
 
     /**
-     * Returns whether two squares are in line moving right from the starting square.
+     * Checks that a square belongs to the map of the board, and that the topology of the map has been set.
      *
-     * @param startRow                the row of the starting square.
-     * @param startCol                the column of the starting square.
-     * @param destRow                 the row of the destination square.
-     * @param destCol                 the column of the destination square.
-     * @return                        true if the squares are in line.
-     *                                false otherwise.
+     * @param s             the square.
+     * @throws              IllegalArgumentException    if the map has not been configured yet or if the square does not belong to the board.
      */
-    private boolean inLineRight(int startRow, int startCol, int destRow, int destCol) {
-
-        return (destRow == startRow && (destCol == startCol + 1 && !leftWalls[destRow - 1][destCol - 1] ||
-                destCol == startCol + 2 && !leftWalls[destRow - 1][destCol - 1] && !leftWalls[destRow - 1][destCol - 1 - 1] ||
-                destCol == startCol + 3 && !leftWalls[destRow - 1][destCol - 1] &&
-                        !leftWalls[destRow - 1][destCol - 1 - 1] && !leftWalls[destRow - 1][destCol - 2 - 1]));
+    private void requireSquare(Square s) {
+        requireTopology();
+        if (!belongsToMap(s)) {
+            throw new IllegalArgumentException("The square must belong to the board.");
+        }
     }
 
 
     /**
      * Sorts a list of players depending on the occurrences in a specified list of players.
-     * Used by both Player and KillShotTrack.
+     * Used by both Player and KillShotTrack, which keep the number of occurrences and the first occurrence of every player.
      *
      * @param toSort         the list of players to sort.
      * @param occurrences           the list of occurrences.
      */
     public void sort(List<Player> toSort, List<Player> occurrences){
-        Collections.sort(toSort, (p1,p2) -> {
-            if (frequency(occurrences, p1) > frequency(occurrences, p2)) return -1;
-            else if (frequency(occurrences, p1) < frequency(occurrences, p2)) return 1;
+        ShotList shots = Scoring.asShots(occurrences);
+        toSort.sort((p1,p2) -> {
+            if (shots.count(p1) > shots.count(p2)) return -1;
+            else if (shots.count(p1) < shots.count(p2)) return 1;
             else {
-                if (occurrences.indexOf(p1) < occurrences.indexOf(p2)) return -1;
-                else if (occurrences.indexOf(p1) > occurrences.indexOf(p2)) return 1;
-                return 0;
-
+                return Integer.compare(shots.firstIndexOf(p1), shots.firstIndexOf(p2));
             }
         });
     }
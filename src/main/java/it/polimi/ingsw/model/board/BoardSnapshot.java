@@ -0,0 +1,451 @@
+package it.polimi.ingsw.model.board;
+
+import it.polimi.ingsw.model.cards.PowerUp;
+import it.polimi.ingsw.model.cards.Weapon;
+
+import java.util.*;
+
+/**
+ * Represents the state of a game at a given moment, which does not change when the game goes on.
+ * A snapshot copies only what changes during the game: the state of every player, the weapons in the spawn points,
+ * the killers and the current player. The map, its topology and the cards are shared with the board.
+ * A snapshot is never modified: the with methods return a new snapshot, sharing the unchanged players with the original one,
+ * so that lookahead, bots and spectators can evaluate a state without touching the live game.
+ *
+ * @author  BassaniRiccardo
+ */
+
+public final class BoardSnapshot {
+
+    /**
+     * The id of the current player when there is no current player.
+     */
+    public static final int NO_PLAYER = -1;
+
+    private static final int MAX_DAMAGES = 12;
+
+    private final Board board;
+    private final MapTopology topology;
+    private final long version;
+    private final int currentPlayerId;
+    private final List<PlayerState> players;
+    private final List<List<Weapon>> spawnWeapons;
+    private final List<Integer> killers;
+    private final int skullsLeft;
+
+
+    /**
+     * Constructs a snapshot of the current state of a board.
+     *
+     * @param board             the board.
+     * @param topology          the topology of the map, null if the map has not been configured.
+     * @param killShotTrack     the kill shot track.
+     */
+    BoardSnapshot(Board board, MapTopology topology, KillShotTrack killShotTrack) {
+
+        this.board = board;
+        this.topology = topology;
+        this.version = board.getVersion();
+        this.currentPlayerId = board.getCurrentPlayer() == null ? NO_PLAYER : board.getCurrentPlayer().getId();
+
+        List<PlayerState> states = new ArrayList<>(board.getPlayers().size());
+        for (Player p : board.getPlayers()) {
+            states.add(new PlayerState(p, board.getSquareId(p)));
+        }
+        this.players = Collections.unmodifiableList(states);
+
+        List<List<Weapon>> weapons = new ArrayList<>(board.getSpawnPoints().size());
+        for (WeaponSquare s : board.getSpawnPoints()) {
+            weapons.add(Collections.unmodifiableList(new ArrayList<>(s.getWeapons())));
+        }
+        this.spawnWeapons = Collections.unmodifiableList(weapons);
+
+        this.killers = Collections.unmodifiableList(Scoring.asShots(killShotTrack.getKillers()).getIds());
+        this.skullsLeft = killShotTrack.getSkullsLeft();
+
+    }
+
+
+    /**
+     * Constructs a snapshot equal to another, except for the state of the players.
+     *
+     * @param original      the original snapshot.
+     * @param players       the states of the players.
+     */
+    private BoardSnapshot(BoardSnapshot original, List<PlayerState> players) {
+
+        this.board = original.board;
+        this.topology = original.topology;
+        this.version = original.version;
+        this.currentPlayerId = original.currentPlayerId;
+        this.players = Collections.unmodifiableList(players);
+        this.spawnWeapons = original.spawnWeapons;
+        this.killers = original.killers;
+        this.skullsLeft = original.skullsLeft;
+
+    }
+
+
+    /*
+     * Getters
+     */
+
+    public long getVersion() { return version; }
+
+    public int getCurrentPlayerId() { return currentPlayerId; }
+
+    public List<PlayerState> getPlayers() { return players; }
+
+    public List<Integer> getKillers() { return killers; }
+
+    public int getSkullsLeft() { return skullsLeft; }
+
+    /**
+     * Returns the weapons in the spawn points, in the order of the spawn points of the board.
+     *
+     * @return      the weapons in every spawn point.
+     */
+    public List<List<Weapon>> getSpawnWeapons() { return spawnWeapons; }
+
+
+    /**
+     * Returns the square with the specified id, shared with the board.
+     *
+     * @param id        the id of the square.
+     * @return          the square.
+     * @throws          IllegalArgumentException    if the map does not contain a square with the specified id.
+     */
+    public Square getSquare(int id) {
+        return board.getSquare(id);
+    }
+
+
+    /**
+     * Returns the state of the player with the specified id.
+     *
+     * @param id        the id of the player.
+     * @return          the state of the player.
+     * @throws          IllegalArgumentException    if no player has the specified id.
+     */
+    public PlayerState getPlayer(int id) {
+
+        for (PlayerState p : players) {
+            if (p.id == id) return p;
+        }
+        throw new IllegalArgumentException("No player has the specified id.");
+
+    }
+
+
+    /**
+     * Returns a snapshot in which the state of a player is replaced. The other players are shared with this snapshot.
+     *
+     * @param state     the new state of the player.
+     * @return          the new snapshot.
+     * @throws          IllegalArgumentException    if no player has the id of the state.
+     */
+    public BoardSnapshot withPlayer(PlayerState state) {
+
+        List<PlayerState> states = new ArrayList<>(players);
+        for (int i = 0; i < states.size(); i++) {
+            if (states.get(i).id == state.id) {
+                states.set(i, state);
+                return new BoardSnapshot(this, states);
+            }
+        }
+        throw new IllegalArgumentException("No player has the specified id.");
+
+    }
+
+
+    /**
+     * Returns the distance, in steps, between the positions of two players.
+     *
+     * @param firstId       the id of the first player.
+     * @param secondId      the id of the second player.
+     * @return              the distance between the players.
+     * @throws              IllegalArgumentException    if a player is not on the map, or the map has not been configured.
+     */
+    public int getDistance(int firstId, int secondId) {
+        return checkedTopology().getDistance(positionOf(firstId), positionOf(secondId));
+    }
+
+
+    /**
+     * Returns the ids of the players whose position is visible from the position of a player, excluding him.
+     *
+     * @param id        the id of the player.
+     * @return          the ids of the visible players.
+     * @throws          IllegalArgumentException    if the player is not on the map, or the map has not been configured.
+     */
+    public List<Integer> getVisiblePlayers(int id) {
+
+        long visible = checkedTopology().getVisibleMask(positionOf(id));
+        List<Integer> ids = new ArrayList<>();
+        for (PlayerState p : players) {
+            if (p.id != id && p.positionId != MapTopology.NO_SQUARE && (visible & MapTopology.bitOf(p.positionId)) != 0) {
+                ids.add(p.id);
+            }
+        }
+        return ids;
+
+    }
+
+
+    /**
+     * Returns the squares a player can reach moving up to a number of steps.
+     *
+     * @param id        the id of the player.
+     * @param steps     the maximum number of steps.
+     * @return          the ids of the reachable squares, as a bit mask.
+     * @throws          IllegalArgumentException    if the player is not on the map, or the map has not been configured.
+     */
+    public long getReachableMask(int id, int steps) {
+        return checkedTopology().getReachableMask(positionOf(id), steps);
+    }
+
+
+    /**
+     * Returns the id of the square where a player stands.
+     *
+     * @param id        the id of the player.
+     * @return          the id of the square.
+     * @throws          IllegalArgumentException    if the player is not on the map.
+     */
+    private int positionOf(int id) {
+
+        int square = getPlayer(id).positionId;
+        if (square == MapTopology.NO_SQUARE) throw new IllegalArgumentException("The player is not on the map.");
+        return square;
+
+    }
+
+
+    /**
+     * Returns the topology of the map.
+     *
+     * @return      the topology.
+     * @throws      IllegalArgumentException    if the map has not been configured.
+     */
+    private MapTopology checkedTopology() {
+
+        if (topology == null) throw new IllegalArgumentException("The map of the snapshot has not been configured.");
+        return topology;
+
+    }
+
+
+    /**
+     * Returns true if the compared objects are two snapshots of the same board with the same state.
+     *
+     * @param o     the object to compare.
+     * @return      true if the snapshots are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) return true;
+        if (!(o instanceof BoardSnapshot)) return false;
+        BoardSnapshot s = (BoardSnapshot) o;
+        return board == s.board && currentPlayerId == s.currentPlayerId && skullsLeft == s.skullsLeft
+                && players.equals(s.players) && spawnWeapons.equals(s.spawnWeapons) && killers.equals(s.killers);
+
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(board), currentPlayerId, skullsLeft, players, spawnWeapons, killers);
+    }
+
+
+    /**
+     * Represents the state of a player at a given moment, which does not change when the game goes on.
+     * The players who damaged and marked him are identified by their ids, while the cards are shared with the game.
+     */
+    public static final class PlayerState {
+
+        private final int id;
+        private final Player.HeroName name;
+        private final Player.Status status;
+        private final int points;
+        private final int deaths;
+        private final int pointsToGive;
+        private final boolean dead;
+        private final boolean flipped;
+        private final boolean inGame;
+        private int positionId;
+        private List<Integer> damages;
+        private List<Integer> marks;
+        private int ammo;
+        private final List<PowerUp> powerUps;
+        private final List<Weapon> weapons;
+        private final List<Boolean> loaded;
+
+
+        /**
+         * Constructs the state of a player.
+         *
+         * @param p             the player.
+         * @param positionId    the id of the square where the player stands, -1 if he is not on the map.
+         */
+        private PlayerState(Player p, int positionId) {
+
+            this.id = p.getId();
+            this.name = p.getName();
+            this.status = p.getStatus();
+            this.points = p.getPoints();
+            this.deaths = p.getDeaths();
+            this.pointsToGive = p.getPointsToGive();
+            this.dead = p.isDead();
+            this.flipped = p.isFlipped();
+            this.inGame = p.isInGame();
+            this.positionId = positionId;
+            this.damages = Collections.unmodifiableList(p.getDamagesIds());
+            this.marks = Collections.unmodifiableList(p.getMarksIds());
+            this.ammo = p.getAmmoPack().getPacked();
+            this.powerUps = Collections.unmodifiableList(new ArrayList<>(p.getPowerUpList()));
+            this.weapons = Collections.unmodifiableList(new ArrayList<>(p.getWeaponList()));
+            List<Boolean> loadedWeapons = new ArrayList<>(weapons.size());
+            for (Weapon w : weapons) {
+                loadedWeapons.add(w.isLoaded());
+            }
+            this.loaded = Collections.unmodifiableList(loadedWeapons);
+
+        }
+
+
+        /**
+         * Constructs a state equal to another, sharing its lists.
+         *
+         * @param original      the original state.
+         */
+        private PlayerState(PlayerState original) {
+
+            this.id = original.id;
+            this.name = original.name;
+            this.status = original.status;
+            this.points = original.points;
+            this.deaths = original.deaths;
+            this.pointsToGive = original.pointsToGive;
+            this.dead = original.dead;
+            this.flipped = original.flipped;
+            this.inGame = original.inGame;
+            this.positionId = original.positionId;
+            this.damages = original.damages;
+            this.marks = original.marks;
+            this.ammo = original.ammo;
+            this.powerUps = original.powerUps;
+            this.weapons = original.weapons;
+            this.loaded = original.loaded;
+
+        }
+
+
+        /*
+         * Getters
+         */
+
+        public int getId() { return id; }
+
+        public Player.HeroName getName() { return name; }
+
+        public Player.Status getStatus() { return status; }
+
+        public int getPoints() { return points; }
+
+        public int getDeaths() { return deaths; }
+
+        public int getPointsToGive() { return pointsToGive; }
+
+        public boolean isDead() { return dead; }
+
+        public boolean isFlipped() { return flipped; }
+
+        public boolean isInGame() { return inGame; }
+
+        public int getPositionId() { return positionId; }
+
+        public List<Integer> getDamages() { return damages; }
+
+        public List<Integer> getMarks() { return marks; }
+
+        public int getAmmo() { return ammo; }
+
+        public List<PowerUp> getPowerUps() { return powerUps; }
+
+        public List<Weapon> getWeapons() { return weapons; }
+
+        public List<Boolean> getLoaded() { return loaded; }
+
+
+        /**
+         * Returns the state of the player in another position.
+         *
+         * @param squareId      the id of the square.
+         * @return              the new state.
+         */
+        public PlayerState withPosition(int squareId) {
+
+            PlayerState state = new PlayerState(this);
+            state.positionId = squareId;
+            return state;
+
+        }
+
+
+        /**
+         * Returns the state of the player after being damaged. The damages are limited to 12.
+         *
+         * @param amount        the number of damages.
+         * @param shooterId     the id of the player who shoots.
+         * @return              the new state.
+         */
+        public PlayerState withDamages(int amount, int shooterId) {
+
+            PlayerState state = new PlayerState(this);
+            List<Integer> newDamages = new ArrayList<>(damages);
+            for (int i = 0; i < amount && newDamages.size() < MAX_DAMAGES; i++) {
+                newDamages.add(shooterId);
+            }
+            state.damages = Collections.unmodifiableList(newDamages);
+            return state;
+
+        }
+
+
+        /**
+         * Returns the state of the player with other ammo.
+         *
+         * @param packedAmmo    the ammo, packed.
+         * @return              the new state.
+         */
+        public PlayerState withAmmo(int packedAmmo) {
+
+            PlayerState state = new PlayerState(this);
+            state.ammo = packedAmmo;
+            return state;
+
+        }
+
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) return true;
+            if (!(o instanceof PlayerState)) return false;
+            PlayerState s = (PlayerState) o;
+            return id == s.id && name == s.name && status == s.status && points == s.points && deaths == s.deaths
+                    && pointsToGive == s.pointsToGive && dead == s.dead && flipped == s.flipped && inGame == s.inGame
+                    && positionId == s.positionId && ammo == s.ammo && damages.equals(s.damages) && marks.equals(s.marks)
+                    && powerUps.equals(s.powerUps) && weapons.equals(s.weapons) && loaded.equals(s.loaded);
+
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, status, points, positionId, ammo, damages, marks, powerUps, weapons, loaded);
+        }
+
+    }
+
+}
@@ -4,44 +4,60 @@ import it.polimi.ingsw.model.cards.Card;
 import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
 import it.polimi.ingsw.model.exceptions.WrongTimeException;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-
-import static java.util.Collections.shuffle;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
 
 /**
  * Represents a generic deck of cards, made of drawable and discarded cards.
  * Allows to addList cards to the drawable cards and to the discarded cards.
  * Allows to draw a card, shuffle the deck or regenerate it by shuffling
  * the discarded cards and adding them to the drawable cards.
+ * The cards are stored in arrays: drawing a card moves a cursor, and regenerating the deck reuses the arrays.
+ * The shuffles are driven by the random generator of the deck, so that the same generator yields the same card sequence.
  *
  * @author  BassaniRiccardo
  */
 
 public class Deck {
 
-    private List<Card> drawable;
-    private List<Card> discarded;
-
-    private static final int DRAWN_CARD_INDEX = 0;
+    private final CardList drawable;
+    private final CardList discarded;
+    private final SplittableRandom random;
 
 
     /**
-     * Constructs an empty deck.
+     * Constructs an empty deck with a random generator of its own.
      *
      */
     public Deck() {
 
-        drawable = new ArrayList<>();
-        discarded = new ArrayList<>();
+        this(new SplittableRandom());
+
+    }
+
+
+    /**
+     * Constructs an empty deck whose shuffles are driven by the specified random generator.
+     *
+     * @param random    the random generator.
+     */
+    public Deck(SplittableRandom random) {
+
+        this.drawable = new CardList();
+        this.discarded = new CardList();
+        this.random = random;
 
     }
 
 
     /**
      * Getter for drawable.
+     * The list is a view of the deck: changes to the list are changes to the deck.
      *
-     * @return      the drawable cards of the deck.
+     * @return      the drawable cards of the deck, in the order they are drawn.
      */
     public List<Card> getDrawable() {
         return drawable;
@@ -49,6 +65,7 @@ public class Deck {
 
     /**
      * Getter for discarded.
+     * The list is a view of the deck: changes to the list are changes to the deck.
      *
      * @return      the discarded cards of the deck.
      */
@@ -85,15 +102,10 @@ public class Deck {
      */
     public Card drawCard() throws NoMoreCardsException {
 
-        try{
-            Card drawn = drawable.get(DRAWN_CARD_INDEX);
-            drawable.remove(DRAWN_CARD_INDEX);
-            return drawn;
-        }
-        catch (IndexOutOfBoundsException e)
-        {
+        if (drawable.isEmpty()) {
             throw new NoMoreCardsException("The deck is empty");
         }
+        return drawable.removeFirst();
 
     }
 
@@ -102,7 +114,7 @@ public class Deck {
      * Shuffles the deck.
      */
     public void shuffleDeck(){
-        shuffle(drawable);
+        drawable.shuffle(random);
     }
 
 
@@ -114,10 +126,165 @@ public class Deck {
     public void regenerate() throws WrongTimeException {
 
         if (!drawable.isEmpty()) throw new WrongTimeException("The deck can be regenerated only if empty.");
-        shuffle(discarded);
-        drawable =  new ArrayList<>(discarded);
-        discarded.clear();
+        discarded.shuffle(random);
+        drawable.moveFrom(discarded);
+
+    }
+
+
+    /**
+     * List of cards stored in a section of an array, from a head index to a tail index.
+     * Removing the first card only moves the head, adding a card at the end only moves the tail.
+     */
+    private static final class CardList extends AbstractList<Card> implements RandomAccess {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Card[] cards = new Card[INITIAL_CAPACITY];
+        private int head;
+        private int tail;
+
+        @Override
+        public Card get(int index) {
+            checkIndex(index, size());
+            return cards[head + index];
+        }
+
+        @Override
+        public int size() {
+            return tail - head;
+        }
+
+        @Override
+        public Card set(int index, Card card) {
+            checkIndex(index, size());
+            Card old = cards[head + index];
+            cards[head + index] = card;
+            return old;
+        }
+
+        @Override
+        public void add(int index, Card card) {
+
+            checkIndex(index, size() + 1);
+            ensureRoom();
+            System.arraycopy(cards, head + index, cards, head + index + 1, size() - index);
+            cards[head + index] = card;
+            tail++;
+            modCount++;
+
+        }
+
+        @Override
+        public Card remove(int index) {
+
+            checkIndex(index, size());
+            if (index == 0) {
+                return removeFirst();
+            }
+            Card removed = cards[head + index];
+            System.arraycopy(cards, head + index + 1, cards, head + index, size() - index - 1);
+            cards[--tail] = null;
+            modCount++;
+            return removed;
+
+        }
+
+        @Override
+        public void clear() {
+
+            Arrays.fill(cards, head, tail, null);
+            head = 0;
+            tail = 0;
+            modCount++;
+
+        }
+
+        /**
+         * Removes the first card, moving the head.
+         *
+         * @return      the removed card.
+         */
+        private Card removeFirst() {
+
+            Card removed = cards[head];
+            cards[head++] = null;
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+            modCount++;
+            return removed;
+
+        }
+
+        /**
+         * Shuffles the cards in place (Fisher-Yates).
+         *
+         * @param random    the random generator.
+         */
+        private void shuffle(SplittableRandom random) {
+
+            for (int i = size() - 1; i > 0; i--) {
+                int k = random.nextInt(i + 1);
+                Card swapped = cards[head + i];
+                cards[head + i] = cards[head + k];
+                cards[head + k] = swapped;
+            }
+            modCount++;
+
+        }
+
+        /**
+         * Replaces the cards of the list with the cards of another list, which is emptied.
+         *
+         * @param other     the list the cards are moved from.
+         */
+        private void moveFrom(CardList other) {
+
+            clear();
+            if (cards.length < other.size()) {
+                cards = new Card[other.size()];
+            }
+            System.arraycopy(other.cards, other.head, cards, 0, other.size());
+            tail = other.size();
+            other.clear();
+
+        }
+
+        /**
+         * Makes room for a card after the tail, moving the cards to the beginning of the array or growing it.
+         */
+        private void ensureRoom() {
+
+            if (tail < cards.length) {
+                return;
+            }
+            int size = size();
+            Card[] target = head > cards.length / 2 ? cards : new Card[cards.length * 2];
+            System.arraycopy(cards, head, target, 0, size);
+            if (target == cards) {
+                Arrays.fill(cards, size, tail, null);
+            }
+            cards = target;
+            head = 0;
+            tail = size;
+
+        }
+
+        /**
+         * Checks that an index is between 0, included, and a bound, excluded.
+         *
+         * @param index     the index.
+         * @param bound     the bound.
+         * @throws          IndexOutOfBoundsException   if the index is out of bounds.
+         */
+        private static void checkIndex(int index, int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+            }
+        }
 
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package it.polimi.ingsw.model.board;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Records the changes made to the model since the last checkpoint, so that they can be undone.
+ * Every attribute of an object is saved the first time it changes after the checkpoint: a checkpoint costs nothing,
+ * and a rollback restores only the attributes which changed.
+ * The changes are not recorded before the first checkpoint, nor while a rollback restores the saved values.
+ *
+ * @author  BassaniRiccardo
+ */
+
+public final class Journal {
+
+    /*
+     * The attributes recorded by the journal.
+     */
+    public static final String POSITION = "position";
+    public static final String DEAD = "dead";
+    public static final String DAMAGES = "damages";
+    public static final String MARKS = "marks";
+    public static final String POWERUPS = "powerUps";
+    public static final String AMMO = "ammo";
+    public static final String WEAPONS = "weapons";
+    public static final String LOADED = "loaded";
+
+    private final Map<Key, Entry<?>> entries;
+    private boolean recording;
+    private boolean replaying;
+
+
+    /**
+     * Constructs a journal which does not record until the first checkpoint.
+     */
+    Journal() {
+
+        this.entries = new LinkedHashMap<>();
+        this.recording = false;
+        this.replaying = false;
+
+    }
+
+
+    /**
+     * Returns whether a checkpoint has been set.
+     *
+     * @return      true if the journal is recording the changes.
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+
+    /**
+     * Saves the value an attribute had at the last checkpoint, before it changes.
+     * Nothing is saved if the attribute has already changed since the checkpoint.
+     *
+     * @param owner         the object the attribute belongs to.
+     * @param attribute     the name of the attribute.
+     * @param before        supplies the value of the attribute, called only if the value must be saved.
+     * @param restore       restores the value of the attribute.
+     * @param <T>           the type of the attribute.
+     */
+    public <T> void save(Object owner, String attribute, Supplier<T> before, Consumer<T> restore) {
+
+        if (!recording || replaying) return;
+        Key key = new Key(owner, attribute);
+        if (!entries.containsKey(key)) {
+            entries.put(key, new Entry<>(before.get(), restore));
+        }
+
+    }
+
+
+    /**
+     * Returns the value an attribute had at the last checkpoint.
+     *
+     * @param owner         the object the attribute belongs to.
+     * @param attribute     the name of the attribute.
+     * @param current       the current value of the attribute.
+     * @param <T>           the type of the attribute.
+     * @return              the saved value, or the current value if the attribute has not changed since the checkpoint.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T before(Object owner, String attribute, T current) {
+
+        Entry<?> entry = entries.get(new Key(owner, attribute));
+        return entry == null ? current : (T) entry.value;
+
+    }
+
+
+    /**
+     * Sets a checkpoint: the current values will be restored by the next rollback.
+     */
+    public void checkpoint() {
+
+        entries.clear();
+        recording = true;
+
+    }
+
+
+    /**
+     * Forgets the changes made to an attribute: its current value becomes the one restored by the next rollback.
+     *
+     * @param owner         the object the attribute belongs to.
+     * @param attribute     the name of the attribute.
+     */
+    public void forget(Object owner, String attribute) {
+        entries.remove(new Key(owner, attribute));
+    }
+
+
+    /**
+     * Restores the values saved since the last checkpoint, in reverse order of change.
+     * The checkpoint remains set.
+     */
+    public void rollback() {
+
+        List<Entry<?>> toRestore = new ArrayList<>(entries.values());
+        replaying = true;
+        try {
+            for (int i = toRestore.size() - 1; i >= 0; i--) {
+                toRestore.get(i).restore();
+            }
+        } finally {
+            replaying = false;
+            entries.clear();
+        }
+
+    }
+
+
+    /**
+     * Returns the number of attributes changed since the last checkpoint.
+     *
+     * @return      the number of saved values.
+     */
+    int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Identifies an attribute of an object. The objects are compared by identity.
+     */
+    private static final class Key {
+
+        private final Object owner;
+        private final String attribute;
+
+        private Key(Object owner, String attribute) {
+            this.owner = owner;
+            this.attribute = attribute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return owner == k.owner && attribute.equals(k.attribute);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + attribute.hashCode();
+        }
+
+    }
+
+
+    /**
+     * A saved value, with the way to restore it.
+     *
+     * @param <T>       the type of the value.
+     */
+    private static final class Entry<T> {
+
+        private final T value;
+        private final Consumer<T> restore;
+
+        private Entry(T value, Consumer<T> restore) {
+            this.value = value;
+            this.restore = restore;
+        }
+
+        private void restore() {
+            restore.accept(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package it.polimi.ingsw.model.board;
+
+import java.util.*;
+
+/**
+ * Represents a list which notifies its owner before every change, so that the owner can save its content in the journal.
+ * The list is changed by the model and, in the tests, directly through the getters: every change is notified.
+ *
+ * @param <E>       the type of the elements.
+ * @author  BassaniRiccardo
+ */
+
+final class JournaledList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> elements;
+    private final Runnable beforeChange;
+
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param beforeChange      called before every change of the list.
+     */
+    JournaledList(Runnable beforeChange) {
+
+        this.elements = new ArrayList<>();
+        this.beforeChange = beforeChange;
+
+    }
+
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        beforeChange.run();
+        return elements.set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        beforeChange.run();
+        elements.add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        beforeChange.run();
+        modCount++;
+        return elements.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        beforeChange.run();
+        elements.clear();
+        modCount++;
+    }
+
+
+    /**
+     * Replaces the content of the list with the elements of another list.
+     *
+     * @param other     the elements, in order.
+     */
+    void setAll(List<E> other) {
+
+        List<E> copy = new ArrayList<>(other);
+        beforeChange.run();
+        elements.clear();
+        elements.addAll(copy);
+        modCount++;
+
+    }
+
+}
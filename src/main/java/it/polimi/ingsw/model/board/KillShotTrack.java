@@ -4,8 +4,8 @@ import it.polimi.ingsw.model.Updater;
 import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
 import it.polimi.ingsw.model.exceptions.WrongTimeException;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,13 +23,9 @@ import static it.polimi.ingsw.model.board.Board.MAX_SKULL_NUMBER;
 public class KillShotTrack {
 
     private int skullsLeft;
-    private List<Player> killers;
+    private final ShotList killers;
     private Board board;
     private static final Logger LOGGER = Logger.getLogger("serverLogger");
-    private static final int MAX_POINTS_TO_GIVE_KILLSHOT_TRACK = 8;
-    private static final int POINTS_TO_GIVE_STANDARD_DECREASE = 2;
-    private static final int POINTS_TO_GIVE_LAST_DECREASE = 1;
-    private static final int THRESHOLD_FOR_LAST_DECREASE = 2;
 
 
     /**
@@ -44,7 +40,7 @@ public class KillShotTrack {
         if (skullsNumber > MAX_SKULL_NUMBER) throw new IllegalArgumentException("The number of skulls can not be higher than " + MAX_SKULL_NUMBER + ".");
 
         this.skullsLeft = skullsNumber;
-        this.killers = new ArrayList<>();
+        this.killers = new ShotList();
         this.board = board;
 
     }
@@ -129,23 +125,10 @@ public class KillShotTrack {
      */
     public void rewardKillers() {
 
-        //asks the board for the players
-        List<Player> playersToReward = new ArrayList<>(this.board.getPlayers());
-
-        //properly orders the playersToReward
-        board.sort(playersToReward, killers);
-
-        //assigns the points
-        int pointsToGive = MAX_POINTS_TO_GIVE_KILLSHOT_TRACK;
-        for(Player p : playersToReward){
-            if (killers.contains(p)){
-                p.addPoints(pointsToGive);
-                String msg = p.getId() + " gains " + pointsToGive + " points.";
-                LOGGER.log(Level.INFO, msg);
-
-            }
-            if (pointsToGive == THRESHOLD_FOR_LAST_DECREASE) pointsToGive -= POINTS_TO_GIVE_LAST_DECREASE;
-            else pointsToGive -= POINTS_TO_GIVE_STANDARD_DECREASE;
+        for (Map.Entry<Player, Integer> award : Scoring.killShotTrackAwards(killers).entrySet()){
+            award.getKey().addPoints(award.getValue());
+            String msg = award.getKey().getId() + " gains " + award.getValue() + " points.";
+            LOGGER.log(Level.INFO, msg);
         }
 
     }
@@ -0,0 +1,611 @@
+package it.polimi.ingsw.model.board;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static it.polimi.ingsw.model.board.Board.MAP_COLUMNS;
+import static it.polimi.ingsw.model.board.Board.MAP_ROWS;
+
+/**
+ * Represents the immutable geometry of a map, computed once from its squares and walls.
+ * Squares are identified by their id, so that the same tables can answer the queries of every board using the map.
+ * Contains the adjacency graph of the map, stored in compressed sparse row form, the distance, in steps,
+ * between every pair of squares and, for every square, the masks of the adjacent and of the visible squares.
+ * The squares of every room are indexed by a mask, looked up by room id.
+ * For every square and for every number of steps up to the diameter of the map, it also contains the mask of the reachable squares.
+ * Finally, for every square and direction, it contains the ray of the squares in line, both stopping at walls and ignoring them:
+ * a ray lists the squares ordered by increasing distance from the origin, which is excluded, together with their distance in steps.
+ * In a mask of squares, the square with id i is represented by the bit i.
+ * A topology holds no reference to the squares nor to the board it was built from, and it is never modified after
+ * its construction: a single instance per map is shared by all the boards using that map.
+ *
+ * @author  BassaniRiccardo
+ */
+
+public final class MapTopology {
+
+    static final int NO_SQUARE = -1;
+    static final int UNREACHABLE = -1;
+    private static final int ID_SPACE = MAP_ROWS * MAP_COLUMNS;
+
+    private final boolean[][] topWalls;
+    private final boolean[][] leftWalls;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] cells;
+    private final int[] roomIds;
+    private final int[] adjacencyOffsets;
+    private final int[] adjacencyTargets;
+    private final long[] adjacentMasks;
+    private final int[][] distances;
+    private final int diameter;
+    private final long[][] reachableMasks;
+    private final long[] visibleMasks;
+    private final long[] roomMasks;
+    private final int[][] raySquares;
+    private final int[][] rayDistances;
+    private final long[] lineMasks;
+
+
+    /**
+     * Constructs the topology of a map, given its squares and walls.
+     *
+     * @param map           the squares of the map.
+     * @param topWalls      the top walls of the map.
+     * @param leftWalls     the left walls of the map.
+     */
+    public MapTopology(List<Square> map, boolean[][] topWalls, boolean[][] leftWalls) {
+
+        this.topWalls = copyOf(topWalls);
+        this.leftWalls = copyOf(leftWalls);
+        this.rows = new int[ID_SPACE];
+        this.columns = new int[ID_SPACE];
+        this.cells = new int[ID_SPACE];
+        this.roomIds = new int[ID_SPACE];
+        Arrays.fill(rows, NO_SQUARE);
+        Arrays.fill(columns, NO_SQUARE);
+        Arrays.fill(cells, NO_SQUARE);
+        Arrays.fill(roomIds, NO_SQUARE);
+        for (Square s : map) {
+            rows[s.getId()] = s.getRow();
+            columns[s.getId()] = s.getColumn();
+            roomIds[s.getId()] = s.getRoomId();
+            cells[(s.getRow() - 1) * MAP_COLUMNS + s.getColumn() - 1] = s.getId();
+        }
+
+        int maxRoomId = 0;
+        for (Square s : map) {
+            maxRoomId = Math.max(maxRoomId, s.getRoomId());
+        }
+        this.roomMasks = new long[maxRoomId + 1];
+        for (Square s : map) {
+            roomMasks[s.getRoomId()] |= bitOf(s.getId());
+        }
+
+        int[][] neighbours = new int[ID_SPACE][];
+        this.adjacencyOffsets = new int[ID_SPACE + 1];
+        this.adjacentMasks = new long[ID_SPACE];
+        for (int id = 0; id < ID_SPACE; id++) {
+            neighbours[id] = contains(id) ? computeNeighbours(id, topWalls, leftWalls) : new int[0];
+            adjacencyOffsets[id + 1] = adjacencyOffsets[id] + neighbours[id].length;
+            for (int n : neighbours[id]) {
+                adjacentMasks[id] |= bitOf(n);
+            }
+        }
+        this.adjacencyTargets = new int[adjacencyOffsets[ID_SPACE]];
+        for (int id = 0; id < ID_SPACE; id++) {
+            System.arraycopy(neighbours[id], 0, adjacencyTargets, adjacencyOffsets[id], neighbours[id].length);
+        }
+
+        this.distances = new int[ID_SPACE][];
+        this.visibleMasks = new long[ID_SPACE];
+        int maxDistance = 0;
+        for (int id = 0; id < ID_SPACE; id++) {
+            if (contains(id)) {
+                distances[id] = computeDistances(id);
+                visibleMasks[id] = computeVisibleMask(id);
+                for (int d : distances[id]) {
+                    maxDistance = Math.max(maxDistance, d);
+                }
+            }
+        }
+        this.diameter = maxDistance;
+
+        this.reachableMasks = new long[ID_SPACE][];
+        for (int id = 0; id < ID_SPACE; id++) {
+            if (contains(id)) {
+                reachableMasks[id] = computeReachableMasks(id);
+            }
+        }
+
+        int rayNumber = 2 * Board.Direction.values().length * ID_SPACE;
+        this.raySquares = new int[rayNumber][];
+        this.rayDistances = new int[rayNumber][];
+        this.lineMasks = new long[rayNumber];
+        for (int id = 0; id < ID_SPACE; id++) {
+            for (Board.Direction d : Board.Direction.values()) {
+                for (boolean ignoringWalls : new boolean[]{false, true}) {
+                    int index = getRayIndex(id, d, ignoringWalls);
+                    raySquares[index] = contains(id) ? computeRay(id, d, ignoringWalls, topWalls, leftWalls) : new int[0];
+                    rayDistances[index] = new int[raySquares[index].length];
+                    for (int k = 0; k < raySquares[index].length; k++) {
+                        rayDistances[index][k] = distances[id][raySquares[index][k]];
+                        lineMasks[index] |= bitOf(raySquares[index][k]);
+                    }
+                }
+            }
+        }
+
+    }
+
+
+    /**
+     * Returns whether the map contains a square with the specified id.
+     *
+     * @param id        the id of the square.
+     * @return          true if the map contains the square.
+     *                  false otherwise.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < ID_SPACE && rows[id] != NO_SQUARE;
+    }
+
+
+    /**
+     * Returns the distance, in steps, from a square to another.
+     *
+     * @param startId       the id of the starting square.
+     * @param destId        the id of the destination square.
+     * @return              the distance in steps, -1 if the destination can not be reached.
+     * @throws              IllegalArgumentException    if one of the squares does not belong to the map.
+     */
+    public int getDistance(int startId, int destId) {
+
+        if (!contains(startId) || !contains(destId)) {
+            throw new IllegalArgumentException("The squares must belong to the map.");
+        }
+        return distances[startId][destId];
+
+    }
+
+
+    /**
+     * Getter for diameter.
+     *
+     * @return          the maximum distance, in steps, between two squares of the map.
+     */
+    public int getDiameter() {
+        return diameter;
+    }
+
+
+    /**
+     * Returns the mask of the squares reachable from the specified square with the specified number of steps.
+     * The starting square is included.
+     *
+     * @param id        the id of the starting square.
+     * @param steps     the number of steps that can be taken.
+     * @return          the mask of the reachable squares.
+     * @throws          IllegalArgumentException    if the square does not belong to the map.
+     */
+    public long getReachableMask(int id, int steps) {
+
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The square must belong to the map.");
+        }
+        if (steps < 0) {
+            return 0;
+        }
+        return reachableMasks[id][Math.min(steps, diameter)];
+
+    }
+
+
+    /**
+     * Returns the number of squares in line with the specified square, moving in the specified direction.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @return                  the length of the ray.
+     */
+    public int getRayLength(int id, Board.Direction direction, boolean ignoringWalls) {
+        return raySquares[getRayIndex(id, direction, ignoringWalls)].length;
+    }
+
+
+    /**
+     * Returns one of the squares in line with the specified square, moving in the specified direction.
+     * The squares are indexed from 0 to getRayLength() - 1, by increasing distance from the starting square.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @param index             the index of the square in the ray.
+     * @return                  the id of the square.
+     */
+    public int getRaySquare(int id, Board.Direction direction, boolean ignoringWalls, int index) {
+        return raySquares[getRayIndex(id, direction, ignoringWalls)][index];
+    }
+
+
+    /**
+     * Returns the distance, in steps, between a square and one of the squares in line with it.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @param index             the index of the square in the ray.
+     * @return                  the distance in steps, -1 if the square can not be reached.
+     */
+    public int getRayDistance(int id, Board.Direction direction, boolean ignoringWalls, int index) {
+        return rayDistances[getRayIndex(id, direction, ignoringWalls)][index];
+    }
+
+
+    /**
+     * Returns the mask of the squares in line with the specified square, moving in the specified direction.
+     * The starting square is excluded.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @return                  the mask of the squares in line.
+     * @throws                  IllegalArgumentException    if the square does not belong to the map.
+     */
+    public long getLineMask(int id, Board.Direction direction, boolean ignoringWalls) {
+
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The square must belong to the map.");
+        }
+        return lineMasks[getRayIndex(id, direction, ignoringWalls)];
+
+    }
+
+
+    /**
+     * Returns the number of squares adjacent to the specified square.
+     *
+     * @param id        the id of the square.
+     * @return          the number of adjacent squares.
+     */
+    public int getAdjacentCount(int id) {
+        return adjacencyOffsets[id + 1] - adjacencyOffsets[id];
+    }
+
+
+    /**
+     * Returns one of the squares adjacent to the specified square.
+     * The adjacent squares are indexed from 0 to getAdjacentCount(id) - 1, in the order top, down, right, left.
+     *
+     * @param id        the id of the square.
+     * @param index     the index of the adjacent square.
+     * @return          the id of the adjacent square.
+     * @throws          IndexOutOfBoundsException   if the index is not valid.
+     */
+    public int getAdjacent(int id, int index) {
+        if (index < 0 || index >= getAdjacentCount(id)) {
+            throw new IndexOutOfBoundsException("The square has only " + getAdjacentCount(id) + " adjacent squares.");
+        }
+        return adjacencyTargets[adjacencyOffsets[id] + index];
+    }
+
+
+    /**
+     * Returns the mask of the squares adjacent to the specified square.
+     *
+     * @param id        the id of the square.
+     * @return          the mask of the adjacent squares.
+     * @throws          IllegalArgumentException    if the square does not belong to the map.
+     */
+    public long getAdjacentMask(int id) {
+
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The square must belong to the map.");
+        }
+        return adjacentMasks[id];
+
+    }
+
+
+    /**
+     * Returns the bit representing a square in a mask of squares.
+     *
+     * @param id        the id of the square.
+     * @return          the mask containing only the square.
+     */
+    public static long bitOf(int id) {
+        return 1L << id;
+    }
+
+
+    /**
+     * Returns the mask of the squares visible from the specified square.
+     * The starting square is included.
+     *
+     * @param id        the id of the starting square.
+     * @return          the mask of the visible squares.
+     * @throws          IllegalArgumentException    if the square does not belong to the map.
+     */
+    public long getVisibleMask(int id) {
+
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The square must belong to the map.");
+        }
+        return visibleMasks[id];
+
+    }
+
+
+    /**
+     * Returns whether a square is visible from another.
+     *
+     * @param fromId        the id of the starting square.
+     * @param toId          the id of the observed square.
+     * @return              true if the square is visible.
+     *                      false otherwise.
+     */
+    public boolean isVisible(int fromId, int toId) {
+        return contains(toId) && (getVisibleMask(fromId) & bitOf(toId)) != 0;
+    }
+
+
+    /**
+     * Getter for topWalls.
+     *
+     * @return              a copy of the top walls.
+     */
+    public boolean[][] getTopWalls() {
+        return copyOf(topWalls);
+    }
+
+
+    /**
+     * Getter for leftWalls.
+     *
+     * @return              a copy of the left walls.
+     */
+    public boolean[][] getLeftWalls() {
+        return copyOf(leftWalls);
+    }
+
+
+    /**
+     * Returns the id of the room containing the specified square.
+     *
+     * @param id            the id of the square.
+     * @return              the id of the room.
+     * @throws              IllegalArgumentException    if the square does not belong to the map.
+     */
+    public int getRoomId(int id) {
+
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The square must belong to the map.");
+        }
+        return roomIds[id];
+
+    }
+
+
+    /**
+     * Returns the mask of the squares in the specified room.
+     *
+     * @param roomId        the id of the room.
+     * @return              the mask of the squares in the room, 0 if the map does not contain the room.
+     */
+    public long getRoomMask(int roomId) {
+
+        if (roomId < 0 || roomId >= roomMasks.length) {
+            return 0;
+        }
+        return roomMasks[roomId];
+
+    }
+
+
+    /**
+     * Returns the greatest room id of the map.
+     *
+     * @return              the greatest room id.
+     */
+    public int getMaxRoomId() {
+        return roomMasks.length - 1;
+    }
+
+
+    /**
+     * Returns the id of the square in the specified position, if any.
+     *
+     * @param row       the row, starting from 1.
+     * @param column    the column, starting from 1.
+     * @return          the id of the square, -1 if the position is outside the map or empty.
+     */
+    private int getIdAt(int row, int column) {
+        if (row < 1 || row > MAP_ROWS || column < 1 || column > MAP_COLUMNS) return NO_SQUARE;
+        return cells[(row - 1) * MAP_COLUMNS + column - 1];
+    }
+
+
+    /**
+     * Returns a deep copy of a matrix of walls.
+     *
+     * @param walls         the walls to copy.
+     * @return              the copy.
+     */
+    private static boolean[][] copyOf(boolean[][] walls) {
+
+        boolean[][] copy = new boolean[walls.length][];
+        for (int i = 0; i < walls.length; i++) {
+            copy[i] = walls[i].clone();
+        }
+        return copy;
+
+    }
+
+
+    /**
+     * Returns the index of a ray in the tables of rays.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @return                  the index of the ray.
+     */
+    private static int getRayIndex(int id, Board.Direction direction, boolean ignoringWalls) {
+        return ((ignoringWalls ? Board.Direction.values().length : 0) + direction.ordinal()) * ID_SPACE + id;
+    }
+
+
+    /**
+     * Returns whether a wall separates a position from the next one in the specified direction.
+     *
+     * @param row           the row, starting from 1.
+     * @param column        the column, starting from 1.
+     * @param direction     the direction.
+     * @param topWalls      the top walls of the map.
+     * @param leftWalls     the left walls of the map.
+     * @return              true if there is a wall or the position is on the border of the map.
+     *                      false otherwise.
+     */
+    private static boolean isBlocked(int row, int column, Board.Direction direction, boolean[][] topWalls, boolean[][] leftWalls) {
+
+        switch (direction) {
+            case UP:
+                return topWalls[row-1][column-1];
+            case DOWN:
+                return row >= MAP_ROWS || topWalls[row][column-1];
+            case RIGHT:
+                return column >= MAP_COLUMNS || leftWalls[row-1][column];
+            default:
+                return leftWalls[row-1][column-1];
+        }
+
+    }
+
+
+    /**
+     * Computes the ray of the squares in line with a square, moving in the specified direction.
+     * When the walls are not ignored, the ray stops at the first wall.
+     *
+     * @param id                the id of the starting square.
+     * @param direction         the direction.
+     * @param ignoringWalls     whether the walls are ignored.
+     * @param topWalls          the top walls of the map.
+     * @param leftWalls         the left walls of the map.
+     * @return                  the ids of the squares in line, by increasing distance.
+     */
+    private int[] computeRay(int id, Board.Direction direction, boolean ignoringWalls, boolean[][] topWalls, boolean[][] leftWalls) {
+
+        int dr = direction == Board.Direction.UP ? -1 : direction == Board.Direction.DOWN ? 1 : 0;
+        int dc = direction == Board.Direction.LEFT ? -1 : direction == Board.Direction.RIGHT ? 1 : 0;
+        int[] ray = new int[Math.max(MAP_ROWS, MAP_COLUMNS)];
+        int length = 0;
+        int r = rows[id];
+        int c = columns[id];
+        while (r + dr >= 1 && r + dr <= MAP_ROWS && c + dc >= 1 && c + dc <= MAP_COLUMNS
+                && (ignoringWalls || !isBlocked(r, c, direction, topWalls, leftWalls))) {
+            r += dr;
+            c += dc;
+            if (getIdAt(r, c) != NO_SQUARE) {
+                ray[length++] = getIdAt(r, c);
+            }
+        }
+        return Arrays.copyOf(ray, length);
+
+    }
+
+
+    /**
+     * Computes the squares adjacent to a square, considering the walls.
+     * The adjacent squares are listed in the order top, down, right, left.
+     *
+     * @param id            the id of the square.
+     * @param topWalls      the top walls of the map.
+     * @param leftWalls     the left walls of the map.
+     * @return              the ids of the adjacent squares.
+     */
+    private int[] computeNeighbours(int id, boolean[][] topWalls, boolean[][] leftWalls) {
+
+        int r = rows[id];
+        int c = columns[id];
+        int[] candidates = {
+                isBlocked(r, c, Board.Direction.UP, topWalls, leftWalls) ? NO_SQUARE : getIdAt(r - 1, c),
+                isBlocked(r, c, Board.Direction.DOWN, topWalls, leftWalls) ? NO_SQUARE : getIdAt(r + 1, c),
+                isBlocked(r, c, Board.Direction.RIGHT, topWalls, leftWalls) ? NO_SQUARE : getIdAt(r, c + 1),
+                isBlocked(r, c, Board.Direction.LEFT, topWalls, leftWalls) ? NO_SQUARE : getIdAt(r, c - 1)
+        };
+        return Arrays.stream(candidates).filter(n -> n != NO_SQUARE).toArray();
+
+    }
+
+
+    /**
+     * Computes, with a breadth-first search, the distances from a square to every other square of the map.
+     *
+     * @param startId       the id of the starting square.
+     * @return              the distances, indexed by square id.
+     */
+    private int[] computeDistances(int startId) {
+
+        int[] dist = new int[ID_SPACE];
+        Arrays.fill(dist, UNREACHABLE);
+        dist[startId] = 0;
+        Deque<Integer> frontier = new ArrayDeque<>();
+        frontier.add(startId);
+
+        while (!frontier.isEmpty()) {
+            int id = frontier.poll();
+            for (int k = adjacencyOffsets[id]; k < adjacencyOffsets[id + 1]; k++) {
+                int n = adjacencyTargets[k];
+                if (dist[n] == UNREACHABLE) {
+                    dist[n] = dist[id] + 1;
+                    frontier.add(n);
+                }
+            }
+        }
+        return dist;
+
+    }
+
+
+    /**
+     * Computes the masks of the squares reachable from a square, for every number of steps up to the diameter of the map.
+     *
+     * @param id            the id of the starting square.
+     * @return              the masks of the reachable squares, indexed by number of steps.
+     */
+    private long[] computeReachableMasks(int id) {
+
+        long[] masks = new long[diameter + 1];
+        for (int other = 0; other < ID_SPACE; other++) {
+            if (contains(other) && distances[id][other] != UNREACHABLE) {
+                for (int steps = distances[id][other]; steps <= diameter; steps++) {
+                    masks[steps] |= bitOf(other);
+                }
+            }
+        }
+        return masks;
+
+    }
+
+
+    /**
+     * Computes the mask of the squares visible from a square:
+     * the squares in its room and the squares in the rooms of its adjacent squares.
+     *
+     * @param id            the id of the square.
+     * @return              the mask of the visible squares.
+     */
+    private long computeVisibleMask(int id) {
+
+        long mask = roomMasks[roomIds[id]];
+        for (int k = adjacencyOffsets[id]; k < adjacencyOffsets[id + 1]; k++) {
+            mask |= roomMasks[roomIds[adjacencyTargets[k]]];
+        }
+        return mask;
+
+    }
+
+}
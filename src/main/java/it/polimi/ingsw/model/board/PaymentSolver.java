@@ -0,0 +1,218 @@
+package it.polimi.ingsw.model.board;
+
+import it.polimi.ingsw.model.cards.Color;
+import it.polimi.ingsw.model.cards.PackedAmmo;
+import it.polimi.ingsw.model.cards.PowerUp;
+
+import java.util.*;
+
+import static it.polimi.ingsw.model.cards.Color.*;
+
+/**
+ * Finds the ways a player can pay a cost, using his ammo and converting his powerups into ammo of their color.
+ * A payment plan lists the powerups to convert and the ammo to use for the rest of the cost.
+ * A plan never converts more powerups of a color than the ammo of that color in the cost, and
+ * two powerups with the same name and color are interchangeable, so that every plan is a different choice for the player.
+ *
+ * @author  BassaniRiccardo
+ */
+
+public final class PaymentSolver {
+
+    /**
+     * Constructor made private since the class only has static methods.
+     */
+    private PaymentSolver() {
+    }
+
+
+    /**
+     * Represents a way to pay a cost: the powerups to convert and the ammo to use.
+     */
+    public static final class Plan {
+
+        private final List<PowerUp> converted;
+        private final int ammo;
+
+
+        /**
+         * Constructs a plan.
+         *
+         * @param converted     the powerups to convert.
+         * @param ammo          the ammo to use, packed.
+         */
+        private Plan(List<PowerUp> converted, int ammo) {
+            this.converted = Collections.unmodifiableList(converted);
+            this.ammo = ammo;
+        }
+
+
+        /**
+         * Getter for converted.
+         *
+         * @return      the powerups to convert.
+         */
+        public List<PowerUp> getConverted() {
+            return converted;
+        }
+
+
+        /**
+         * Getter for ammo.
+         *
+         * @return      the ammo to use, packed.
+         */
+        public int getAmmo() {
+            return ammo;
+        }
+
+
+        /**
+         * Returns a string representing the plan.
+         *
+         * @return      the description of the plan.
+         */
+        @Override
+        public String toString() {
+
+            StringBuilder builder = new StringBuilder("Pay ").append(PackedAmmo.toString(ammo));
+            if (!converted.isEmpty()) {
+                builder.append(", convert ");
+                for (int i = 0; i < converted.size(); i++) {
+                    if (i > 0) builder.append(", ");
+                    builder.append(converted.get(i));
+                }
+            }
+            return builder.toString();
+
+        }
+
+    }
+
+
+    /**
+     * Returns whether a cost can be paid, without listing the plans.
+     *
+     * @param cost          the cost to pay, packed.
+     * @param ammo          the available ammo, packed.
+     * @param powerUps      the powerups which can be converted.
+     * @return              true if there is at least a plan.
+     */
+    public static boolean feasible(int cost, int ammo, List<PowerUp> powerUps) {
+
+        int needed = PackedAmmo.needed(cost, ammo);
+        if (needed == PackedAmmo.EMPTY) return true;
+        int red = 0;
+        int blue = 0;
+        int yellow = 0;
+        for (PowerUp p : powerUps) {
+            if (p.getColor() == RED) red++;
+            else if (p.getColor() == BLUE) blue++;
+            else if (p.getColor() == YELLOW) yellow++;
+        }
+        return red >= PackedAmmo.red(needed) && blue >= PackedAmmo.blue(needed) && yellow >= PackedAmmo.yellow(needed);
+
+    }
+
+
+    /**
+     * Lists the plans to pay a cost, in order of number of converted powerups and then in order of the powerups in the hand.
+     * The first plan converts as few powerups as possible.
+     *
+     * @param cost          the cost to pay, packed.
+     * @param ammo          the available ammo, packed.
+     * @param powerUps      the powerups which can be converted.
+     * @return              the plans, empty if the cost can not be paid.
+     */
+    public static List<Plan> plans(int cost, int ammo, List<PowerUp> powerUps) {
+
+        List<Plan> plans = new ArrayList<>();
+        if (!feasible(cost, ammo, powerUps)) return plans;
+
+        //only the powerups whose color is in the cost can be converted
+        List<PowerUp> convertible = new ArrayList<>();
+        for (PowerUp p : powerUps) {
+            if (PackedAmmo.covers(cost, PackedAmmo.of(p.getColor())) && PackedAmmo.of(p.getColor()) != PackedAmmo.EMPTY) {
+                convertible.add(p);
+            }
+        }
+
+        int n = convertible.size();
+        List<Integer> subsets = new ArrayList<>();
+        for (int subset = 0; subset < 1 << n; subset++) {
+            if (isCanonical(subset, convertible) && isPlan(subset, convertible, cost, ammo)) {
+                subsets.add(subset);
+            }
+        }
+        //the sort is stable, hence plans with the same number of conversions keep the order of the hand
+        subsets.sort(Comparator.comparingInt(Integer::bitCount));
+
+        for (int subset : subsets) {
+            List<PowerUp> converted = new ArrayList<>(Integer.bitCount(subset));
+            int toPay = cost;
+            for (int i = 0; i < n; i++) {
+                if ((subset & 1 << i) != 0) {
+                    converted.add(convertible.get(i));
+                    toPay = PackedAmmo.sub(toPay, PackedAmmo.of(convertible.get(i).getColor()));
+                }
+            }
+            plans.add(new Plan(converted, toPay));
+        }
+        return plans;
+
+    }
+
+
+    /**
+     * Checks whether converting a subset of the powerups pays the cost, without converting too many powerups of a color.
+     *
+     * @param subset        the converted powerups, as a bit mask over the convertible powerups.
+     * @param convertible   the convertible powerups.
+     * @param cost          the cost to pay, packed.
+     * @param ammo          the available ammo, packed.
+     * @return              true if the subset is a plan.
+     */
+    private static boolean isPlan(int subset, List<PowerUp> convertible, int cost, int ammo) {
+
+        int red = 0;
+        int blue = 0;
+        int yellow = 0;
+        for (int i = 0; i < convertible.size(); i++) {
+            if ((subset & 1 << i) != 0) {
+                Color color = convertible.get(i).getColor();
+                if (color == RED) red++;
+                else if (color == BLUE) blue++;
+                else yellow++;
+            }
+        }
+        if (red > PackedAmmo.red(cost) || blue > PackedAmmo.blue(cost) || yellow > PackedAmmo.yellow(cost)) return false;
+        return PackedAmmo.covers(ammo, PackedAmmo.sub(cost, PackedAmmo.of(red, blue, yellow)));
+
+    }
+
+
+    /**
+     * Checks that a subset converts, among interchangeable powerups, the ones which come first in the hand.
+     * This way every choice of powerups is listed once.
+     *
+     * @param subset        the converted powerups, as a bit mask over the convertible powerups.
+     * @param convertible   the convertible powerups.
+     * @return              true if no converted powerup follows an interchangeable one which is not converted.
+     */
+    private static boolean isCanonical(int subset, List<PowerUp> convertible) {
+
+        for (int i = 0; i < convertible.size(); i++) {
+            if ((subset & 1 << i) == 0) continue;
+            PowerUp p = convertible.get(i);
+            for (int j = 0; j < i; j++) {
+                PowerUp q = convertible.get(j);
+                if ((subset & 1 << j) == 0 && q.getName() == p.getName() && q.getColor() == p.getColor()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+
+    }
+
+}
@@ -10,10 +10,11 @@ import it.polimi.ingsw.model.exceptions.WrongTimeException;
 import it.polimi.ingsw.view.ClientModel;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static it.polimi.ingsw.model.cards.AmmoPack.MAX_AMMO_AMOUNT;
 import static it.polimi.ingsw.model.cards.FireMode.FireModeName.*;
 import static java.util.Collections.*;
 import static it.polimi.ingsw.model.cards.Color.*;
@@ -64,20 +65,21 @@ public class Player {
     private boolean dead;
     private boolean flipped;
 
-    private List<Player> damages;
-    private List<Player> marks;
+    private final ShotList damages;
+    private final ShotList marks;
 
     private Square position;
     private Square previousPosition;
     private Board board;
 
-    private List<Weapon> weaponList;
-    private List<PowerUp> powerUpList;
+    private final JournaledList<Weapon> weaponList;
+    private final JournaledList<PowerUp> powerUpList;
     private AmmoPack ammoPack;
 
     private List<Action> actionList;
     private List<Player> mainTargets;
     private List<Player> optionalTargets;
+    private final ShootingCache shootingCache;
 
     private int deaths;
     private int pointsToGive;
@@ -94,6 +96,7 @@ public class Player {
     private static final String COLLECT = "collect";
     private static final String RELOAD = "reload";
     private static final String NUMBER_OF_ACTIONS = "numberOfActions";
+    private static final Map<Status, List<Action>> ACTION_TABLES = buildActionTables();
     private static final String NO_SELF_SHOOTING = "A player can not shoot himself";
 
 
@@ -116,19 +119,21 @@ public class Player {
         this.dead = false;
         this.flipped = false;
 
-        this.damages = new ArrayList<>();
-        this.marks = new ArrayList<>();
+        this.damages = new ShotList();
+        this.damages.setBeforeChange(() -> save(Journal.DAMAGES, () -> new ArrayList<>(damages), this::setDamages));
+        this.marks = new ShotList();
+        this.marks.setBeforeChange(() -> save(Journal.MARKS, () -> new ArrayList<>(marks), this::setMarks));
 
         this.position = null;
         this.previousPosition = null;
 
-        this.weaponList = new ArrayList<>();
-        this.powerUpList = new ArrayList<>();
+        this.weaponList = new JournaledList<>(() -> save(Journal.WEAPONS, () -> new ArrayList<>(getWeaponList()), this::setWeaponList));
+        this.powerUpList = new JournaledList<>(() -> save(Journal.POWERUPS, () -> new ArrayList<>(getPowerUpList()), this::setPowerUpList));
         this.ammoPack =new AmmoPack(j.getInt("initialRAmmo"), j.getInt("initialBAmmo"), j.getInt("initialYAmmo"));
 
-        this.actionList = new ArrayList<>();
         this.mainTargets=new ArrayList<>();
         this.optionalTargets=new ArrayList<>();
+        this.shootingCache = new ShootingCache(this);
 
         this.deaths = 0;
         this.pointsToGive=8;
@@ -154,7 +159,12 @@ public class Player {
 
     public int getPoints(){return this.points;}
 
-    public List<Action> getActionList(){return actionList;}
+    /**
+     * Returns the actions of the player in his current status, as a new list.
+     *
+     * @return      the actions of the player.
+     */
+    public List<Action> getActionList(){return new ArrayList<>(actionList);}
 
     public List<Weapon> getWeaponList(){return weaponList;}
 
@@ -164,6 +174,20 @@ public class Player {
 
     public List<Player> getDamages() {return damages;}
 
+    /**
+     * Returns the ids of the players who damaged the player, one for every damage, in order.
+     *
+     * @return      the ids of the players who damaged the player.
+     */
+    public List<Integer> getDamagesIds() {return damages.getIds();}
+
+    /**
+     * Returns the ids of the players who marked the player, one for every mark, in order.
+     *
+     * @return      the ids of the players who marked the player.
+     */
+    public List<Integer> getMarksIds() {return marks.getIds();}
+
     public boolean isFlipped(){return flipped;}
 
     public boolean isDead() {return dead;}
@@ -194,6 +218,8 @@ public class Player {
 
     public boolean isInGame(){ return inGame;}
 
+    public boolean isOnBoard(){ return position != null;}
+
     public Board getBoard() {return board; }
 
     public String getUsername() { return username; }
@@ -204,22 +230,17 @@ public class Player {
      */
 
     public void setPosition(Square square) {
-        setVirtualPosition(square);
-        board.addToUpdateQueue(Updater.get(Updater.MOVE_UPD, this, square));
-    }
-
-    /**
-     * Virtual position used for calculating shooting squares. Needs to be manually RESET.
-     * @param square    virtual movement destination.
-     */
-    private void setVirtualPosition(Square square){
         if (!this.board.getMap().contains(square)) throw new IllegalArgumentException("The player must be located in a square that belongs to the board.");
         if (this.position!=null){
+            save(Journal.POSITION, () -> position, this::setPosition);
             this.position.removePlayer(this);
         }
         previousPosition = position;
         this.position = square;
         square.addPlayer(this);
+        board.updateOccupancy(this, previousPosition, square);
+        board.nextVersion();
+        board.addToUpdateQueue(Updater.get(Updater.MOVE_UPD, this, square));
     }
 
     public void setPointsToGive(int p) {
@@ -229,39 +250,68 @@ public class Player {
 
     public void setPoints(int points) { this.points = points;}
 
-    public void setStatus(Status status){this.status=status;board.addToUpdateQueue(Updater.get(Updater.STATUS_UPD, this));}
+    public void setStatus(Status status){this.status=status;board.nextVersion();board.addToUpdateQueue(Updater.get(Updater.STATUS_UPD, this));}
 
-    public void setJustDamaged(boolean justDamaged){this.justDamaged = justDamaged;}
+    public void setJustDamaged(boolean justDamaged){this.justDamaged = justDamaged;board.nextVersion();}
 
-    public void setFlipped(boolean flipped){this.flipped = flipped; board.addToUpdateQueue(Updater.get(Updater.STATUS_UPD, this));
+    public void setFlipped(boolean flipped){this.flipped = flipped;board.nextVersion();board.addToUpdateQueue(Updater.get(Updater.STATUS_UPD, this));
     }
 
     public void setInGame(boolean inGame) {
         this.inGame = inGame;
+        board.nextVersion();
         board.addToUpdateQueue(Updater.get(Updater.SET_IN_GAME_UPD, this, inGame));
     }
 
-    public void setDead(boolean dead) {this.dead = dead;}
+    public void setDead(boolean dead) {
+        save(Journal.DEAD, () -> this.dead, this::setDead);
+        this.dead = dead;
+        board.nextVersion();
+    }
 
     public void setDamages(List<Player> damages) {
-        this.damages = damages;
+        this.damages.setAll(damages);
+        board.nextVersion();
     }
 
-    public void setWeaponList(List<Weapon> weaponList) { this.weaponList = weaponList;}
+    public void setWeaponList(List<Weapon> weaponList) { this.weaponList.setAll(weaponList);}
 
     public void setPowerUpList(List<PowerUp> powerUpList) {
-        this.powerUpList = powerUpList;
-        for (PowerUp p : powerUpList){
+        this.powerUpList.setAll(powerUpList);
+        for (PowerUp p : this.powerUpList){
             p.setHolder(this);
         }
     }
 
-    public void setAmmoPack(AmmoPack ammoPack) { this.ammoPack = ammoPack; }
+    public void setAmmoPack(AmmoPack ammoPack) {
+        saveAmmo();
+        this.ammoPack = ammoPack;
+    }
 
-    public void setMarks(List<Player> marks) { this.marks = marks;  }
+    public void setMarks(List<Player> marks) { this.marks.setAll(marks); board.nextVersion(); }
 
     public void setUsername(String username) {this.username = username; }
 
+
+    /**
+     * Saves the value of an attribute of the player in the journal of the board, before it changes.
+     *
+     * @param attribute     the name of the attribute.
+     * @param before        supplies the value of the attribute.
+     * @param restore       restores the value of the attribute.
+     * @param <T>           the type of the attribute.
+     */
+    private <T> void save(String attribute, Supplier<T> before, Consumer<T> restore) {
+        board.getJournal().save(this, attribute, before, restore);
+    }
+
+    /**
+     * Saves the ammo of the player in the journal of the board, before they change.
+     */
+    private void saveAmmo() {
+        save(Journal.AMMO, () -> ammoPack.getPacked(), packed -> setAmmoPack(AmmoPack.fromPacked(packed)));
+    }
+
     public void addDeath() {
         this.deaths++;
         board.addToUpdateQueue(Updater.get(Updater.ADD_DEATH_UPD, this, pointsToGive));
@@ -281,8 +331,8 @@ public class Player {
         if (shooter == this) throw new IllegalArgumentException(NO_SELF_SHOOTING);
 
         justDamaged = true;
-        amount += frequency(getMarks(),shooter);
-        marks.removeAll(singleton(shooter));
+        amount += marks.removeAllOf(shooter);
+        board.nextVersion();
         board.addToUpdateQueue(Updater.get(Updater.REMOVE_MARKS, this, marks));
 
         addDamages(amount, shooter);
@@ -322,12 +372,13 @@ public class Player {
             }
         }
         if (damages.size() >= 11){
+            save(Journal.DEAD, () -> dead, this::setDead);
             dead = true;
         }
         if (damages.size() == 12){
             overkilled = true;
-            if (frequency(shooter.getMarks(), this) <= 3 && addMarkToShooter){
-                shooter.getMarks().add(this);
+            if (shooter.marks.count(this) <= 3 && addMarkToShooter){
+                shooter.marks.add(this);
             }
         }
         if (damages.size() >= 6 && !flipped){
@@ -338,6 +389,7 @@ public class Player {
                 status = Status.ADRENALINE_1;
             }
         }
+        board.nextVersion();
         board.addToUpdateQueue(Updater.get(Updater.DAMAGE_UPD, this, damages));
     }
 
@@ -354,10 +406,11 @@ public class Player {
         if (shooter == this) throw new IllegalArgumentException(NO_SELF_SHOOTING);
 
         for (int i = 0; i< amount; i++){
-            if (frequency(marks, shooter) < j.getInt("maximumMarks")){
+            if (marks.count(shooter) < j.getInt("maximumMarks")){
                 marks.add(shooter);
             }
         }
+        board.nextVersion();
         board.addToUpdateQueue(Updater.get(Updater.MARK_UPD, this, marks));
     }
 
@@ -386,12 +439,12 @@ public class Player {
      */
     public void addAmmoPack(AmmoPack ammoPack) {
 
-        int red = Math.min(MAX_AMMO_AMOUNT - this.ammoPack.getRedAmmo(), ammoPack.getRedAmmo());
-        int blue = Math.min(MAX_AMMO_AMOUNT - this.ammoPack.getBlueAmmo(), ammoPack.getBlueAmmo());
-        int yellow = Math.min(MAX_AMMO_AMOUNT - this.ammoPack.getYellowAmmo(), ammoPack.getYellowAmmo());
-        AmmoPack ap = new AmmoPack(red, blue, yellow);
+        int before = this.ammoPack.getPacked();
+        saveAmmo();
+        this.ammoPack.addAmmoPack(ammoPack);
+        //the ammo actually added, since the ammo of every color are limited to 3
+        AmmoPack ap = AmmoPack.fromPacked(PackedAmmo.sub(this.ammoPack.getPacked(), before));
 
-        this.ammoPack.addAmmoPack(ap);
         board.addToUpdateQueue(Updater.get(Updater.ADD_AMMO_UPD, this, ap));
     }
 
@@ -484,11 +537,11 @@ public class Player {
      *
      * @return  true if the player owns a teleporter or a newton which can be used against an enemy.
      *          false otherwise.
-     * @throws  NotAvailableAttributeException      if thrown by PowerUp.findTargets().
+     * @throws  NotAvailableAttributeException      if thrown by PowerUp.hasTargets().
      */
     public boolean hasUsableTeleporterOrNewton() throws NotAvailableAttributeException {
         for (PowerUp p : getPowerUpList()) {
-            if ((p.getName() == PowerUp.PowerUpName.NEWTON && !(p.findTargets().isEmpty()))|| p.getName() == PowerUp.PowerUpName.TELEPORTER) return true;
+            if (p.getName() == PowerUp.PowerUpName.TELEPORTER || (p.getName() == PowerUp.PowerUpName.NEWTON && p.hasTargets())) return true;
         }
         return false;
     }
@@ -512,11 +565,11 @@ public class Player {
      *
      * @return  true if the player owns a targeting scope which can be used against an enemy.
      *          false otherwise.
-     * @throws  NotAvailableAttributeException if thrown by PowerUp.findTargets().
+     * @throws  NotAvailableAttributeException if thrown by PowerUp.hasTargets().
      */
     public boolean hasUsableTargetingScope() throws NotAvailableAttributeException {
         for (PowerUp p : getPowerUpList()) {
-            if (p.getName() == PowerUp.PowerUpName.TARGETING_SCOPE && !(p.findTargets().isEmpty())) return true;
+            if (p.getName() == PowerUp.PowerUpName.TARGETING_SCOPE && p.hasTargets()) return true;
         }
         return false;
     }
@@ -529,10 +582,30 @@ public class Player {
      * @return                true if payment is possible
      */
     public boolean canPay(AmmoPack ammoPack){
+        return canPay(ammoPack.getPacked());
+    }
+
 
-        return (this.ammoPack.getRedAmmo() + getPowerUps(RED).size() >= ammoPack.getRedAmmo()&&
-                this.ammoPack.getBlueAmmo() + getPowerUps(BLUE).size() >= ammoPack.getBlueAmmo()&&
-                this.ammoPack.getYellowAmmo() + getPowerUps(YELLOW).size() >= ammoPack.getYellowAmmo());
+    /**
+     * Returns true if the player can pay an amount of ammo, considering his ammo and the powerups he can convert.
+     * The powerups are counted only if the ammo are not enough.
+     *
+     * @param cost            the price to pay, packed.
+     * @return                true if payment is possible
+     */
+    public boolean canPay(int cost){
+        return PaymentSolver.feasible(cost, this.ammoPack.getPacked(), powerUpList);
+    }
+
+
+    /**
+     * Returns the ways the player can pay an amount of ammo, using his ammo and converting his powerups.
+     *
+     * @param cost            the price to pay.
+     * @return                the payment plans, the first converting as few powerups as possible.
+     */
+    public List<PaymentSolver.Plan> getPaymentPlans(AmmoPack cost){
+        return PaymentSolver.plans(cost.getPacked(), this.ammoPack.getPacked(), powerUpList);
     }
 
 
@@ -542,6 +615,7 @@ public class Player {
      * @param usedAmmo        the used ammo.
      */
     public void useAmmo(AmmoPack usedAmmo) {
+        saveAmmo();
         this.ammoPack.subAmmoPack(usedAmmo);
         board.addToUpdateQueue(Updater.get(Updater.USE_AMMO_UPD, this, usedAmmo));
     }
@@ -605,10 +679,8 @@ public class Player {
         List<PowerUp> powerUps
                 = new ArrayList<>();
         for (PowerUp p : powerUpList){
-            // the cost is needed only in the case of the targeting scope. It is doubled since the targeting scope which is being used cannot be converted.
-            AmmoPack doubledCost = new AmmoPack(p.getCost().getRedAmmo(), p.getCost().getBlueAmmo(), p.getCost().getYellowAmmo());
-            doubledCost.addAmmoPack(p.getCost());
-            if (p.getName()== name && this.canPay(doubledCost)){
+            // the cost is needed only in the case of the targeting scope, which cannot be converted to pay for itself.
+            if (p.getName()== name && canPayWithout(p.getPackedCost(), p)){
                 powerUps.add(p);
             }
         }
@@ -616,6 +688,21 @@ public class Player {
     }
 
 
+    /**
+     * Returns true if the player can pay an amount of ammo without converting a specific powerup.
+     *
+     * @param cost            the price to pay, packed.
+     * @param excluded        the powerup which cannot be converted.
+     * @return                true if payment is possible
+     */
+    private boolean canPayWithout(int cost, PowerUp excluded){
+        if (cost == PackedAmmo.EMPTY) return true;
+        List<PowerUp> others = new ArrayList<>(powerUpList);
+        others.remove(excluded);
+        return PaymentSolver.feasible(cost, this.ammoPack.getPacked(), others);
+    }
+
+
     /**
      * Returns all the player powerups of a specific color.
      *
@@ -687,13 +774,10 @@ public class Player {
     public void updateAwards() throws WrongTimeException{
         if (!this.isDead()) throw new WrongTimeException("The points given for a death are updated only after a player dies.");
         this.addDeath();
-        if (pointsToGive!=1){
-            if (pointsToGive==2) pointsToGive-= 1;
-            else pointsToGive -= 2;
-        }
+        pointsToGive = Scoring.nextAward(pointsToGive);
         this.damages.clear();
         this.setStatus(Status.BASIC);
-        this.dead = false;
+        this.setDead(false);
     }
 
 
@@ -708,36 +792,12 @@ public class Player {
 
         if(!this.isDead()) throw new WrongTimeException("The killers are rewarded only when the player dies.");
 
-        //firstblood
-        if (!this.flipped) {
-            damages.get(0).addPoints(1);
+        //the points given for the next death are updated by updateAwards()
+        for (Map.Entry<Player, Integer> award : Scoring.killAwards(damages, pointsToGive, !flipped).entrySet()){
+            award.getKey().addPoints(award.getValue());
+            String msg = award.getKey() + " gains " + award.getValue() + " points.";
+            LOGGER.log(Level.FINE, msg);
         }
-
-        //asks the board for the players
-        List<Player> playersToReward = new ArrayList<>(this.board.getPlayers());
-
-        //properly orders the playersToReward
-        board.sort(playersToReward, damages);
-
-        //assign the points
-        int nextPointsToGive;
-        if (pointsToGive == 2 || pointsToGive == 1)   nextPointsToGive = 1;
-        else   nextPointsToGive = pointsToGive - 2;
-
-        for (Player p : playersToReward){
-            if (damages.contains(p)){
-                p.addPoints(pointsToGive);
-                int totalGivenPoints = pointsToGive;
-                if (damages.get(0) == p) totalGivenPoints++;
-                String msg = p + " gains " + totalGivenPoints + " points.";
-                LOGGER.log(Level.FINE, msg);
-            }
-            if (pointsToGive != 1) {
-                if (pointsToGive == 2) pointsToGive -= 1;
-                else pointsToGive -= 2;
-            }
-        }
-        pointsToGive = nextPointsToGive;
     }
 
 
@@ -757,103 +817,124 @@ public class Player {
     /**
      * Produces the list of possible actions for the player in his current status.
      * Called when the status changes.
+     * The list is shared by all the players with the same status: getActionList() returns a copy of it.
      */
     public void refreshActionList() {
 
-        actionList.clear();
+        actionList = ACTION_TABLES.get(status);
+
+    }
 
-        if (status == Status.BASIC) {
 
-            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG,0); i++)
-                actionList.add(new Action(j.getInt(STEPS + i, STATUS_TAG,0),
-                        j.getBoolean(COLLECT + i, STATUS_TAG,0),
-                        j.getBoolean(SHOOT + i, STATUS_TAG,0),
-                        j.getBoolean(RELOAD + i, STATUS_TAG,0)));
+    /**
+     * Reads the actions available in every status, once for all the players.
+     * The actions of a status are listed in the element of the array status whose id is the ordinal of the status.
+     *
+     * @return      the unmodifiable lists of actions, for every status.
+     */
+    private static Map<Status, List<Action>> buildActionTables() {
+
+        Map<Status, List<Action>> tables = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) {
+            int id = s.ordinal();
+            List<Action> actions = new ArrayList<>();
+            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG, id); i++)
+                actions.add(new Action(j.getInt(STEPS + i, STATUS_TAG, id),
+                        j.getBoolean(COLLECT + i, STATUS_TAG, id),
+                        j.getBoolean(SHOOT + i, STATUS_TAG, id),
+                        j.getBoolean(RELOAD + i, STATUS_TAG, id)));
+            tables.put(s, unmodifiableList(actions));
+        }
+        return unmodifiableMap(tables);
+
+    }
+
+
+    /**
+     * Returns the squares the player can shoot from after moving up to a specified number of steps.
+     * The squares are evaluated in parallel, as hypothetical positions, and the results are cached for every weapon,
+     * so that they are reused until the state of the board or of the player changes.
+     *
+     * @param steps         the maximum number of steps the player can takes before shooting.
+     * @param toUse         the weapon to be used for shooting
+     * @return              the squares the player can shoot from, in the order of the map.
+     * @throws NotAvailableAttributeException if thrown by canShootFrom().
+     */
+    public List<Square> getShootingSquares(int steps, List<Weapon> toUse) throws NotAvailableAttributeException{
 
-        } else if (status == Status.ADRENALINE_1) {
+        return board.getSquares(shootingCache.getShootableMask(board.getReachableMask(position, steps), toUse));
 
-            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG,1); i++)
-                actionList.add(new Action(j.getInt(STEPS + i, STATUS_TAG,1),
-                        j.getBoolean(COLLECT + i, STATUS_TAG,1),
-                        j.getBoolean(SHOOT + i, STATUS_TAG,1),
-                        j.getBoolean(RELOAD + i, STATUS_TAG,1)));
+    }
 
-        } else if (status == Status.ADRENALINE_2) {
 
-            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG,2); i++)
-                actionList.add(new Action(j.getInt(STEPS + i , STATUS_TAG,2),
-                        j.getBoolean(COLLECT + i , STATUS_TAG,2),
-                        j.getBoolean(SHOOT + i , STATUS_TAG,2),
-                        j.getBoolean(RELOAD + i , STATUS_TAG,2)));
+    /**
+     * Returns whether the player could shoot someone if it was in the specified square.
+     * The player is not moved: the square is passed to the finders as the position of the shooter, while the board
+     * still places him on his actual square.
+     * A square allows to shoot if a MAIN or SECONDARY firemode is available, or if an OPTION1 firemode is available
+     * and it moves the player to a square where a MAIN firemode is available.
+     *
+     * @param square        the hypothetical position of the player.
+     * @param toUse         the weapon to be used for shooting.
+     * @return              true if the player could shoot from the square.
+     *                      false otherwise.
+     * @throws NotAvailableAttributeException if thrown by FireMode.isAvailable() or by DestinationFinder.find().
+     */
+    public boolean canShootFrom(Square square, List<Weapon> toUse) throws NotAvailableAttributeException{
 
-        } else if (status == Status.FRENZY_1) {
+        for (Weapon w : toUse) {
+            FireMode preMove = null;
+            for (FireMode f : w.getFireModeList()) {
+                if (canPay(f.getCost()) && f.isAvailable(square)) {
+                    if (f.getName() == MAIN || f.getName() == SECONDARY) return true;
+                    if (f.getName() == OPTION1) preMove = f;
+                }
+            }
+            // If only OPT1 is usable, check if it will unlock further squares.
+            if (preMove != null && canShootAfterMoving(w, preMove, square)) return true;
+        }
+        return false;
 
-            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG,3); i++)
-                actionList.add(new Action(j.getInt(STEPS + i , STATUS_TAG,3),
-                        j.getBoolean(COLLECT + i, STATUS_TAG,3),
-                        j.getBoolean(SHOOT + i, STATUS_TAG,3),
-                        j.getBoolean(RELOAD + i, STATUS_TAG,3)));
+    }
 
-        } else if (status == Status.FRENZY_2) {
 
-            for(int i = 1; i<= j.getInt(NUMBER_OF_ACTIONS, STATUS_TAG,4); i++)
-                actionList.add(new Action(j.getInt(STEPS + i, STATUS_TAG,4),
-                        j.getBoolean(COLLECT + i, STATUS_TAG,4),
-                        j.getBoolean(SHOOT + i, STATUS_TAG,4),
-                        j.getBoolean(RELOAD + i, STATUS_TAG,4)));
+    /**
+     * Returns whether a MAIN firemode of a weapon becomes available after the movement granted by an OPTION1 firemode.
+     *
+     * @param w             the weapon.
+     * @param preMove       the OPTION1 firemode moving the player.
+     * @param from          the hypothetical position of the player before the movement.
+     * @return              true if the MAIN firemode becomes available from one of the destinations.
+     *                      false otherwise.
+     * @throws NotAvailableAttributeException if thrown by FireMode.isAvailable() or by DestinationFinder.find().
+     */
+    private boolean canShootAfterMoving(Weapon w, FireMode preMove, Square from) throws NotAvailableAttributeException{
 
+        for (Square dest : preMove.getDestinationFinder().find(this, from, new ArrayList<>(Collections.singletonList(this)))) {
+            for (FireMode f : w.getFireModeList()) {
+                if (f.getName() == MAIN && canPay(f.getCost()) && f.isAvailable(dest)) return true;
+            }
         }
+        return false;
 
     }
 
 
     /**
-     * Returns the squares the player can shoot from after moving up to a specified number of steps.
+     * Returns whether the player can shoot from at least one of the squares reachable with a specified number of steps.
+     * The squares already evaluated for the weapons, for instance for another status or by getShootingSquares(), are not
+     * evaluated again.
      *
      * @param steps         the maximum number of steps the player can takes before shooting.
      * @param toUse         the weapon to be used for shooting
-     * @return              true if the player can shoot someone.
+     * @return              true if the player can shoot after moving.
      *                      false otherwise.
-     * @throws NotAvailableAttributeException if thrown by Weapon.listAvailableFiremodes or by DestinationFinder.find().
+     * @throws NotAvailableAttributeException if thrown by canShootFrom().
      */
-    public List<Square> getShootingSquares(int steps, List<Weapon> toUse) throws NotAvailableAttributeException{
+    private boolean canShootAfter(int steps, List<Weapon> toUse) throws NotAvailableAttributeException{
 
-        List<Square> starting = new ArrayList<>();
-        List<Square> start = board.getReachable(position, steps);
-        Square square = this.position;
+        return shootingCache.getShootableMask(board.getReachableMask(position, steps), toUse) != 0;
 
-        //for every square
-        for (Square s1: start){
-            boolean found = false;
-            boolean option1 = false;
-            FireMode preMove = null;
-            this.setVirtualPosition(s1);
-            for (Weapon w: toUse){
-
-                // if the player can shoot from thhe square with MAIN or SECONDARY firemode, set found to true.
-                // The square will be added to the list.
-                for (FireMode f : w.listAvailableFireModes()){
-                    if (f.getName()==MAIN || f.getName() == SECONDARY)  found = true;
-                    if (f.getName()==OPTION1){
-                        option1 = true;
-                        preMove = f;
-                    }
-                }
-                // If only OPT1 is usable, check if it will unlock further squares.
-                if (!found && option1) {
-                    for (Square dest : preMove.getDestinationFinder().find(this, new ArrayList<>(Collections.singletonList(this)))) {
-                        this.setVirtualPosition(dest);
-                        for (FireMode f : w.listAvailableFireModes()) {
-                            if (f.getName() == MAIN) found = true;
-                        }
-                        if (found) break;
-                    }
-                }
-            }
-            if (found && !starting.contains(s1)) starting.add(s1);
-        }
-        setVirtualPosition(square);
-        return starting;
     }
 
 
@@ -866,7 +947,7 @@ public class Player {
      */
     public List<Action> getAvailableActions() throws NotAvailableAttributeException{
 
-        List<Action> availableActions = new ArrayList<>(getActionList());
+        List<Action> availableActions = new ArrayList<>(actionList);
         removeShootingAction(availableActions);
         removeCollectingAction(availableActions);
         return availableActions;
@@ -879,17 +960,17 @@ public class Player {
      *
      * @param availableActions          the list of action before the possible removal.
      * @return                          the list of action after the possible removal.
-     * @throws NotAvailableAttributeException if thrown by getShootingSquares().
+     * @throws NotAvailableAttributeException if thrown by canShootFrom().
      */
     public List<Action> removeShootingAction(List<Action> availableActions)  throws NotAvailableAttributeException{
 
         if (status == Status.BASIC || status == Status.ADRENALINE_1){
-            if(getShootingSquares(0, getLoadedWeapons()).isEmpty()){
+            if(!canShootAfter(0, getLoadedWeapons())){
                 availableActions.remove(2);
             }
         }
         else if (status == Status.ADRENALINE_2){
-            if(getShootingSquares(1, getLoadedWeapons()).isEmpty()){
+            if(!canShootAfter(1, getLoadedWeapons())){
                 availableActions.remove(2);
             }
         }
@@ -897,7 +978,7 @@ public class Player {
             List<Weapon> weapons = new ArrayList<>();
             weapons.addAll(getLoadedWeapons());
             weapons.addAll(getReloadableWeapons());
-            if(getShootingSquares(1, weapons ).isEmpty()){
+            if(!canShootAfter(1, weapons)){
                 availableActions.remove(2);
             }
         }
@@ -905,7 +986,7 @@ public class Player {
             List<Weapon> weapons = new ArrayList<>();
             weapons.addAll(getLoadedWeapons());
             weapons.addAll(getReloadableWeapons());
-            if(getShootingSquares(2, weapons).isEmpty()){
+            if(!canShootAfter(2, weapons)){
                 availableActions.remove(1);
             }
         }
@@ -0,0 +1,156 @@
+package it.polimi.ingsw.model.board;
+
+import java.util.*;
+
+/**
+ * Computes the points of the game: the awards for the death of a player, the awards of the kill shot track
+ * and the final leaderboard.
+ * The computations read the number of occurrences and the first occurrence of every player, which the damages
+ * of the players and the killers of the kill shot track keep up to date as they are registered.
+ * The methods do not modify the players.
+ *
+ * @author  BassaniRiccardo
+ */
+
+public final class Scoring {
+
+    /**
+     * The points given to the first player in a ranking, when no death has decreased them.
+     */
+    public static final int MAX_AWARD = 8;
+
+    /**
+     * The extra point given to the player who first damaged a player who had not flipped his board.
+     */
+    public static final int FIRST_BLOOD = 1;
+
+
+    /**
+     * Constructor made private since the class only has static methods.
+     */
+    private Scoring() {
+    }
+
+
+    /**
+     * Returns the points given to the next player in a ranking, or for the next death of a player:
+     * the points decrease by 2, except that 2 points are followed by 1 point, and 1 point by 1 point.
+     *
+     * @param points        the points given to the previous player.
+     * @return              the points given to the next player.
+     */
+    public static int nextAward(int points) {
+        return (points == 2 || points == 1) ? 1 : points - 2;
+    }
+
+
+    /**
+     * Ranks the players occurring in a list: by number of occurrences and, in the event of a draw, by first occurrence.
+     *
+     * @param occurrences       the list of occurrences, such as the damages of a player or the killers.
+     * @return                  the players occurring in the list, ranked.
+     */
+    public static List<Player> rank(List<Player> occurrences) {
+
+        ShotList shots = asShots(occurrences);
+        //the players in order of first occurrence
+        List<Player> ranked = new ArrayList<>();
+        for (int i = 0; i < shots.size(); i++) {
+            Player p = shots.get(i);
+            if (shots.firstIndexOf(p) == i) {
+                ranked.add(p);
+            }
+        }
+        //the sort is stable, hence draws keep the order of first occurrence
+        ranked.sort((p1, p2) -> Integer.compare(shots.count(p2), shots.count(p1)));
+        return ranked;
+
+    }
+
+
+    /**
+     * Computes the points given for the death of a player.
+     * The players who damaged him get points in accordance with their rank, starting from the points he gives,
+     * and the first player who damaged him gets an extra point if his board is not flipped.
+     *
+     * @param damages           the damages of the dead player.
+     * @param pointsToGive      the points given to the first ranked player.
+     * @param firstBlood        whether the first player who damaged him gets an extra point.
+     * @return                  the points given to every player, in order of rank.
+     */
+    public static Map<Player, Integer> killAwards(List<Player> damages, int pointsToGive, boolean firstBlood) {
+
+        Map<Player, Integer> awards = new LinkedHashMap<>();
+        int points = pointsToGive;
+        for (Player p : rank(damages)) {
+            awards.put(p, points);
+            points = nextAward(points);
+        }
+        if (firstBlood && !damages.isEmpty()) {
+            awards.merge(damages.get(0), FIRST_BLOOD, Integer::sum);
+        }
+        return awards;
+
+    }
+
+
+    /**
+     * Computes the points given at the end of the game in accordance with the kill shot track.
+     * The killers get points in accordance with their rank: the first gets 8 points, the second 6, the third 4,
+     * the fourth 2 and the fifth 1.
+     *
+     * @param killers           the killers, with an occurrence per kill and an extra occurrence for each overkill.
+     * @return                  the points given to every player, in order of rank.
+     */
+    public static Map<Player, Integer> killShotTrackAwards(List<Player> killers) {
+        return killAwards(killers, MAX_AWARD, false);
+    }
+
+
+    /**
+     * Ranks the players at the end of the game: by points and, in the event of a draw, by rank on the kill shot track.
+     * The players who did not kill anyone follow the killers with the same points.
+     *
+     * @param players           the players to rank.
+     * @param killers           the killers, with an occurrence per kill and an extra occurrence for each overkill.
+     * @return                  the players, ranked.
+     */
+    public static List<Player> leaderboard(Collection<Player> players, List<Player> killers) {
+
+        List<Player> killersRank = rank(killers);
+        List<Player> leaderboard = new ArrayList<>(killersRank.size() + players.size());
+        for (Player p : killersRank) {
+            if (players.contains(p)) {
+                leaderboard.add(p);
+            }
+        }
+        for (Player p : players) {
+            if (!killersRank.contains(p)) {
+                leaderboard.add(p);
+            }
+        }
+        //the sort is stable, hence draws keep the rank on the kill shot track
+        leaderboard.sort((p1, p2) -> Integer.compare(p2.getPoints(), p1.getPoints()));
+        return leaderboard;
+
+    }
+
+
+    /**
+     * Returns a list of occurrences as a ShotList, copying it only if necessary.
+     *
+     * @param occurrences       the list of occurrences.
+     * @return                  the ShotList.
+     */
+    static ShotList asShots(List<Player> occurrences) {
+
+        if (occurrences instanceof ShotList) {
+            return (ShotList) occurrences;
+        }
+        ShotList shots = new ShotList();
+        shots.setAll(occurrences);
+        return shots;
+
+    }
+
+}
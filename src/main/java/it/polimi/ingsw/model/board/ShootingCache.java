@@ -0,0 +1,183 @@
+package it.polimi.ingsw.model.board;
+
+import it.polimi.ingsw.model.cards.PowerUp;
+import it.polimi.ingsw.model.cards.Weapon;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Caches, for every weapon of a player, the squares he could shoot from with it.
+ * A weapon is evaluated on a square only once, as long as the version of the board, the ammo and the powerups of the
+ * player and the targets he already selected are the same: the results are shared by all the sets of weapons and all
+ * the numbers of steps, hence by the checks made for the different statuses.
+ * The squares still to evaluate are evaluated in parallel, as hypothetical positions of the player.
+ *
+ * @author  BassaniRiccardo
+ */
+
+final class ShootingCache {
+
+    private static final int EVALUATED = 0;
+    private static final int SHOOTABLE = 1;
+
+    private final Player player;
+    private final Map<Weapon, long[]> masks;
+    private long version;
+    private int ammo;
+    private List<PowerUp> powerUps;
+    private List<Player> mainTargets;
+    private List<Player> optionalTargets;
+
+
+    /**
+     * Constructs an empty cache for a player.
+     *
+     * @param player        the player who shoots.
+     */
+    ShootingCache(Player player) {
+
+        this.player = player;
+        this.masks = new IdentityHashMap<>();
+        this.version = -1;
+        this.ammo = 0;
+        this.powerUps = new ArrayList<>();
+        this.mainTargets = new ArrayList<>();
+        this.optionalTargets = new ArrayList<>();
+
+    }
+
+
+    /**
+     * Returns the subset of the specified squares the player could shoot from, using at least one of the specified weapons.
+     *
+     * @param squares       the mask of the squares, as defined by MapTopology.
+     * @param toUse         the weapons to be used for shooting.
+     * @return              the mask of the squares the player could shoot from.
+     * @throws NotAvailableAttributeException if thrown by Player.canShootFrom().
+     */
+    synchronized long getShootableMask(long squares, List<Weapon> toUse) throws NotAvailableAttributeException {
+
+        refresh();
+        long shootable = 0;
+        long pending = 0;
+        for (Weapon w : toUse) {
+            long[] m = masks.computeIfAbsent(w, k -> new long[2]);
+            shootable |= m[SHOOTABLE] & squares;
+            pending |= squares & ~m[EVALUATED];
+        }
+        pending &= ~shootable;
+        if (pending == 0) {
+            return shootable;
+        }
+
+        List<Square> toEvaluate = player.getBoard().getSquares(pending);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (Square s : toEvaluate) {
+            tasks.add(() -> evaluate(s, toUse));
+        }
+        List<long[]> results = new ArrayList<>();
+        if (tasks.size() == 1) {
+            results.add(evaluate(toEvaluate.get(0), toUse));
+        }
+        else {
+            for (Future<long[]> f : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                results.add(get(f));
+            }
+        }
+
+        for (int i = 0; i < toEvaluate.size(); i++) {
+            long bit = MapTopology.bitOf(toEvaluate.get(i).getId());
+            long[] result = results.get(i);
+            for (int k = 0; k < toUse.size(); k++) {
+                long[] m = masks.get(toUse.get(k));
+                if ((result[EVALUATED] & 1L << k) != 0) m[EVALUATED] |= bit;
+                if ((result[SHOOTABLE] & 1L << k) != 0) {
+                    m[SHOOTABLE] |= bit;
+                    shootable |= bit;
+                }
+            }
+        }
+        return shootable;
+
+    }
+
+
+    /**
+     * Evaluates the weapons on a square, stopping at the first weapon the player could shoot with.
+     * The weapons already evaluated on the square are skipped.
+     *
+     * @param square        the hypothetical position of the player.
+     * @param toUse         the weapons to be used for shooting.
+     * @return              the weapons evaluated and the weapons the player could shoot with, as masks of their indexes.
+     * @throws NotAvailableAttributeException if thrown by Player.canShootFrom().
+     */
+    private long[] evaluate(Square square, List<Weapon> toUse) throws NotAvailableAttributeException {
+
+        long bit = MapTopology.bitOf(square.getId());
+        long[] result = new long[2];
+        for (int k = 0; k < toUse.size(); k++) {
+            if ((masks.get(toUse.get(k))[EVALUATED] & bit) == 0) {
+                result[EVALUATED] |= 1L << k;
+                if (player.canShootFrom(square, Collections.singletonList(toUse.get(k)))) {
+                    result[SHOOTABLE] |= 1L << k;
+                    return result;
+                }
+            }
+        }
+        return result;
+
+    }
+
+
+    /**
+     * Returns the result of a completed evaluation, propagating its exception.
+     *
+     * @param future        the evaluation.
+     * @return              the result of the evaluation.
+     * @throws NotAvailableAttributeException if thrown by the evaluation.
+     */
+    private static long[] get(Future<long[]> future) throws NotAvailableAttributeException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating the shooting squares", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NotAvailableAttributeException) {
+                throw (NotAvailableAttributeException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+    }
+
+
+    /**
+     * Discards the cached squares if the state they depend on has changed since they were evaluated.
+     */
+    private void refresh() {
+
+        long currentVersion = player.getBoard().getVersion();
+        int currentAmmo = player.getAmmoPack().getPacked();
+        if (currentVersion != version || currentAmmo != ammo || !player.getPowerUpList().equals(powerUps)
+                || !player.getMainTargets().equals(mainTargets) || !player.getOptionalTargets().equals(optionalTargets)) {
+            masks.clear();
+            this.version = currentVersion;
+            this.ammo = currentAmmo;
+            this.powerUps = new ArrayList<>(player.getPowerUpList());
+            this.mainTargets = new ArrayList<>(player.getMainTargets());
+            this.optionalTargets = new ArrayList<>(player.getOptionalTargets());
+        }
+
+    }
+
+}
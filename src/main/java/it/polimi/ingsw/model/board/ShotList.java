@@ -0,0 +1,286 @@
+package it.polimi.ingsw.model.board;
+
+import java.util.*;
+
+/**
+ * Represents an ordered list of players in which the same player can occur several times,
+ * such as the damages and the marks of a player or the killers on the kill shot track.
+ * The players are stored as ids in an array. For every id, the list keeps the number of occurrences
+ * and the index of the first occurrence, so that they can be read without scanning the list.
+ *
+ * @author  BassaniRiccardo
+ */
+
+final class ShotList extends AbstractList<Player> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 12;
+    private static final int INITIAL_PLAYERS = 6;
+    private static final int NOT_PRESENT = -1;
+
+    private int[] ids;
+    private int size;
+    private Player[] playersById;
+    private int[] counts;
+    private int[] firstIndexes;
+    private Runnable beforeChange;
+
+
+    /**
+     * Constructs an empty list.
+     */
+    ShotList() {
+
+        this.ids = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.playersById = new Player[INITIAL_PLAYERS];
+        this.counts = new int[INITIAL_PLAYERS];
+        this.firstIndexes = new int[INITIAL_PLAYERS];
+        Arrays.fill(firstIndexes, NOT_PRESENT);
+        this.beforeChange = () -> {};
+
+    }
+
+
+    /**
+     * Sets the action to run before every change of the list, such as saving its content in the journal.
+     *
+     * @param beforeChange      called before every change of the list.
+     */
+    void setBeforeChange(Runnable beforeChange) {
+        this.beforeChange = beforeChange;
+    }
+
+
+    @Override
+    public Player get(int index) {
+        Objects.checkIndex(index, size);
+        return playersById[ids[index]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(Player p) {
+
+        beforeChange.run();
+        int id = register(p);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        if (counts[id] == 0) {
+            firstIndexes[id] = size;
+        }
+        counts[id]++;
+        ids[size++] = id;
+        modCount++;
+        return true;
+
+    }
+
+    @Override
+    public void add(int index, Player p) {
+
+        if (index == size) {
+            add(p);
+            return;
+        }
+        Objects.checkIndex(index, size);
+        beforeChange.run();
+        int id = register(p);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+        recount();
+        modCount++;
+
+    }
+
+    @Override
+    public Player set(int index, Player p) {
+
+        Player old = get(index);
+        beforeChange.run();
+        ids[index] = register(p);
+        recount();
+        return old;
+
+    }
+
+    @Override
+    public Player remove(int index) {
+
+        Player removed = get(index);
+        beforeChange.run();
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        recount();
+        modCount++;
+        return removed;
+
+    }
+
+    @Override
+    public void clear() {
+
+        beforeChange.run();
+        size = 0;
+        Arrays.fill(counts, 0);
+        Arrays.fill(firstIndexes, NOT_PRESENT);
+        modCount++;
+
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Player && count((Player) o) > 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Player ? firstIndexOf((Player) o) : NOT_PRESENT;
+    }
+
+
+    /**
+     * Returns the number of occurrences of a player.
+     *
+     * @param p         the player.
+     * @return          the number of occurrences.
+     */
+    int count(Player p) {
+        int id = p.getId();
+        return isKnown(p) ? counts[id] : 0;
+    }
+
+
+    /**
+     * Returns the index of the first occurrence of a player.
+     *
+     * @param p         the player.
+     * @return          the index of the first occurrence, -1 if the player does not occur.
+     */
+    int firstIndexOf(Player p) {
+        return count(p) > 0 ? firstIndexes[p.getId()] : NOT_PRESENT;
+    }
+
+
+    /**
+     * Removes all the occurrences of a player.
+     *
+     * @param p         the player.
+     * @return          the number of removed occurrences.
+     */
+    int removeAllOf(Player p) {
+
+        int removed = count(p);
+        if (removed == 0) {
+            return 0;
+        }
+        beforeChange.run();
+        int id = p.getId();
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] != id) {
+                ids[k++] = ids[i];
+            }
+        }
+        size = k;
+        recount();
+        modCount++;
+        return removed;
+
+    }
+
+
+    /**
+     * Replaces the content of the list with the players of another list.
+     *
+     * @param players   the players, in order.
+     */
+    void setAll(List<Player> players) {
+
+        Player[] copy = players.toArray(new Player[0]);
+        clear();
+        for (Player p : copy) {
+            add(p);
+        }
+
+    }
+
+
+    /**
+     * Returns the ids of the players, in order.
+     *
+     * @return      the ids of the players.
+     */
+    List<Integer> getIds() {
+
+        List<Integer> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(ids[i]);
+        }
+        return out;
+
+    }
+
+
+    /**
+     * Records a player, so that its id can be converted back to it.
+     *
+     * @param p         the player.
+     * @return          the id of the player.
+     * @throws          IllegalArgumentException    if the player is null or its id is negative.
+     */
+    private int register(Player p) {
+
+        if (p == null) throw new IllegalArgumentException("Only players can be added.");
+        int id = p.getId();
+        if (id < 0) throw new IllegalArgumentException("The id of the player can not be negative.");
+        if (id >= playersById.length) {
+            int length = Math.max(id + 1, playersById.length * 2);
+            playersById = Arrays.copyOf(playersById, length);
+            counts = Arrays.copyOf(counts, length);
+            int oldLength = firstIndexes.length;
+            firstIndexes = Arrays.copyOf(firstIndexes, length);
+            Arrays.fill(firstIndexes, oldLength, length, NOT_PRESENT);
+        }
+        playersById[id] = p;
+        return id;
+
+    }
+
+
+    /**
+     * Checks whether the player is the one recorded for its id.
+     *
+     * @param p         the player.
+     * @return          true if the player is recorded.
+     */
+    private boolean isKnown(Player p) {
+        int id = p.getId();
+        return id >= 0 && id < playersById.length && p.equals(playersById[id]);
+    }
+
+
+    /**
+     * Computes again the number of occurrences and the first index of every id, after an update in the middle of the list.
+     */
+    private void recount() {
+
+        Arrays.fill(counts, 0);
+        Arrays.fill(firstIndexes, NOT_PRESENT);
+        for (int i = 0; i < size; i++) {
+            if (counts[ids[i]]++ == 0) {
+                firstIndexes[ids[i]] = i;
+            }
+        }
+
+    }
+
+}
@@ -25,7 +25,7 @@ import java.util.*;
 
 public class WeaponSquare extends Square {
 
-    private List<Weapon> weapons;
+    private final JournaledList<Weapon> weapons;
     private static final int MAX_WEAPONS_ON_SQUARE = 3;
 
 
@@ -46,7 +46,8 @@ public class WeaponSquare extends Square {
     public WeaponSquare(Board board, int id, int roomId, int row, int column, Color color, List<Weapon> weapons) {
 
         super(board, id, roomId, row, column, color);
-        this.weapons = weapons;
+        this.weapons = newWeaponList();
+        this.weapons.setAll(weapons);
 
     }
 
@@ -65,7 +66,7 @@ public class WeaponSquare extends Square {
     public WeaponSquare(Board board, int id, int roomId, int row, int column, Color color) {
 
         super(board, id, roomId, row, column, color);
-        this.weapons = new ArrayList<>();
+        this.weapons = newWeaponList();
 
     }
 
@@ -76,7 +77,17 @@ public class WeaponSquare extends Square {
      * @param weapons       the value to assign to weapons.
      */
     public void setWeapons(List<Weapon> weapons) {
-        this.weapons = weapons;
+        this.weapons.setAll(weapons);
+    }
+
+
+    /**
+     * Creates the list of the weapons in the square, which saves its content in the journal of the board before changing.
+     *
+     * @return      an empty list of weapons.
+     */
+    private JournaledList<Weapon> newWeaponList() {
+        return new JournaledList<>(() -> getBoard().getJournal().save(this, Journal.WEAPONS, () -> new ArrayList<>(getWeapons()), this::setWeapons));
     }
 
     /**
@@ -1,24 +1,20 @@
 package it.polimi.ingsw.model.cards;
 
-import static it.polimi.ingsw.model.cards.Color.*;
-
 /**
  * Represents a package of ammo of the three colors.
  * Contains as attributes the number of the 3 kinds of ammo.
  * Contains methods that addList and subtract the ammo of an AmmoPack to another.
  * Every player owns an AmmoPack that represents his reserve of ammo.
  * Every player can have at maximum 3 ammo of the same color.
+ * The ammo are stored packed into an int, and the methods delegate to PackedAmmo.
  *
  * @author  davidealde
  */
 
 public class AmmoPack {
 
-    private int redAmmo;
-    private int blueAmmo;
-    private int yellowAmmo;
+    private int packed;
     public static final int MAX_AMMO_AMOUNT = 3;
-    private static final int MIN_AMMO_AMOUNT = 0;
 
     /**
      * Constructor.
@@ -30,36 +26,49 @@ public class AmmoPack {
      * @throws      IllegalArgumentException if an illegal amount of ammo is given as parameter.
      */
     public AmmoPack(int r, int b, int y) {
+        this.packed = PackedAmmo.of(r, b, y);
+    }
 
-        if (r < MIN_AMMO_AMOUNT || r > MAX_AMMO_AMOUNT || b < MIN_AMMO_AMOUNT || b > MAX_AMMO_AMOUNT || y < MIN_AMMO_AMOUNT || y > MAX_AMMO_AMOUNT ){
-            throw new IllegalArgumentException("An ammo pack must contain between 0 and 3 ammo for each color.");
-        }
-        this.redAmmo = r;
-        this.blueAmmo = b;
-        this.yellowAmmo = y;
+
+    /**
+     * Creates an ammo pack from packed ammo.
+     *
+     * @param packed    the packed ammo.
+     * @return          the ammo pack.
+     */
+    public static AmmoPack fromPacked(int packed) {
+        return new AmmoPack(PackedAmmo.red(packed), PackedAmmo.blue(packed), PackedAmmo.yellow(packed));
     }
 
 
+    /**
+     * Getter for the packed ammo.
+     *
+     * @return the ammo of the ammo pack, packed into an int.
+     */
+    public int getPacked() { return packed; }
+
+
     /**
      * Getter for redAmmo
      *
      * @return the number of red ammo.
      */
-    public int getRedAmmo() { return redAmmo; }
+    public int getRedAmmo() { return PackedAmmo.red(packed); }
 
     /**
      * Getter for blueAmmo
      *
      * @return the number of blue ammo.
      */
-    public int getBlueAmmo() { return blueAmmo; }
+    public int getBlueAmmo() { return PackedAmmo.blue(packed); }
 
     /**
      * Getter for yellowAmmo
      *
      * @return the number of yellow ammo.
      */
-    public int getYellowAmmo() { return yellowAmmo; }
+    public int getYellowAmmo() { return PackedAmmo.yellow(packed); }
 
 
     /**
@@ -68,9 +77,7 @@ public class AmmoPack {
      * @param aP        the added ammo pack.
      */
     public void addAmmoPack(AmmoPack aP){
-        this.redAmmo = Math.min(MAX_AMMO_AMOUNT, this.redAmmo + aP.getRedAmmo() ) ;
-        this.blueAmmo = Math.min(MAX_AMMO_AMOUNT, this.blueAmmo + aP.getBlueAmmo() ) ;
-        this.yellowAmmo = Math.min(MAX_AMMO_AMOUNT, this.yellowAmmo + aP.getYellowAmmo() ) ;
+        this.packed = PackedAmmo.add(packed, aP.packed);
     }
 
 
@@ -81,14 +88,7 @@ public class AmmoPack {
      * @throws          IllegalArgumentException if it is impossible to subtract the ammo.
      */
     public void subAmmoPack(AmmoPack aP) {
-
-        if (aP.getBlueAmmo()>blueAmmo || aP.getRedAmmo()>redAmmo || aP.getYellowAmmo()>yellowAmmo) {
-            throw new IllegalArgumentException("Not enough ammo to execute the subtraction");
-        }
-        this.redAmmo -= aP.redAmmo;
-        this.blueAmmo -= aP.blueAmmo;
-        this.yellowAmmo -= aP.yellowAmmo;
-
+        this.packed = PackedAmmo.sub(packed, aP.packed);
     }
 
 
@@ -99,10 +99,7 @@ public class AmmoPack {
      * @return              the needed ammo pack.
      */
     public AmmoPack getNeededAmmo(AmmoPack available){
-        int neededRed = Math.max(0, this.getRedAmmo() - available.getRedAmmo());
-        int neededBlue = Math.max(0, this.getBlueAmmo() - available.getBlueAmmo());
-        int neededYellow = Math.max(0, this.getYellowAmmo() - available.getYellowAmmo());
-        return new AmmoPack(neededRed, neededBlue, neededYellow);
+        return fromPacked(PackedAmmo.needed(packed, available.packed));
     }
 
 
@@ -113,7 +110,7 @@ public class AmmoPack {
      *          false otherwise
      */
     public boolean isEmpty(){
-        return (redAmmo==0 && blueAmmo == 0 && yellowAmmo == 0);
+        return packed == PackedAmmo.EMPTY;
     }
 
 
@@ -123,12 +120,7 @@ public class AmmoPack {
      * @param color     the color of the ammo to subtract.
      */
     public void subAmmo(Color color){
-        if (color.equals(RED))
-            this.subAmmoPack(new AmmoPack(1,0,0));
-        if (color.equals(BLUE))
-            this.subAmmoPack(new AmmoPack(0,1,0));
-        if (color.equals(YELLOW))
-            this.subAmmoPack(new AmmoPack(0,0,1));
+        this.packed = PackedAmmo.sub(packed, PackedAmmo.of(color));
     }
 
 
@@ -139,6 +131,6 @@ public class AmmoPack {
      */
     @Override
     public String toString() {
-        return "r" + redAmmo + " b" + blueAmmo + " y" + yellowAmmo;
+        return PackedAmmo.toString(packed);
     }
 }
\ No newline at end of file
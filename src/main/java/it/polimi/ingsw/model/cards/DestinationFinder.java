@@ -20,10 +20,26 @@ public interface DestinationFinder{
      * PowerUps and FireModes and selects Squares from the Board according to the effect of the card.
      * A DestinationFinder requires to know information about the current player and about his targets (the players he is shooting at).
      *
+     * The destinations are relative to a square passed as a parameter, which can be a hypothetical position of the player.
+     *
+     * @param  shooter      the Player who is taking action in this turn
+     * @param  from         the square the player acts from
+     * @param  targets      the ArrayList of players selected as targets by the current player
+     * @return              the set of possible destination Square objects
+     * @throws NotAvailableAttributeException if the board is malformed
+     */
+    List<Square> find(Player shooter, Square from, List<Player> targets) throws NotAvailableAttributeException;
+
+    /**
+     * Returns the Square objects which can be selected as a destination by the player, acting from his position.
+     * If the player is not on the board, a null square is passed, as in TargetFinder.find().
+     *
      * @param  shooter      the Player who is taking action in this turn
      * @param  targets      the ArrayList of players selected as targets by the current player
      * @return              the set of possible destination Square objects
      * @throws NotAvailableAttributeException if the board is malformed
      */
-    List<Square> find(Player shooter, List<Player> targets) throws NotAvailableAttributeException;
+    default List<Square> find(Player shooter, List<Player> targets) throws NotAvailableAttributeException {
+        return find(shooter, shooter.isOnBoard() ? shooter.getPosition() : null, targets);
+    }
 }
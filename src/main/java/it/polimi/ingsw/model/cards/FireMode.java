@@ -28,6 +28,7 @@ public class FireMode implements Targeted {
     private final Effect effect;
     private final TargetFinder targetFinder;
     private final DestinationFinder destinationFinder;
+    private final TargetCache targetCache;
     private static final Logger LOGGER = Logger.getLogger("serverLogger");
 
     /**
@@ -46,6 +47,7 @@ public class FireMode implements Targeted {
         this.cost = cost;
         this.destinationFinder = destinationFinder;
         this.targetFinder = targetFinder;
+        this.targetCache = new TargetCache();
         this.effect = effect;
 
     }
@@ -91,12 +93,13 @@ public class FireMode implements Targeted {
 
     /**
      * Finds Players that can be chosen as targets.
+     * The targets are computed again only if the state of the board or the targets already selected have changed.
      *
-     * @return      an ArrayList containing sets of targets to be chosen, each saved as an ArrayList.
+     * @return      an unmodifiable list containing sets of targets to be chosen, each saved as a list.
      * @throws NotAvailableAttributeException if the targeted implementation does not have an holder.
      */
     public List<List<Player>> findTargets() throws NotAvailableAttributeException{
-        List<List<Player>> targetsFound = targetFinder.find(weapon.getHolder());
+        List<List<Player>> targetsFound = targetCache.get(targetFinder, weapon.getHolder());
         String msg = name + " " + weapon + "Targets found: " + targetsFound;
         LOGGER.log(Level.INFO, msg);
         return targetsFound;
@@ -121,16 +124,25 @@ public class FireMode implements Targeted {
 
     /**
      * Establishes if this FireMode can be selected according to the current board state. A FireMode is available only
-     * if it can target someone.
+     * if it can target someone. The search stops at the first group of targets found, without listing the others.
      *
      * @return      true is this FireMode can be used, else false
      * @throws NotAvailableAttributeException if the targeted implementation does not have an holder
      */
     public boolean isAvailable() throws NotAvailableAttributeException {
-        for (List<Player> targets : findTargets()){
-            if (!targets.isEmpty()) return true;
-        }
-        return false;
+        return targetFinder.exists(weapon.getHolder());
+    }
+
+    /**
+     * Establishes if this FireMode could be selected if its holder was in the specified square.
+     * The holder is not moved: the square is passed to the target finder as the position of the shooter.
+     *
+     * @param from  the hypothetical position of the holder
+     * @return      true is this FireMode could be used from the square, else false
+     * @throws NotAvailableAttributeException if the targeted implementation does not have an holder
+     */
+    public boolean isAvailable(Square from) throws NotAvailableAttributeException {
+        return targetFinder.exists(weapon.getHolder(), from);
     }
 
     /**
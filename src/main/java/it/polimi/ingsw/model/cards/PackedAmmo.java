@@ -0,0 +1,178 @@
+package it.polimi.ingsw.model.cards;
+
+import static it.polimi.ingsw.model.cards.AmmoPack.MAX_AMMO_AMOUNT;
+
+/**
+ * Operations on amounts of ammo packed into a single int.
+ * Since a player can have at maximum 3 ammo of the same color, every color takes 2 bits:
+ * the red ammo are in the bits 0-1, the blue ammo in the bits 2-3 and the yellow ammo in the bits 4-5.
+ * The packed amounts are values: the operations return new ints and never allocate.
+ *
+ * @author  davidealde
+ */
+
+public final class PackedAmmo {
+
+    /**
+     * The packed representation of no ammo.
+     */
+    public static final int EMPTY = 0;
+
+    private static final int BITS = 2;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int RED_SHIFT = 0;
+    private static final int BLUE_SHIFT = BITS;
+    private static final int YELLOW_SHIFT = 2 * BITS;
+
+
+    /**
+     * Constructor made private since the class only has static methods.
+     */
+    private PackedAmmo() {
+    }
+
+
+    /**
+     * Packs amounts of ammo.
+     *
+     * @param r     amount of red ammo.
+     * @param b     amount of blue ammo.
+     * @param y     amount of yellow ammo.
+     * @return      the packed ammo.
+     * @throws      IllegalArgumentException if an illegal amount of ammo is given as parameter.
+     */
+    public static int of(int r, int b, int y) {
+
+        if (r < 0 || r > MAX_AMMO_AMOUNT || b < 0 || b > MAX_AMMO_AMOUNT || y < 0 || y > MAX_AMMO_AMOUNT) {
+            throw new IllegalArgumentException("An ammo pack must contain between 0 and 3 ammo for each color.");
+        }
+        return r << RED_SHIFT | b << BLUE_SHIFT | y << YELLOW_SHIFT;
+
+    }
+
+
+    /**
+     * Returns a single ammo of the specified color.
+     *
+     * @param color     the color of the ammo.
+     * @return          the packed ammo, empty if the color is not an ammo color.
+     */
+    public static int of(Color color) {
+
+        switch (color) {
+            case RED:
+                return 1 << RED_SHIFT;
+            case BLUE:
+                return 1 << BLUE_SHIFT;
+            case YELLOW:
+                return 1 << YELLOW_SHIFT;
+            default:
+                return EMPTY;
+        }
+
+    }
+
+
+    /**
+     * Returns the amount of red ammo.
+     *
+     * @param ammo      the packed ammo.
+     * @return          the amount of red ammo.
+     */
+    public static int red(int ammo) {
+        return ammo >>> RED_SHIFT & MASK;
+    }
+
+
+    /**
+     * Returns the amount of blue ammo.
+     *
+     * @param ammo      the packed ammo.
+     * @return          the amount of blue ammo.
+     */
+    public static int blue(int ammo) {
+        return ammo >>> BLUE_SHIFT & MASK;
+    }
+
+
+    /**
+     * Returns the amount of yellow ammo.
+     *
+     * @param ammo      the packed ammo.
+     * @return          the amount of yellow ammo.
+     */
+    public static int yellow(int ammo) {
+        return ammo >>> YELLOW_SHIFT & MASK;
+    }
+
+
+    /**
+     * Adds two amounts of ammo. The amount of every color is limited to 3.
+     *
+     * @param a         the first packed ammo.
+     * @param b         the second packed ammo.
+     * @return          the packed sum.
+     */
+    public static int add(int a, int b) {
+        return Math.min(MAX_AMMO_AMOUNT, red(a) + red(b)) << RED_SHIFT
+                | Math.min(MAX_AMMO_AMOUNT, blue(a) + blue(b)) << BLUE_SHIFT
+                | Math.min(MAX_AMMO_AMOUNT, yellow(a) + yellow(b)) << YELLOW_SHIFT;
+    }
+
+
+    /**
+     * Subtracts an amount of ammo from another.
+     *
+     * @param a         the packed ammo to subtract from.
+     * @param b         the packed ammo to subtract.
+     * @return          the packed difference.
+     * @throws          IllegalArgumentException if it is impossible to subtract the ammo.
+     */
+    public static int sub(int a, int b) {
+
+        if (!covers(a, b)) {
+            throw new IllegalArgumentException("Not enough ammo to execute the subtraction");
+        }
+        //no field borrows from the next one, since every field of a is at least the field of b
+        return a - b;
+
+    }
+
+
+    /**
+     * Returns whether an amount of ammo contains another, color by color.
+     *
+     * @param available     the packed available ammo.
+     * @param cost          the packed ammo to pay.
+     * @return              true if the available ammo are enough to pay the cost.
+     */
+    public static boolean covers(int available, int cost) {
+        return red(available) >= red(cost) && blue(available) >= blue(cost) && yellow(available) >= yellow(cost);
+    }
+
+
+    /**
+     * Returns the ammo missing to pay a cost when a specified amount of ammo is available.
+     *
+     * @param cost          the packed ammo to pay.
+     * @param available     the packed available ammo.
+     * @return              the packed needed ammo.
+     */
+    public static int needed(int cost, int available) {
+        return Math.max(0, red(cost) - red(available)) << RED_SHIFT
+                | Math.max(0, blue(cost) - blue(available)) << BLUE_SHIFT
+                | Math.max(0, yellow(cost) - yellow(available)) << YELLOW_SHIFT;
+    }
+
+
+    /**
+     * Returns a string representing packed ammo.
+     *
+     * @param ammo      the packed ammo.
+     * @return          the description of the ammo.
+     */
+    public static String toString(int ammo) {
+        return "r" + red(ammo) + " b" + blue(ammo) + " y" + yellow(ammo);
+    }
+
+}
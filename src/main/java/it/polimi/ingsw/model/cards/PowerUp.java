@@ -8,7 +8,6 @@ import it.polimi.ingsw.view.ClientModel;
 
 import java.util.List;
 
-import static it.polimi.ingsw.model.cards.Color.*;
 
 /**
  * Class modeling a power up card.
@@ -49,6 +48,7 @@ public class PowerUp implements Targeted, Card {
     private Color color;
     private Effect effect;
     private TargetFinder targetFinder;
+    private final TargetCache targetCache;
     private DestinationFinder destinationFinder;
     private Board board;
     private static final String RESET = "\u001b[0m";
@@ -72,6 +72,7 @@ public class PowerUp implements Targeted, Card {
         this.color = color;
         this.destinationFinder = destinationFinder;
         this.targetFinder = targetFinder;
+        this.targetCache = new TargetCache();
         this.effect = effect;
         this.board = board;
     }
@@ -128,12 +129,13 @@ public class PowerUp implements Targeted, Card {
 
     /**
      * Finds players that can be chosen as targets.
+     * The targets are computed again only if the state of the board has changed.
      *
-     * @return      an ArrayList containing sets of targets to be chosen, each saved as an ArrayList.
+     * @return      an unmodifiable list containing sets of targets to be chosen, each saved as a list.
      * @throws NotAvailableAttributeException if the powerup does not have an holder.
      */
     public List<List<Player>> findTargets() throws NotAvailableAttributeException{
-        return targetFinder.find(holder);
+        return targetCache.get(targetFinder, getHolder());
     }
 
 
@@ -160,12 +162,19 @@ public class PowerUp implements Targeted, Card {
 
         if (! holder.canPay(this.getCost()))
             return false;
-        for (List<Player> targets : this.findTargets()){
-            if (!(targets.isEmpty())){
-                return true;
-            }
-        }
-        return false;
+        return hasTargets();
+    }
+
+
+    /**
+     * Establishes if this power up can hit someone, regardless of its cost.
+     * The search stops at the first group of targets found, without listing the others.
+     *
+     * @return      true if and only if there is at least a group of targets.
+     * @throws NotAvailableAttributeException if the powerup does not have an holder.
+     */
+    public boolean hasTargets() throws NotAvailableAttributeException{
+        return targetFinder.exists(getHolder());
     }
 
 
@@ -186,14 +195,16 @@ public class PowerUp implements Targeted, Card {
      * @return the cost of the powerup.
      */
     public AmmoPack getCost(){
-        if (name == PowerUpName.TARGETING_SCOPE){
-            if (color == RED)
-                return new AmmoPack(1, 0, 0);
-            else if (color == BLUE)
-                return new AmmoPack(0, 1, 0);
-            else if (color == YELLOW)
-                return new AmmoPack(0, 0, 1);
-        }
-        return new AmmoPack(0,0,0);
+        return AmmoPack.fromPacked(getPackedCost());
+    }
+
+
+    /**
+     * Returns the cost of the powerup, in packed ammo.
+     *
+     * @return the cost of the powerup.
+     */
+    public int getPackedCost(){
+        return name == PowerUpName.TARGETING_SCOPE ? PackedAmmo.of(color) : PackedAmmo.EMPTY;
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package it.polimi.ingsw.model.cards;
+
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caches the targets found by a TargetFinder.
+ * The cached targets are reused as long as the holder, the version of the board and the targets already selected
+ * by the holder are the same as when they were computed.
+ *
+ * @author  marcobaga
+ */
+
+class TargetCache {
+
+    private List<List<Player>> targets;
+    private Player holder;
+    private long version;
+    private List<Player> mainTargets;
+    private List<Player> optionalTargets;
+
+
+    /**
+     * Constructs an empty cache.
+     */
+    TargetCache() {
+        this.targets = null;
+        this.holder = null;
+        this.version = 0;
+        this.mainTargets = new ArrayList<>();
+        this.optionalTargets = new ArrayList<>();
+    }
+
+
+    /**
+     * Returns the targets found by the specified finder for the specified holder, computing them only if the state
+     * they depend on has changed since the last call.
+     *
+     * @param finder        the target finder.
+     * @param holder        the player looking for targets.
+     * @return              the groups of targets, as an unmodifiable list.
+     * @throws NotAvailableAttributeException if thrown by the finder.
+     */
+    List<List<Player>> get(TargetFinder finder, Player holder) throws NotAvailableAttributeException {
+
+        long currentVersion = holder.getBoard().getVersion();
+        if (targets == null || holder != this.holder || currentVersion != version
+                || !holder.getMainTargets().equals(mainTargets) || !holder.getOptionalTargets().equals(optionalTargets)) {
+            targets = Collections.unmodifiableList(finder.find(holder));
+            this.holder = holder;
+            this.version = currentVersion;
+            this.mainTargets = new ArrayList<>(holder.getMainTargets());
+            this.optionalTargets = new ArrayList<>(holder.getOptionalTargets());
+        }
+        return targets;
+
+    }
+
+}
@@ -1,12 +1,16 @@
 package it.polimi.ingsw.model.cards;
 
 import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.board.Square;
 import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 
 import java.util.List;
 
 /**
  * Functional interface that finds groups of targets that the player can hit.
+ * The targets are looked for from a square passed as a parameter, which can be a hypothetical position of the shooter:
+ * the board still places the shooter on his actual square, hence the shooter must never be counted among the players
+ * found on the board.
  *
  * @author  marcobaga
  */
@@ -14,12 +18,59 @@ import java.util.List;
 public interface TargetFinder {
 
     /**
-     * Returns the groups of targets that the player can hit.
+     * Returns the groups of targets that the player could hit from the specified square.
      *
      * @param shooter       the shooting player.
+     * @param from          the square the player shoots from.
      * @return              the groups of targets that the player can hit.
      * @throws NotAvailableAttributeException if an attribute of one of the involved players has not been initialized when the methods is called.
      */
-    List<List<Player>> find(Player shooter) throws NotAvailableAttributeException;
+    List<List<Player>> find(Player shooter, Square from) throws NotAvailableAttributeException;
+
+    /**
+     * Returns the groups of targets that the player can hit from his position.
+     * If the player is not on the board, a null square is passed: only the finders which do not depend on the position
+     * of the shooter, like the ones of the power ups, can handle it.
+     *
+     * @param shooter       the shooting player.
+     * @return              the groups of targets that the player can hit.
+     * @throws NotAvailableAttributeException if an attribute of one of the involved players has not been initialized when the methods is called.
+     */
+    default List<List<Player>> find(Player shooter) throws NotAvailableAttributeException {
+        return find(shooter, shooter.isOnBoard() ? shooter.getPosition() : null);
+    }
+
+    /**
+     * Returns whether the player could hit at least a group of targets from the specified square.
+     * The default implementation looks for a non-empty group in the result of find(): implementations which can
+     * establish it directly override it, stopping at the first target found.
+     *
+     * @param shooter       the shooting player.
+     * @param from          the square the player shoots from.
+     * @return              true if there is at least a non-empty group of targets.
+     *                      false otherwise.
+     * @throws NotAvailableAttributeException if an attribute of one of the involved players has not been initialized when the methods is called.
+     */
+    default boolean exists(Player shooter, Square from) throws NotAvailableAttributeException {
+        for (List<Player> group : find(shooter, from)) {
+            if (!group.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the player can hit at least a group of targets from his position.
+     * If the player is not on the board, a null square is passed, as in find().
+     *
+     * @param shooter       the shooting player.
+     * @return              true if there is at least a non-empty group of targets.
+     *                      false otherwise.
+     * @throws NotAvailableAttributeException if an attribute of one of the involved players has not been initialized when the methods is called.
+     */
+    default boolean exists(Player shooter) throws NotAvailableAttributeException {
+        return exists(shooter, shooter.isOnBoard() ? shooter.getPosition() : null);
+    }
 
 }
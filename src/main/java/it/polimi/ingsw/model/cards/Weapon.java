@@ -1,6 +1,7 @@
 package it.polimi.ingsw.model.cards;
 import it.polimi.ingsw.model.Updater;
 import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.Journal;
 import it.polimi.ingsw.model.board.Player;
 import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 import it.polimi.ingsw.model.exceptions.WrongTimeException;
@@ -126,7 +127,9 @@ public class Weapon implements Card {
      * Setters
      */
 
-    public void setLoaded(boolean loaded) { this.loaded = loaded;
+    public void setLoaded(boolean loaded) {
+        board.getJournal().save(this, Journal.LOADED, this::isLoaded, this::setLoaded);
+        this.loaded = loaded;
         board.addToUpdateQueue(Updater.get(Updater.RELOAD_UPD, this, loaded));
     }
 
@@ -161,11 +164,18 @@ public class Weapon implements Card {
     /**
      * Checks if this weapon can fire (is loaded and has valid targets).
      *
+     * Stops at the first available firemode.
+     *
      * @return      true if shooting is possible, else false.
      */
     public boolean canFire(){
         try {
-            return !listAvailableFireModes().isEmpty();
+            for (FireMode f : fireModeList) {
+                if (holder.canPay(f.getCost()) && f.isAvailable()) {
+                    return true;
+                }
+            }
+            return false;
         }catch(NotAvailableAttributeException ex){
             LOGGER.log(Level.SEVERE, "NotAvailableAttribute thrown while checking if it is possible to shoot");
             return false;
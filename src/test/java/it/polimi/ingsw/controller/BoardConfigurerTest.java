@@ -135,6 +135,32 @@ public class BoardConfigurerTest {
     }
 
 
+    /**
+     * Tests that boards built from the same map template have their own squares and decks, equal to each other.
+     */
+    @Test
+    public void configureMapFromTemplate() {
+
+        Board b1 = BoardConfigurer.configureMap(1);
+        Board b2 = BoardConfigurer.configureMap(1);
+        assertEquals(b1.getMap().size(), b2.getMap().size());
+        for (int i = 0; i < b1.getMap().size(); i++) {
+            assertNotSame(b1.getMap().get(i), b2.getMap().get(i));
+            assertSame(b1, b1.getMap().get(i).getBoard());
+            assertEquals(b1.getMap().get(i).toString(), b2.getMap().get(i).toString());
+            assertEquals(b1.getMap().get(i).getRoomId(), b2.getMap().get(i).getRoomId());
+        }
+        assertEquals(b1.getSpawnPoints().toString(), b2.getSpawnPoints().toString());
+
+        BoardConfigurer.configureDecks(b1);
+        BoardConfigurer.configureDecks(b2);
+        assertEquals(b1.getPowerUpDeck().getDrawable().size(), b2.getPowerUpDeck().getDrawable().size());
+        assertEquals(b1.getAmmoDeck().getDrawable().size(), b2.getAmmoDeck().getDrawable().size());
+        assertNotSame(b1.getAmmoDeck().getDrawable().get(0), b2.getAmmoDeck().getDrawable().get(0));
+
+    }
+
+
     /**
      * Tests if all the ammo tiles are correctly set on the board.
      *
@@ -0,0 +1,126 @@
+package it.polimi.ingsw.controller;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the methods of the class GameDataValidator.
+ * The first test validates the files of the resources, so that invalid dates make the build fail.
+ *
+ * @author davidealde
+ */
+
+public class GameDataValidatorTest {
+
+
+    /**
+     * Reads a file of the resources.
+     *
+     * @param fileName      the name of the file.
+     * @return              the content of the file.
+     */
+    private JsonObject read(String fileName) {
+        return new JsonParser().parse(new InputStreamReader(getClass().getResourceAsStream("/" + fileName))).getAsJsonObject();
+    }
+
+
+    /**
+     * Tests that the files of the resources are valid.
+     */
+    @Test
+    public void validateResources() {
+
+        List<String> errors = GameDataValidator.validateResources();
+        assertTrue(errors.toString(), errors.isEmpty());
+
+    }
+
+
+    /**
+     * Tests that errors in boardConf.json are reported.
+     */
+    @Test
+    public void validateBoardConf() {
+
+        JsonObject boardConf = read("boardConf.json");
+        JsonObject board = boardConf.getAsJsonArray("boards").get(0).getAsJsonObject();
+        board.remove("wallT11");
+        board.addProperty("aS1Row", "4");
+        board.addProperty("wS1Color", "x");
+        boardConf.addProperty("ammoTilesTypesNumber", "13");
+
+        List<String> errors = GameDataValidator.validate(boardConf, read("miscellaneous.json"), read("weapons.json"));
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).contains("missing wallT11"));
+        assertTrue(errors.get(1).contains("wS1Color"));
+        assertTrue(errors.get(2).contains("aS1Row out of the map"));
+        assertTrue(errors.get(3).contains("ammoTilesTypesNumber"));
+
+    }
+
+
+    /**
+     * Tests that the spawn points must have the color of an ammo, while the ammo squares can have the color of any room.
+     */
+    @Test
+    public void validateSquareColors() {
+
+        JsonObject boardConf = read("boardConf.json");
+        JsonObject board = boardConf.getAsJsonArray("boards").get(0).getAsJsonObject();
+        board.addProperty("aS6Color", "v");
+        board.addProperty("aS4Color", "x");
+        board.addProperty("wS2Color", "g");
+
+        List<String> errors = GameDataValidator.validate(boardConf, read("miscellaneous.json"), read("weapons.json"));
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("wS2Color"));
+        assertTrue(errors.get(1).contains("aS4Color"));
+
+    }
+
+
+    /**
+     * Tests that errors in miscellaneous.json are reported.
+     */
+    @Test
+    public void validateMiscellaneous() {
+
+        JsonObject miscellaneous = read("miscellaneous.json");
+        miscellaneous.addProperty("maxWeapons", "three");
+        miscellaneous.getAsJsonArray("status").remove(4);
+
+        List<String> errors = GameDataValidator.validate(read("boardConf.json"), miscellaneous, read("weapons.json"));
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("maxWeapons"));
+        assertTrue(errors.get(1).contains("FRENZY_2"));
+
+    }
+
+
+    /**
+     * Tests that errors in weapons.json are reported.
+     */
+    @Test
+    public void validateWeapons() {
+
+        JsonObject weapons = read("weapons.json");
+        weapons.remove("Thor");
+        JsonObject main = weapons.getAsJsonObject("Lock Rifle").getAsJsonArray("modes").get(0).getAsJsonObject();
+        main.addProperty("target", "one(visible");
+        main.addProperty("effect", "explode");
+
+        List<String> errors = GameDataValidator.validate(read("boardConf.json"), read("miscellaneous.json"), weapons);
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).contains("Malformed targeting expression"));
+        assertTrue(errors.get(1).contains("explode"));
+        assertTrue(errors.get(2).contains("Thor: missing"));
+
+    }
+
+}
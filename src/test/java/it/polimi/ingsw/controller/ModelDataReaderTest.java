@@ -73,4 +73,20 @@ public class ModelDataReaderTest {
         ModelDataReader modelDataReader = new ModelDataReader();
         assertEquals(Color.YELLOW,modelDataReader.getColorBC("aS9Color","boards",4));
     }
+
+    /**
+     * Tests that the dates read again, also by another reader, are the same, and that missing dates are reported
+     * with the default values
+     */
+    @Test
+    public void cachedDates() {
+        ModelDataReader modelDataReader = new ModelDataReader();
+        assertEquals(modelDataReader.getInt("numberOfActions","status",0), new ModelDataReader().getInt("numberOfActions","status",0));
+        assertEquals(modelDataReader.getIntBC("wSNumber","boards",1), new ModelDataReader().getIntBC("wSNumber","boards",1));
+        assertEquals(-1,modelDataReader.getInt("missingKey"));
+        assertEquals(-1,modelDataReader.getInt("numberOfActions","status",-5));
+        assertEquals(-1,modelDataReader.getInt("numberOfActions","missingArray",0));
+        assertFalse(modelDataReader.getBoolean("collect2","missingArray",2));
+        assertEquals(Color.GREEN,modelDataReader.getColorBC("missingKey"));
+    }
 }
\ No newline at end of file
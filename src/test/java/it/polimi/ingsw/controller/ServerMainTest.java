@@ -133,6 +133,17 @@ public class ServerMainTest {
     }
 
 
+    /**
+     * Tests that the method validateGameData() accepts the files of the resources.
+     */
+    @Test
+    public void validateGameData() {
+
+        ServerMain.getInstance().validateGameData();
+
+    }
+
+
     /**
      * Tests the method canResume().
      *
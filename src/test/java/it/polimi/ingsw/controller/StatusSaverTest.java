@@ -413,6 +413,38 @@ public class StatusSaverTest {
     }
 
 
+    /**
+     * Tests that a checkpoint forgets the changes made before it, and that a checkpoint can be restored more than once.
+     *
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     */
+    @Test
+    public void restoreCheckpointAfterUpdate() throws UnacceptableItemNumberException, NoMoreCardsException {
+        Board b = BoardConfigurer.simulateScenario();
+        StatusSaver ss = new StatusSaver(b);
+        Player p1 = b.getPlayers().get(0);
+        Player p2 = b.getPlayers().get(1);
+        assertFalse(ss.hasCheckpoint());
+
+        ss.updateCheckpoint();
+        p1.sufferDamage(2, p2);
+        ss.updateCheckpoint();
+        p1.sufferDamage(3, p2);
+        p1.useAmmo(new AmmoPack(1, 0, 0));
+        assertEquals(Arrays.asList(p2, p2), ss.getPlayersDamages().get(b.getActivePlayers().indexOf(p1)));
+
+        ss.restoreCheckpoint();
+        assertEquals(Arrays.asList(p2, p2), p1.getDamages());
+        assertEquals(1, p1.getAmmoPack().getRedAmmo());
+
+        p1.sufferDamage(1, p2);
+        ss.restoreCheckpoint();
+        assertEquals(Arrays.asList(p2, p2), p1.getDamages());
+        assertTrue(ss.hasCheckpoint());
+    }
+
+
     /**
      * Tests the methods restorePowerups.
      *
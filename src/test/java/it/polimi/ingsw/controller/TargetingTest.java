@@ -0,0 +1,115 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.cards.TargetFinder;
+import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the parsing and the evaluation of the expressions of the class Targeting.
+ *
+ * @author marcobaga
+ */
+
+public class TargetingTest {
+
+
+    /**
+     * Tests that malformed expressions are rejected.
+     */
+    @Test
+    public void parseMalformed() {
+
+        String[] targets = {"1visible", "one(visible", "one(visible))", "many(visible)", "one(visible, beforeMain)", "one(reachable())", "one(unknown)", ""};
+        for (String target : targets) {
+            try {
+                Targeting.parseTarget(target);
+                fail(target);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().startsWith("Malformed targeting expression"));
+            }
+        }
+        try {
+            Targeting.parseDestination("square &");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Malformed targeting expression"));
+        }
+
+    }
+
+
+    /**
+     * Tests the targets found by some expressions in a game scenario.
+     *
+     * @throws NoMoreCardsException             if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException  if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException   if thrown by find().
+     */
+    @Test
+    public void parseTarget() throws NoMoreCardsException, UnacceptableItemNumberException, NotAvailableAttributeException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        Player shooter = b.getPlayers().get(0);
+        Player banshee = b.getPlayers().get(1);
+
+        TargetFinder visible = Targeting.parseTarget(" one ( visible ) ").bind(b);
+        assertEquals("[[Player 2 : anonymous(Banshee)], [Player 3 : anonymous(Dozer)]]", visible.find(shooter).toString());
+        assertTrue(visible.exists(shooter));
+
+        TargetFinder pairs = Targeting.parseTarget("upTo2(visible)").bind(b);
+        assertEquals("[[Player 2 : anonymous(Banshee)], [Player 3 : anonymous(Dozer)], [Player 2 : anonymous(Banshee), Player 3 : anonymous(Dozer)]]", pairs.find(shooter).toString());
+
+        TargetFinder others = Targeting.parseTarget("one(visible, afterMain)").bind(b);
+        assertTrue(others.find(shooter).isEmpty());
+        assertFalse(others.exists(shooter));
+        shooter.addMainTarget(banshee);
+        assertEquals("[[Player 3 : anonymous(Dozer)]]", others.find(shooter).toString());
+
+        TargetFinder notVisible = Targeting.parseTarget("one(!visible - square)").bind(b);
+        assertFalse(notVisible.find(shooter).toString().contains("Banshee"));
+
+        TargetFinder all = Targeting.parseTarget("all(none)").bind(b);
+        assertEquals(Collections.singletonList(new ArrayList<>()), all.find(shooter));
+        assertFalse(all.exists(shooter));
+
+    }
+
+
+    /**
+     * Tests the destinations found by some expressions in a game scenario.
+     *
+     * @throws NoMoreCardsException             if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException  if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException   if thrown by find().
+     */
+    @Test
+    public void parseDestination() throws NoMoreCardsException, UnacceptableItemNumberException, NotAvailableAttributeException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        Player shooter = b.getPlayers().get(0);
+        Player banshee = b.getPlayers().get(1);
+
+        assertTrue(Targeting.parseDestination("none").bind(b).find(shooter, new ArrayList<>()).isEmpty());
+        assertEquals(Collections.singletonList(shooter.getPosition()), Targeting.parseDestination("square").bind(b).find(shooter, new ArrayList<>()));
+        assertTrue(Targeting.parseDestination("ofTarget(square)").bind(b).find(shooter, new ArrayList<>()).isEmpty());
+        assertEquals(Collections.singletonList(banshee.getPosition()),
+                Targeting.parseDestination("ofTarget(square)").bind(b).find(shooter, Collections.singletonList(banshee)));
+        assertEquals(b.getReachable(banshee.getPosition(), 1),
+                Targeting.parseDestination("ofTarget(reachable(1))").bind(b).find(shooter, Collections.singletonList(banshee)));
+        //the operators are evaluated from left to right
+        assertEquals(Targeting.parseDestination("(visible & reachable(1)) - square").bind(b).find(shooter, new ArrayList<>()),
+                Targeting.parseDestination("visible & reachable(1) - square").bind(b).find(shooter, new ArrayList<>()));
+        assertFalse(Targeting.parseDestination("visible & reachable(1) - square").bind(b).find(shooter, new ArrayList<>()).contains(shooter.getPosition()));
+
+    }
+
+}
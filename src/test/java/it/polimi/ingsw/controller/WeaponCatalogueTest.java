@@ -0,0 +1,83 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.model.cards.Color;
+import it.polimi.ingsw.model.cards.FireMode;
+import it.polimi.ingsw.model.cards.Weapon;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the methods of the class WeaponCatalogue.
+ *
+ * @author marcobaga
+ */
+
+public class WeaponCatalogueTest {
+
+
+    /**
+     * Tests that the catalogue is shared and describes every weapon of the game.
+     */
+    @Test
+    public void getInstance() {
+
+        WeaponCatalogue catalogue = WeaponCatalogue.getInstance();
+        assertSame(catalogue, WeaponCatalogue.getInstance());
+        for (Weapon.WeaponName weaponName : Weapon.WeaponName.values()) {
+            assertFalse(catalogue.get(weaponName).getFireModes().isEmpty());
+        }
+
+    }
+
+
+    /**
+     * Tests that the definition of a weapon matches the file weapons.json.
+     */
+    @Test
+    public void get() {
+
+        WeaponCatalogue.WeaponDefinition lockRifle = WeaponCatalogue.getInstance().get(Weapon.WeaponName.LOCK_RIFLE);
+        assertEquals(Color.BLUE, lockRifle.getColor());
+        assertEquals(2, lockRifle.getFullCost().getBlueAmmo());
+        assertEquals(1, lockRifle.getReducedCost().getBlueAmmo());
+        assertEquals(2, lockRifle.getFireModes().size());
+
+        WeaponCatalogue.FireModeDefinition main = lockRifle.getFireModes().get(0);
+        assertEquals(FireMode.FireModeName.MAIN, main.getName());
+        assertEquals(0, main.getCost().getRedAmmo());
+        assertEquals("one(visible)", main.getTarget());
+        assertNotNull(main.getTargetSpec());
+        assertNotNull(main.getDestinationSpec());
+        assertEquals("none", main.getDestination());
+        assertEquals("standard", main.getEffect());
+        assertEquals(2, main.getDmg());
+        assertEquals(1, main.getMark());
+
+        WeaponCatalogue.FireModeDefinition option = lockRifle.getFireModes().get(1);
+        assertEquals(FireMode.FireModeName.OPTION1, option.getName());
+        assertEquals(1, option.getCost().getRedAmmo());
+
+    }
+
+
+    /**
+     * Tests that the definitions cannot be modified through the objects they return.
+     */
+    @Test
+    public void definitionsImmutable() {
+
+        WeaponCatalogue.WeaponDefinition lockRifle = WeaponCatalogue.getInstance().get(Weapon.WeaponName.LOCK_RIFLE);
+        assertNotSame(lockRifle.getFullCost(), lockRifle.getFullCost());
+        lockRifle.getFullCost().subAmmoPack(lockRifle.getFullCost());
+        assertEquals(2, lockRifle.getFullCost().getBlueAmmo());
+        try {
+            lockRifle.getFireModes().clear();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, lockRifle.getFireModes().size());
+        }
+
+    }
+
+}
@@ -2,12 +2,14 @@ package it.polimi.ingsw.controller;
 
 import it.polimi.ingsw.model.board.Board;
 import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.board.Square;
 import it.polimi.ingsw.model.cards.*;
 import it.polimi.ingsw.model.exceptions.*;
 import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import static org.junit.Assert.*;
 
 /**
@@ -127,6 +129,43 @@ public class WeaponFactoryTest {
     }
 
 
+    /**
+     * Tests that, for every firemode of every weapon, from every square of the map and with or without main and
+     * optional targets, exists() returns true if and only if find() lists a non-empty group of targets.
+     *
+     * @throws UnacceptableItemNumberException  if thrown by simulateScenario().
+     * @throws NoMoreCardsException             if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException   if thrown by find() or exists().
+     */
+    @Test
+    public void existsMatchesTargetLists() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        Player shooter = b.getPlayers().get(0);
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        for (Weapon.WeaponName weaponName : Weapon.WeaponName.values()) {
+            for (FireMode f : weaponFactory.createWeapon(weaponName).getFireModeList()) {
+                for (int previousTargets = 0; previousTargets < 3; previousTargets++) {
+                    shooter.getMainTargets().clear();
+                    shooter.getOptionalTargets().clear();
+                    if (previousTargets > 0) shooter.addMainTarget(b.getPlayers().get(1));
+                    if (previousTargets > 1) shooter.addOptionalTarget(b.getPlayers().get(2));
+                    for (Square s : b.getMap()) {
+                        shooter.setPosition(s);
+                        boolean expected = false;
+                        for (List<Player> group : f.getTargetFinder().find(shooter)) {
+                            expected = expected || !group.isEmpty();
+                        }
+                        assertEquals(weaponName + " " + f.getName() + " with " + previousTargets + " previous targets from square " + s.getId(),
+                                expected, f.getTargetFinder().exists(shooter));
+                    }
+                }
+            }
+        }
+
+    }
+
+
     /**
      * Tests the lock rifle in a game scenario, checking that targets and destinations are correct.
      *
@@ -423,6 +462,41 @@ public class WeaponFactoryTest {
     }
 
 
+    /**
+     * Pins the order of the main targets of the tractor beam and of the vortex cannon, which follows the order of the squares
+     * in the map. The predefined finders used to list the players in order of first appearance, scanning the squares near
+     * every visible square: here they would have listed Dozer before Banshee.
+     *
+     * @throws UnacceptableItemNumberException  if thrown by simulateScenario().
+     * @throws NoMoreCardsException             if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException   if thrown by findTargets().
+     */
+    @Test
+    public void nearTargetsOrder() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException{
+
+        Board b = BoardConfigurer.simulateScenario();
+        Player shooter = b.getPlayers().get(0);
+        Player banshee = b.getPlayers().get(1);
+        Player dozer = b.getPlayers().get(2);
+        for (Player p : b.getPlayers()) {
+            p.setPosition(b.getMap().get(0));
+        }
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Weapon tractorBeam = weaponFactory.createWeapon(Weapon.WeaponName.TRACTOR_BEAM);
+        Weapon vortexCannon = weaponFactory.createWeapon(Weapon.WeaponName.VORTEX_CANNON);
+        shooter.addWeapon(tractorBeam);
+        shooter.addWeapon(vortexCannon);
+
+        banshee.setPosition(b.getMap().get(3));
+        dozer.setPosition(b.getMap().get(4));
+        assertEquals("[[Player 4 : anonymous(Violet)], [Player 5 : anonymous(Sprog)], [Player 2 : anonymous(Banshee)], [Player 3 : anonymous(Dozer)]]", tractorBeam.getFireModeList().get(0).findTargets().toString());
+
+        banshee.setPosition(b.getMap().get(2));
+        assertEquals("[[Player 4 : anonymous(Violet)], [Player 5 : anonymous(Sprog)], [Player 2 : anonymous(Banshee)], [Player 3 : anonymous(Dozer)]]", vortexCannon.getFireModeList().get(0).findTargets().toString());
+
+    }
+
+
     /**
      * Tests the furnace in a game scenario, checking that targets and destinations are correct.
      *
@@ -0,0 +1,119 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.controller.BoardConfigurer;
+import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.BoardSnapshot;
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.cards.AmmoPack;
+import it.polimi.ingsw.model.cards.PackedAmmo;
+import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests all methods of the class BoardSnapshot.
+ *
+ * @author BassaniRiccardo
+ */
+
+public class BoardSnapshotTest {
+
+    private Board b;
+    private Player p1;
+    private Player p2;
+
+
+    /**
+     * Initializes a board with five players.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     */
+    @Before
+    public void setup() throws NoMoreCardsException, UnacceptableItemNumberException {
+
+        b = BoardConfigurer.simulateScenario();
+        p1 = b.getPlayers().get(0);
+        p2 = b.getPlayers().get(1);
+
+    }
+
+
+    /**
+     * Tests that a snapshot reflects the state of the board and does not change when the game goes on.
+     *
+     * @throws NotAvailableAttributeException       if thrown by getPosition().
+     */
+    @Test
+    public void snapshotDoesNotChange() throws NotAvailableAttributeException {
+
+        BoardSnapshot snapshot = b.snapshot();
+        BoardSnapshot.PlayerState state = snapshot.getPlayer(p1.getId());
+        assertEquals(p1.getPosition().getId(), state.getPositionId());
+        assertEquals(p1.getAmmoPack().getPacked(), state.getAmmo());
+        assertEquals(p1.getPowerUpList(), state.getPowerUps());
+        assertEquals(snapshot, b.snapshot());
+
+        p1.sufferDamage(2, p2);
+        p1.useAmmo(new AmmoPack(1, 0, 0));
+        p1.setPosition(b.getMap().get(5));
+
+        assertTrue(snapshot.getPlayer(p1.getId()).getDamages().isEmpty());
+        assertEquals(state, snapshot.getPlayer(p1.getId()));
+        assertNotEquals(snapshot, b.snapshot());
+        assertEquals(Arrays.asList(p2.getId(), p2.getId()), b.snapshot().getPlayer(p1.getId()).getDamages());
+        assertEquals(5, b.snapshot().getPlayer(p1.getId()).getPositionId());
+
+    }
+
+
+    /**
+     * Tests the with methods, which share the unchanged players with the original snapshot and do not touch the board.
+     */
+    @Test
+    public void withPlayer() {
+
+        BoardSnapshot snapshot = b.snapshot();
+        BoardSnapshot.PlayerState moved = snapshot.getPlayer(p1.getId()).withPosition(5).withDamages(3, p2.getId()).withAmmo(PackedAmmo.EMPTY);
+        BoardSnapshot lookahead = snapshot.withPlayer(moved);
+
+        assertEquals(5, lookahead.getPlayer(p1.getId()).getPositionId());
+        assertEquals(3, lookahead.getPlayer(p1.getId()).getDamages().size());
+        assertEquals(PackedAmmo.EMPTY, lookahead.getPlayer(p1.getId()).getAmmo());
+        assertSame(snapshot.getPlayer(p2.getId()), lookahead.getPlayer(p2.getId()));
+        assertEquals(snapshot, b.snapshot());
+        assertTrue(p1.getDamages().isEmpty());
+
+        assertEquals(12, moved.withDamages(15, p2.getId()).getDamages().size());
+
+    }
+
+
+    /**
+     * Tests getDistance(), getReachableMask() and getVisiblePlayers() on the positions of a snapshot.
+     */
+    @Test
+    public void positions() {
+
+        BoardSnapshot snapshot = b.snapshot();
+        BoardSnapshot.PlayerState s1 = snapshot.getPlayer(p1.getId());
+        BoardSnapshot lookahead = snapshot.withPlayer(s1.withPosition(s1.getPositionId()));
+
+        assertEquals(0, lookahead.getDistance(p1.getId(), p1.getId()));
+        assertNotEquals(0L, lookahead.getReachableMask(p1.getId(), 0));
+        assertFalse(lookahead.getVisiblePlayers(p1.getId()).contains(p1.getId()));
+        for (BoardSnapshot.PlayerState p : snapshot.getPlayers()) {
+            if (p.getId() != p1.getId() && p.getPositionId() == s1.getPositionId()) {
+                assertTrue(snapshot.getVisiblePlayers(p1.getId()).contains(p.getId()));
+            }
+        }
+
+    }
+
+}
@@ -9,11 +9,13 @@ import it.polimi.ingsw.model.cards.AmmoTile;
 import it.polimi.ingsw.model.cards.PowerUp;
 import it.polimi.ingsw.model.cards.Weapon;
 import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
 import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static it.polimi.ingsw.model.cards.Color.*;
@@ -107,6 +109,50 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the adjacency graph of the map topology, checking that it agrees with getAdjacent().
+     *
+     * @throws NotAvailableAttributeException      if thrown by getTopology().
+     */
+    @Test
+    public void getTopologyAdjacency() throws NotAvailableAttributeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        MapTopology topology = board1.getTopology();
+
+        //map.get(4) == map[2][2]: down, right, left
+        assertEquals(3, topology.getAdjacentCount(4));
+        assertEquals(7, topology.getAdjacent(4, 0));
+        assertEquals(5, topology.getAdjacent(4, 1));
+        assertEquals(3, topology.getAdjacent(4, 2));
+
+        for (int b = 1; b <= 4; b++) {
+            Board board = BoardConfigurer.configureMap(b);
+            for (Square s : board.getMap()) {
+                List<Square> adjacent = new ArrayList<>();
+                for (int k = 0; k < board.getTopology().getAdjacentCount(s.getId()); k++) {
+                    adjacent.add(board.getMap().get(board.getTopology().getAdjacent(s.getId(), k)));
+                }
+                assertTrue(adjacent.containsAll(board.getAdjacent(s)) && board.getAdjacent(s).containsAll(adjacent));
+            }
+        }
+    }
+
+
+    /**
+     * Tests the method setTopology(), when a bad parameter is entered: the topology of a map missing some squares.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setTopologyBadArgument() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Board board4 = BoardConfigurer.configureMap(4);
+
+        //map 1 has 10 squares, map 4 has 12 squares
+        board4.setTopology(new MapTopology(board1.getMap(), board1.getTopWalls(), board1.getLeftWalls()));
+    }
+
+
     /**
      * Tests the method getReachable().
      */
@@ -131,6 +177,35 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the method getReachableMask(), for every square and every number of steps up to the diameter of the map.
+     *
+     * @throws NotAvailableAttributeException      if thrown by getTopology().
+     */
+    @Test
+    public void getReachableMask() throws NotAvailableAttributeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+
+        //map.get(0) == map[1][1] and map.get(9) == map[3][4] are at the maximum distance
+        assertEquals(5, board1.getTopology().getDiameter());
+        assertEquals(0, board1.getReachableMask(board1.getMap().get(0), -1));
+        assertEquals(MapTopology.bitOf(0), board1.getReachableMask(board1.getMap().get(0), 0));
+
+        for (int b = 1; b <= 4; b++) {
+            Board board = BoardConfigurer.configureMap(b);
+            for (Square s : board.getMap()) {
+                for (int steps = 0; steps <= board.getTopology().getDiameter() + 1; steps++) {
+                    for (Square s1 : board.getMap()) {
+                        boolean reachable = (board.getReachableMask(s, steps) & MapTopology.bitOf(s1.getId())) != 0;
+                        assertEquals(board.getDistance(s, s1) <= steps, reachable);
+                    }
+                }
+            }
+        }
+    }
+
+
     /**
      * Tests the method getVisible().
      */
@@ -160,6 +235,30 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the methods getVisibleMask() and isVisible(), checking that they agree with getVisible().
+     */
+    @Test
+    public void getVisibleMask() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+
+        //map.get(5) == map[2][3]: map[3][2] is not visible, map[2][4] is visible
+        assertFalse(board1.isVisible(board1.getMap().get(5), board1.getMap().get(7)));
+        assertTrue(board1.isVisible(board1.getMap().get(5), board1.getMap().get(6)));
+
+        for (int b = 1; b <= 4; b++) {
+            Board board = BoardConfigurer.configureMap(b);
+            for (Square s : board.getMap()) {
+                assertEquals(board.getVisible(s), board.getSquares(board.getVisibleMask(s)));
+                for (Square s1 : board.getMap()) {
+                    assertEquals(board.getVisible(s).contains(s1), board.isVisible(s, s1));
+                }
+            }
+        }
+    }
+
+
     /**
      * Tests the method getInRoom().
      */
@@ -182,6 +281,76 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the method getPlayersInRoom(), checking that the occupancy is updated when the players move
+     * and that the players follow the order of the squares in the map.
+     */
+    @Test
+    public void getPlayersInRoom() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Player p1 = new Player(1, Player.HeroName.BANSHEE, board1);
+        Player p2 = new Player(2, Player.HeroName.D_STRUCT_OR, board1);
+        Player p3 = new Player(3, Player.HeroName.SPROG, board1);
+
+        assertTrue(board1.getPlayersInRoom(2).isEmpty());
+
+        //red room: map.get(3), map.get(4), map.get(5)
+        p1.setPosition(board1.getMap().get(5));      //map[2][3]
+        p2.setPosition(board1.getMap().get(3));      //map[2][1]
+        p3.setPosition(board1.getMap().get(0));      //map[1][1], blue room
+        assertEquals(Arrays.asList(p2, p1), board1.getPlayersInRoom(2));
+        assertEquals(Collections.singletonList(p3), board1.getPlayersInRoom(1));
+
+        //p3 enters the red room, p2 leaves it
+        p3.setPosition(board1.getMap().get(4));      //map[2][2]
+        p2.setPosition(board1.getMap().get(0));      //map[1][1]
+        assertEquals(Arrays.asList(p3, p1), board1.getPlayersInRoom(2));
+        assertEquals(Collections.singletonList(p2), board1.getPlayersInRoom(1));
+
+    }
+
+
+    /**
+     * Tests the occupancy masks, checking that they are updated when the players move.
+     */
+    @Test
+    public void getOccupancyMask() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Player p1 = new Player(1, Player.HeroName.BANSHEE, board1);
+        Player p2 = new Player(2, Player.HeroName.D_STRUCT_OR, board1);
+
+        assertEquals(0L, board1.getOccupiedMask());
+        assertEquals(-1, board1.getSquareId(p1));
+
+        p1.setPosition(board1.getMap().get(5));      //map[2][3]
+        p2.setPosition(board1.getMap().get(5));
+        assertEquals(MapTopology.bitOf(5), board1.getOccupiedMask());
+        assertEquals(Board.bitOf(p1) | Board.bitOf(p2), board1.getOccupancyMask(MapTopology.bitOf(5)));
+        assertEquals(5, board1.getSquareId(p2));
+
+        p2.setPosition(board1.getMap().get(0));      //map[1][1]
+        assertEquals(MapTopology.bitOf(0) | MapTopology.bitOf(5), board1.getOccupiedMask());
+        assertEquals(Board.bitOf(p1), board1.getOccupancyMask(MapTopology.bitOf(5)));
+        assertEquals(Board.bitOf(p2), board1.getOccupancyMask(board1.getVisibleMask(board1.getMap().get(1))));
+        assertEquals(0, board1.getSquareId(p2));
+
+    }
+
+
+    /**
+     * Tests the method getPlayersInRoom(), in the event the map does not contain the room.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getPlayersInRoomBadArgument() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        board1.getPlayersInRoom(6);
+
+    }
+
+
     /**
      * Tests the method getSquaresInLine(), in the event an empty list should be returned.
      * The square map{2}[2] has a wall in the top direction.
@@ -234,6 +403,35 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the rays of the topology, checking that the squares are ordered by increasing distance.
+     */
+    @Test
+    public void getTopologyRays() throws NotAvailableAttributeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        MapTopology topology = board1.getTopology();
+
+        //map.get(4): map[2][2], moving right
+        assertEquals(2, topology.getRayLength(4, Board.Direction.RIGHT, false));
+        assertEquals(5, topology.getRaySquare(4, Board.Direction.RIGHT, false, 0));      //map[2][3]
+        assertEquals(1, topology.getRayDistance(4, Board.Direction.RIGHT, false, 0));
+        assertEquals(6, topology.getRaySquare(4, Board.Direction.RIGHT, false, 1));      //map[2][4]
+        assertEquals(2, topology.getRayDistance(4, Board.Direction.RIGHT, false, 1));
+
+        //map.get(5): map[2][3], moving left ignoring walls: the closest square comes first
+        assertEquals(2, topology.getRayLength(5, Board.Direction.LEFT, true));
+        assertEquals(4, topology.getRaySquare(5, Board.Direction.LEFT, true, 0));        //map[2][2]
+        assertEquals(3, topology.getRaySquare(5, Board.Direction.LEFT, true, 1));        //map[2][1]
+
+        //map.get(4): map[2][2] has a wall in the top direction
+        assertEquals(0, topology.getRayLength(4, Board.Direction.UP, false));
+        assertEquals(0L, board1.getLineMask(board1.getMap().get(4), Board.Direction.UP, false));
+        assertEquals(MapTopology.bitOf(5) | MapTopology.bitOf(6), board1.getLineMask(board1.getMap().get(4), Board.Direction.RIGHT, false));
+
+    }
+
+
     /**
      * Tests the method getSquaresInLineIgnoringWalls(), in the event an empty list should be returned.
      * The square map[1][1] is in the top-left corner, therefore there are no squares moving in the top direction.
@@ -377,6 +575,125 @@ public class BoardTest {
     }
 
 
+    /**
+     * Tests the method getDistance() of the map topology, checking that the distances are symmetric on every map
+     * and that they are consistent with the distances of the board.
+     *
+     * @throws NotAvailableAttributeException      if thrown by getTopology().
+     */
+    @Test
+    public void getTopologyDistance() throws NotAvailableAttributeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+
+        //map.get(1) == map[1][2], map.get(4) == map[2][2]: divided by a wall
+        assertEquals(3, board1.getTopology().getDistance(1, 4));
+        assertEquals(5, board1.getTopology().getDistance(0, 9));
+
+        for (int b = 1; b <= 4; b++) {
+            Board board = BoardConfigurer.configureMap(b);
+            for (Square s1 : board.getMap()) {
+                for (Square s2 : board.getMap()) {
+                    assertEquals(board.getTopology().getDistance(s2.getId(), s1.getId()), board.getTopology().getDistance(s1.getId(), s2.getId()));
+                    assertEquals(board.getTopology().getDistance(s1.getId(), s2.getId()), board.getDistance(s1, s2));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Tests the method getTopology(), when an exception should be thrown since the map has not been set yet.
+     *
+     * @throws NotAvailableAttributeException      always.
+     */
+    @Test(expected = NotAvailableAttributeException.class)
+    public void getTopologyNotSet() throws NotAvailableAttributeException {
+
+        new Board().getTopology();
+
+    }
+
+
+    /**
+     * Tests that the boards using the same map share the same topology, and that the walls are read from it.
+     *
+     * @throws NotAvailableAttributeException      if thrown by getTopology().
+     */
+    @Test
+    public void getTopologyShared() throws NotAvailableAttributeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Board otherBoard1 = BoardConfigurer.configureMap(1);
+        Board board2 = BoardConfigurer.configureMap(2);
+
+        assertSame(board1.getTopology(), otherBoard1.getTopology());
+        assertNotSame(board1.getTopology(), board2.getTopology());
+
+        //map.get(4): map[2][2] has a wall in the top direction
+        assertTrue(board1.getTopWalls()[1][1]);
+        board1.getTopWalls()[1][1] = false;
+        assertTrue(otherBoard1.getTopWalls()[1][1]);
+
+    }
+
+
+    /**
+     * Tests that setting the walls rebuilds the topology: the queries and the other boards using the same map
+     * are updated accordingly.
+     */
+    @Test
+    public void setTopWallsRebuildsTopology() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Board otherBoard1 = BoardConfigurer.configureMap(1);
+        long version = board1.getVersion();
+
+        //map.get(4): map[2][2] has a wall in the top direction, separating it from map.get(1)
+        assertFalse(board1.getAdjacent(board1.getMap().get(4)).contains(board1.getMap().get(1)));
+        boolean[][] walls = board1.getTopWalls();
+        walls[1][1] = false;
+        board1.setTopWalls(walls);
+
+        assertFalse(board1.getTopWalls()[1][1]);
+        assertTrue(board1.getAdjacent(board1.getMap().get(4)).contains(board1.getMap().get(1)));
+        assertEquals(1, board1.getDistance(board1.getMap().get(4), board1.getMap().get(1)));
+        assertNotEquals(version, board1.getVersion());
+        assertFalse(otherBoard1.getAdjacent(otherBoard1.getMap().get(4)).contains(otherBoard1.getMap().get(1)));
+
+    }
+
+
+    /**
+     * Tests that the topology queries throw an IllegalArgumentException when the map has not been configured yet.
+     */
+    @Test
+    public void topologyQueriesNotConfigured() {
+
+        Board board = new Board();
+        Square s = BoardConfigurer.configureMap(1).getMap().get(0);
+        List<Runnable> queries = Arrays.asList(
+                () -> board.getAdjacent(s),
+                () -> board.getVisible(s),
+                () -> board.getVisibleMask(s),
+                () -> board.isVisible(s, s),
+                () -> board.getReachable(s, 1),
+                () -> board.getReachableMask(1L, 1),
+                () -> board.getDistance(s, s),
+                () -> board.getSquaresInLine(s, Board.Direction.UP),
+                () -> board.setTopWalls(new boolean[3][4]));
+        for (Runnable query : queries) {
+            try {
+                query.run();
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("The map has not been configured yet.", e.getMessage());
+            }
+        }
+
+    }
+
+
     /**
      * Tests the method setLeftWalls(), when a bad parameter is entered.
      */
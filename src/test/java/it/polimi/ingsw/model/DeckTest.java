@@ -315,4 +315,97 @@ public class DeckTest {
         assertEquals(23, powerUpDeck.getDrawable().size());
 
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Tests that the cards are drawn in order while other cards are added, beyond the initial capacity of the deck.
+     *
+     * @throws NoMoreCardsException     if thrown by drawCard().
+     * @throws WrongTimeException       if thrown by regenerate().
+     */
+    @Test
+    public void drawAndAddInterleaved() throws NoMoreCardsException, WrongTimeException {
+
+        Deck ammoDeck = new Deck();
+        List<Card> added = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            AmmoTile ammoTile = new AmmoTile(false, new AmmoPack(i % 3, 0, 0));
+            added.add(ammoTile);
+            ammoDeck.addCard(ammoTile);
+            if (i % 2 == 1) {
+                assertSame(added.get(i / 2), ammoDeck.drawCard());
+            }
+        }
+        assertEquals(added.subList(20, 40), ammoDeck.getDrawable());
+
+        for (int i = 0; i < 20; i++) {
+            ammoDeck.addDiscardedCard(ammoDeck.drawCard());
+        }
+        assertTrue(ammoDeck.getDrawable().isEmpty());
+        ammoDeck.regenerate();
+        assertEquals(20, ammoDeck.getDrawable().size());
+        assertTrue(ammoDeck.getDrawable().containsAll(added.subList(20, 40)));
+        assertTrue(ammoDeck.getDiscarded().isEmpty());
+
+    }
+
+
+    /**
+     * Tests that two games with the same seed have the same decks.
+     *
+     * @throws NoMoreCardsException     if thrown by drawCard().
+     * @throws WrongTimeException       if thrown by regenerate().
+     */
+    @Test
+    public void sameSeedSameDecks() throws NoMoreCardsException, WrongTimeException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Board board2 = BoardConfigurer.configureMap(1);
+        board1.setSeed(42);
+        board2.setSeed(42);
+        BoardConfigurer.configureDecks(board1);
+        BoardConfigurer.configureDecks(board2);
+
+        assertEquals(42, board1.getSeed());
+        assertEquals(board1.getWeaponDeck().getDrawable().toString(), board2.getWeaponDeck().getDrawable().toString());
+        assertEquals(board1.getPowerUpDeck().getDrawable().toString(), board2.getPowerUpDeck().getDrawable().toString());
+
+        //the regenerated decks are the same too
+        for (Board b : new Board[]{board1, board2}) {
+            Deck powerUpDeck = b.getPowerUpDeck();
+            while (!powerUpDeck.getDrawable().isEmpty()) {
+                powerUpDeck.addDiscardedCard(powerUpDeck.drawCard());
+            }
+            powerUpDeck.regenerate();
+        }
+        assertEquals(board1.getPowerUpDeck().getDrawable().toString(), board2.getPowerUpDeck().getDrawable().toString());
+
+    }
+
+
+
+    /**
+     * Tests that the seed of a board replays its decks on a new board, setting only the seed.
+     *
+     * @throws NoMoreCardsException     if thrown by drawCard().
+     */
+    @Test
+    public void replaySeed() throws NoMoreCardsException {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        long seed = board1.getSeed();
+        BoardConfigurer.configureDecks(board1);
+        //cards drawn after the configuration do not change the seed
+        board1.getWeaponDeck().drawCard();
+
+        Board board2 = new Board();
+        board2.setSeed(seed);
+        BoardConfigurer.configureDecks(board2);
+        board2.getWeaponDeck().drawCard();
+
+        assertEquals(board1.getWeaponDeck().getDrawable().toString(), board2.getWeaponDeck().getDrawable().toString());
+        assertEquals(board1.getPowerUpDeck().getDrawable().toString(), board2.getPowerUpDeck().getDrawable().toString());
+
+    }
+
+}
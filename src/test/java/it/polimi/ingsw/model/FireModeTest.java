@@ -5,6 +5,7 @@ import it.polimi.ingsw.controller.WeaponFactory;
 import it.polimi.ingsw.model.board.Board;
 import it.polimi.ingsw.model.board.Player;
 import it.polimi.ingsw.model.cards.FireMode;
+import it.polimi.ingsw.model.cards.TargetFinder;
 import it.polimi.ingsw.model.cards.Weapon;
 import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
 import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
@@ -12,6 +13,7 @@ import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -66,6 +68,79 @@ public class FireModeTest {
     }
 
 
+    /**
+     * Checks that the targets are reused while the state of the board does not change, and computed again
+     * after a player moves or the selected targets change.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario() or addWeapon().
+     * @throws NotAvailableAttributeException       if thrown by Firemode.findTargets().
+     */
+    @Test
+    public void findTargetsCached() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player p = b.getPlayers().get(0);
+        p.addWeapon(weaponFactory.createWeapon(Weapon.WeaponName.LOCK_RIFLE));
+        FireMode main = p.getWeaponList().get(0).getFireModeList().get(0);
+        FireMode option = p.getWeaponList().get(0).getFireModeList().get(1);
+
+        List<List<Player>> targets = main.findTargets();
+        assertSame(targets, main.findTargets());
+        assertEquals("[[Player 2 : anonymous(Banshee)], [Player 3 : anonymous(Dozer)]]", targets.toString());
+
+        assertTrue(option.findTargets().isEmpty());
+        p.addMainTarget(b.getPlayers().get(1));
+        assertEquals("[[Player 3 : anonymous(Dozer)]]", option.findTargets().toString());
+        p.getMainTargets().clear();
+        assertTrue(option.findTargets().isEmpty());
+
+        b.getPlayers().get(1).setPosition(b.getPlayers().get(4).getPosition());
+        assertNotSame(targets, main.findTargets());
+        assertEquals("[[Player 3 : anonymous(Dozer)]]", main.findTargets().toString());
+
+    }
+
+
+    /**
+     * Checks that the finder is called only once for two lookups at the same version of the board,
+     * and that the copy made before removing the empty groups does not change the cached targets.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario() or addWeapon().
+     * @throws NotAvailableAttributeException       if thrown by Firemode.findTargets().
+     */
+    @Test
+    public void findTargetsCacheHit() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player p = b.getPlayers().get(0);
+        p.addWeapon(weaponFactory.createWeapon(Weapon.WeaponName.LOCK_RIFLE));
+        Weapon weapon = p.getWeaponList().get(0);
+        FireMode main = weapon.getFireModeList().get(0);
+
+        int[] calls = {0};
+        TargetFinder counting = (shooter, from) -> {
+            calls[0]++;
+            return main.getTargetFinder().find(shooter, from);
+        };
+        FireMode counted = new FireMode(FireMode.FireModeName.MAIN, main.getCost(), main.getDestinationFinder(), counting, (shooter, target, destination) -> {});
+        counted.setWeapon(weapon);
+
+        List<List<Player>> targetsList = new ArrayList<>(counted.findTargets());
+        targetsList.remove(0);
+        assertEquals(2, counted.findTargets().size());
+        assertEquals(1, calls[0]);
+
+        b.getPlayers().get(1).setPosition(b.getPlayers().get(4).getPosition());
+        counted.findTargets();
+        assertEquals(2, calls[0]);
+
+    }
+
+
     /**
      * Checks that the firemode applies its effect.
      *
@@ -0,0 +1,97 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.cards.AmmoPack;
+import it.polimi.ingsw.model.cards.PackedAmmo;
+import org.junit.Test;
+
+import static it.polimi.ingsw.model.cards.Color.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests all methods of the class PackedAmmo.
+ *
+ * @author davidealde
+ */
+
+public class PackedAmmoTest {
+
+
+    /**
+     * Tests of() and the getters of the single colors, for every amount of ammo.
+     */
+    @Test
+    public void of() {
+
+        for (int r = 0; r <= AmmoPack.MAX_AMMO_AMOUNT; r++) {
+            for (int b = 0; b <= AmmoPack.MAX_AMMO_AMOUNT; b++) {
+                for (int y = 0; y <= AmmoPack.MAX_AMMO_AMOUNT; y++) {
+                    int ammo = PackedAmmo.of(r, b, y);
+                    assertEquals(r, PackedAmmo.red(ammo));
+                    assertEquals(b, PackedAmmo.blue(ammo));
+                    assertEquals(y, PackedAmmo.yellow(ammo));
+                }
+            }
+        }
+        assertEquals(PackedAmmo.of(0, 1, 0), PackedAmmo.of(BLUE));
+        assertEquals(PackedAmmo.EMPTY, PackedAmmo.of(GREEN));
+
+    }
+
+
+    /**
+     * Tests that an exception is thrown when the amount of a color is out of bounds.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void ofOutOfBounds() {
+        PackedAmmo.of(0, 4, 0);
+    }
+
+
+    /**
+     * Tests add(), which limits the amount of every color to 3.
+     */
+    @Test
+    public void add() {
+
+        assertEquals(PackedAmmo.of(3, 2, 3), PackedAmmo.add(PackedAmmo.of(2, 1, 3), PackedAmmo.of(3, 1, 1)));
+        assertEquals(PackedAmmo.of(1, 2, 0), PackedAmmo.add(PackedAmmo.EMPTY, PackedAmmo.of(1, 2, 0)));
+
+    }
+
+
+    /**
+     * Tests sub(), covers() and needed().
+     */
+    @Test
+    public void subCoversNeeded() {
+
+        int available = PackedAmmo.of(2, 0, 3);
+        assertEquals(PackedAmmo.of(1, 0, 0), PackedAmmo.sub(available, PackedAmmo.of(1, 0, 3)));
+        assertTrue(PackedAmmo.covers(available, PackedAmmo.of(2, 0, 1)));
+        assertFalse(PackedAmmo.covers(available, PackedAmmo.of(0, 1, 0)));
+        assertEquals(PackedAmmo.of(1, 1, 0), PackedAmmo.needed(PackedAmmo.of(3, 1, 2), available));
+        assertEquals(PackedAmmo.EMPTY, PackedAmmo.needed(PackedAmmo.of(2, 0, 0), available));
+        try {
+            PackedAmmo.sub(available, PackedAmmo.of(0, 1, 0));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Not enough ammo to execute the subtraction", e.getMessage());
+        }
+
+    }
+
+
+    /**
+     * Tests that AmmoPack and PackedAmmo represent the same ammo.
+     */
+    @Test
+    public void ammoPackAdapter() {
+
+        AmmoPack ammoPack = new AmmoPack(1, 2, 3);
+        assertEquals(PackedAmmo.of(1, 2, 3), ammoPack.getPacked());
+        assertEquals(ammoPack.toString(), PackedAmmo.toString(ammoPack.getPacked()));
+        assertEquals("r1 b2 y3", AmmoPack.fromPacked(ammoPack.getPacked()).toString());
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.controller.BoardConfigurer;
+import it.polimi.ingsw.controller.PowerUpFactory;
+import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.PaymentSolver;
+import it.polimi.ingsw.model.cards.PackedAmmo;
+import it.polimi.ingsw.model.cards.PowerUp;
+import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
+import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static it.polimi.ingsw.model.cards.Color.*;
+import static it.polimi.ingsw.model.cards.PowerUp.PowerUpName.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests all methods of the class PaymentSolver.
+ *
+ * @author BassaniRiccardo
+ */
+
+public class PaymentSolverTest {
+
+    private PowerUp redNewton;
+    private PowerUp otherRedNewton;
+    private PowerUp redTeleporter;
+    private PowerUp blueScope;
+
+
+    /**
+     * Creates the powerups used by the tests.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     */
+    @Before
+    public void setup() throws NoMoreCardsException, UnacceptableItemNumberException {
+
+        Board b = BoardConfigurer.simulateScenario();
+        PowerUpFactory powerUpFactory = new PowerUpFactory(b);
+        redNewton = powerUpFactory.createPowerUp(NEWTON, RED);
+        otherRedNewton = powerUpFactory.createPowerUp(NEWTON, RED);
+        redTeleporter = powerUpFactory.createPowerUp(TELEPORTER, RED);
+        blueScope = powerUpFactory.createPowerUp(TARGETING_SCOPE, BLUE);
+
+    }
+
+
+    /**
+     * Tests feasible(), with and without the conversion of powerups.
+     */
+    @Test
+    public void feasible() {
+
+        List<PowerUp> hand = Arrays.asList(redNewton, blueScope);
+        assertTrue(PaymentSolver.feasible(PackedAmmo.of(1, 0, 0), PackedAmmo.of(1, 0, 0), new ArrayList<>()));
+        assertTrue(PaymentSolver.feasible(PackedAmmo.of(2, 1, 0), PackedAmmo.of(1, 0, 0), hand));
+        assertFalse(PaymentSolver.feasible(PackedAmmo.of(3, 0, 0), PackedAmmo.of(1, 0, 0), hand));
+        assertFalse(PaymentSolver.feasible(PackedAmmo.of(0, 0, 1), PackedAmmo.of(3, 3, 0), hand));
+
+    }
+
+
+    /**
+     * Tests plans() when the ammo are enough: the first plan converts nothing, the others convert the powerups of the colors in the cost.
+     */
+    @Test
+    public void optionalConversions() {
+
+        List<PowerUp> hand = Arrays.asList(redNewton, blueScope, redTeleporter);
+        List<PaymentSolver.Plan> plans = PaymentSolver.plans(PackedAmmo.of(1, 0, 0), PackedAmmo.of(1, 1, 1), hand);
+
+        assertEquals(3, plans.size());
+        assertTrue(plans.get(0).getConverted().isEmpty());
+        assertEquals(PackedAmmo.of(1, 0, 0), plans.get(0).getAmmo());
+        assertEquals(Collections.singletonList(redNewton), plans.get(1).getConverted());
+        assertEquals(Collections.singletonList(redTeleporter), plans.get(2).getConverted());
+        assertEquals(PackedAmmo.EMPTY, plans.get(2).getAmmo());
+
+    }
+
+
+    /**
+     * Tests plans() when a conversion is necessary, and that interchangeable powerups give a single plan.
+     */
+    @Test
+    public void mandatoryConversions() {
+
+        List<PowerUp> hand = Arrays.asList(redNewton, otherRedNewton, blueScope);
+        List<PaymentSolver.Plan> plans = PaymentSolver.plans(PackedAmmo.of(2, 1, 0), PackedAmmo.of(1, 1, 0), hand);
+
+        //a red newton must be converted; then both the red ammo and the blue ammo can be replaced
+        assertEquals(4, plans.size());
+        assertEquals(Collections.singletonList(redNewton), plans.get(0).getConverted());
+        assertEquals(PackedAmmo.of(1, 1, 0), plans.get(0).getAmmo());
+        assertEquals(Arrays.asList(redNewton, otherRedNewton), plans.get(1).getConverted());
+        assertEquals(Arrays.asList(redNewton, blueScope), plans.get(2).getConverted());
+        assertEquals(Arrays.asList(redNewton, otherRedNewton, blueScope), plans.get(3).getConverted());
+        assertEquals(PackedAmmo.EMPTY, plans.get(3).getAmmo());
+
+        assertTrue(PaymentSolver.plans(PackedAmmo.of(3, 1, 0), PackedAmmo.EMPTY, hand).isEmpty());
+
+    }
+
+}
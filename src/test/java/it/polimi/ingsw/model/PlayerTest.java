@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -1107,6 +1108,79 @@ public class PlayerTest {
     }
 
 
+    /**
+     * Tests that refreshActionList() gives the same actions to the players with the same status,
+     * and that the actions of a player cannot be modified through getActionList().
+     */
+    @Test
+    public void refreshActionListShared() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Player violet = new Player(1, Player.HeroName.VIOLET, board1);
+        Player dozer = new Player(2, Player.HeroName.DOZER, board1);
+
+        violet.setStatus(Player.Status.FRENZY_2);
+        violet.refreshActionList();
+        dozer.setStatus(Player.Status.FRENZY_2);
+        dozer.refreshActionList();
+        assertEquals(violet.getActionList(), dozer.getActionList());
+
+        violet.getActionList().clear();
+        assertEquals(2, violet.getActionList().size());
+
+        violet.setStatus(Player.Status.BASIC);
+        violet.refreshActionList();
+        assertEquals(3, violet.getActionList().size());
+        assertEquals(2, dozer.getActionList().size());
+    }
+
+
+    /**
+     * Tests that the damages and the marks stay consistent when they are added, consumed, edited and restored.
+     */
+    @Test
+    public void damagesAndMarksCounters() {
+
+        Board board1 = BoardConfigurer.configureMap(1);
+        Player violet = new Player(1, Player.HeroName.VIOLET, board1);
+        Player dozer = new Player(2, Player.HeroName.DOZER, board1);
+        Player banshee = new Player(3, Player.HeroName.BANSHEE, board1);
+        board1.setPlayers(Arrays.asList(violet, dozer, banshee));
+
+        violet.addMarks(2, dozer);
+        violet.addMarks(1, banshee);
+        violet.addMarks(5, banshee);
+        assertEquals(Arrays.asList(2, 2, 3, 3, 3), violet.getMarksIds());
+
+        //the marks of dozer are converted into damages
+        violet.sufferDamage(1, dozer);
+        violet.sufferDamage(2, banshee);
+        assertEquals(Arrays.asList(dozer, dozer, dozer, banshee, banshee, banshee, banshee, banshee), violet.getDamages());
+        assertTrue(violet.getMarks().isEmpty());
+        assertEquals(3, violet.getDamages().indexOf(banshee));
+        assertEquals(-1, violet.getDamages().indexOf(violet));
+
+        //edits through the list are reflected by the counters
+        violet.getDamages().remove(0);
+        violet.getDamages().add(0, banshee);
+        assertEquals(Arrays.asList(3, 2, 2, 3, 3, 3, 3, 3), violet.getDamagesIds());
+        assertEquals(0, violet.getDamages().indexOf(banshee));
+
+        //restoring a list, even the list itself, keeps the same players
+        List<Player> saved = new ArrayList<>(violet.getDamages());
+        violet.setDamages(violet.getDamages());
+        assertEquals(saved, violet.getDamages());
+        violet.getDamages().clear();
+        violet.setDamages(saved);
+        assertEquals(saved, violet.getDamages());
+
+        List<Player> sorted = new ArrayList<>(Arrays.asList(violet, dozer, banshee));
+        board1.sort(sorted, violet.getDamages());
+        assertEquals(Arrays.asList(banshee, dozer, violet), sorted);
+
+    }
+
+
     /**
      * Tests refreshActionList().
      */
@@ -1267,6 +1341,166 @@ public class PlayerTest {
 
     }
 
+    /**
+     * Tests that the method getShootingSquares() does not move the player nor change the state of the board.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException       if thrown by addWeapon, getPosition or getShootingSquares().
+     */
+    @Test
+    public void getShootingSquaresNoSideEffects() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException{
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player shooter = b.getPlayers().get(1);
+        Weapon lockRifle = weaponFactory.createWeapon(Weapon.WeaponName.LOCK_RIFLE);
+        lockRifle.setLoaded(true);
+        shooter.addWeapon(lockRifle);
+        b.getPlayers().get(0).setPosition(b.getPlayers().get(4).getPosition());
+        b.getPlayers().get(2).setPosition(b.getPlayers().get(4).getPosition());
+        b.getPlayers().get(3).setPosition(b.getPlayers().get(4).getPosition());
+
+        Square position = shooter.getPosition();
+        Square previousPosition = shooter.getPreviousPosition();
+        long version = b.getVersion();
+        List<Square> sequential = shooter.getShootingSquares(2, shooter.getLoadedWeapons());
+
+        assertSame(position, shooter.getPosition());
+        assertSame(previousPosition, shooter.getPreviousPosition());
+        assertEquals(version, b.getVersion());
+        assertTrue(position.containsPlayer(shooter));
+        assertEquals(sequential, shooter.getShootingSquares(2, shooter.getLoadedWeapons()));
+
+    }
+
+
+    /**
+     * Tests that the squares evaluated by getShootingSquares() are reused for a smaller number of steps and by
+     * getAvailableActions(), and that they are evaluated again after the state of the board changes.
+     * The shooter holds a lock rifle whose target finder counts its calls.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario() or addWeapon().
+     * @throws NotAvailableAttributeException       if thrown by getPosition, getShootingSquares() or getAvailableActions().
+     */
+    @Test
+    public void getShootingSquaresReused() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException{
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player shooter = b.getPlayers().get(1);
+        FireMode main = weaponFactory.createWeapon(Weapon.WeaponName.LOCK_RIFLE).getFireModeList().get(0);
+        AtomicInteger calls = new AtomicInteger();
+        TargetFinder counting = (p, from) -> {
+            calls.incrementAndGet();
+            return main.getTargetFinder().find(p, from);
+        };
+        FireMode counted = new FireMode(FireMode.FireModeName.MAIN, main.getCost(), main.getDestinationFinder(), counting, (p, target, destination) -> {});
+        Weapon weapon = new Weapon(Weapon.WeaponName.LOCK_RIFLE, BLUE, new AmmoPack(0, 2, 0), new AmmoPack(0, 1, 0), Collections.singletonList(counted), b);
+        counted.setWeapon(weapon);
+        weapon.setLoaded(true);
+        shooter.addWeapon(weapon);
+
+        List<Square> squares = shooter.getShootingSquares(2, shooter.getLoadedWeapons());
+        int evaluated = calls.get();
+        assertEquals(b.getReachable(shooter.getPosition(), 2).size(), evaluated);
+        shooter.getShootingSquares(1, shooter.getLoadedWeapons());
+        shooter.getAvailableActions();
+        assertEquals(evaluated, calls.get());
+
+        List<Square> expected = new ArrayList<>();
+        for (Square s : b.getReachable(shooter.getPosition(), 2)) {
+            if (shooter.canShootFrom(s, shooter.getLoadedWeapons())) expected.add(s);
+        }
+        assertEquals(expected, squares);
+
+        b.getPlayers().get(0).setPosition(b.getPlayers().get(4).getPosition());
+        calls.set(0);
+        shooter.getShootingSquares(0, shooter.getLoadedWeapons());
+        assertEquals(1, calls.get());
+
+    }
+
+
+    /**
+     * Tests the method canShootFrom() for a furnace, which shoots at the players in another visible room.
+     * The other players stand in the same square, so that the room of the shooter contains only him:
+     * from the squares next to his room, he must not be counted as a target.
+     * The result from every square is compared with the one obtained moving the shooter there.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException       if thrown by addWeapon, getPosition or canShootFrom().
+     */
+    @Test
+    public void canShootFromFurnace() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException{
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player shooter = b.getPlayers().get(1);
+        Weapon furnace = weaponFactory.createWeapon(Weapon.WeaponName.FURNACE);
+        furnace.setLoaded(true);
+        shooter.addWeapon(furnace);
+        b.getPlayers().get(0).setPosition(b.getPlayers().get(4).getPosition());
+        b.getPlayers().get(2).setPosition(b.getPlayers().get(4).getPosition());
+        b.getPlayers().get(3).setPosition(b.getPlayers().get(4).getPosition());
+
+        List<Boolean> moving = new ArrayList<>();
+        for (Square s : b.getMap()) {
+            shooter.setPosition(s);
+            moving.add(shooter.canShootFrom(s, shooter.getLoadedWeapons()));
+        }
+        for (Square home : b.getMap()) {
+            shooter.setPosition(home);
+            List<Boolean> hypothetical = new ArrayList<>();
+            for (Square s : b.getMap()) {
+                hypothetical.add(shooter.canShootFrom(s, shooter.getLoadedWeapons()));
+            }
+            assertEquals(moving, hypothetical);
+        }
+
+    }
+
+
+    /**
+     * Tests the method canShootFrom() for every weapon, with the other players standing in different squares.
+     * The square is passed to the finders while the board still places the shooter on his actual square:
+     * the result from every square is compared with the one obtained moving the shooter there.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     * @throws NotAvailableAttributeException       if thrown by addWeapon, getPosition or canShootFrom().
+     */
+    @Test
+    public void canShootFromEveryWeapon() throws UnacceptableItemNumberException, NoMoreCardsException, NotAvailableAttributeException{
+
+        Board b = BoardConfigurer.simulateScenario();
+        WeaponFactory weaponFactory = new WeaponFactory(b);
+        Player shooter = b.getPlayers().get(1);
+        Square home = shooter.getPosition();
+        for (Weapon.WeaponName name : Weapon.WeaponName.values()) {
+            Weapon weapon = weaponFactory.createWeapon(name);
+            weapon.setLoaded(true);
+            weapon.setHolder(shooter);
+            List<Weapon> toUse = Collections.singletonList(weapon);
+            List<Boolean> moving = new ArrayList<>();
+            List<Boolean> hypothetical = new ArrayList<>();
+            for (Square s : b.getMap()) {
+                shooter.setPosition(s);
+                moving.add(shooter.canShootFrom(s, toUse));
+            }
+            shooter.setPosition(home);
+            for (Square s : b.getMap()) {
+                hypothetical.add(shooter.canShootFrom(s, toUse));
+            }
+            assertEquals(name.toString(), moving, hypothetical);
+            assertSame(home, shooter.getPosition());
+        }
+
+    }
+
+
     /**
      * Tests the method getShootingStartSquare(), when 1 is passed as a parameter.
      * The shooter holds only a lock rifle and all the other players are in the same square.
@@ -0,0 +1,181 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.controller.BoardConfigurer;
+import it.polimi.ingsw.model.board.Board;
+import it.polimi.ingsw.model.board.KillShotTrack;
+import it.polimi.ingsw.model.board.Player;
+import it.polimi.ingsw.model.board.Scoring;
+import it.polimi.ingsw.model.exceptions.NoMoreCardsException;
+import it.polimi.ingsw.model.exceptions.NotAvailableAttributeException;
+import it.polimi.ingsw.model.exceptions.UnacceptableItemNumberException;
+import it.polimi.ingsw.model.exceptions.WrongTimeException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests all methods of the class Scoring, pinning the point rules of the game.
+ *
+ * @author BassaniRiccardo
+ */
+
+public class ScoringTest {
+
+    private Board b;
+    private Player p1;
+    private Player p2;
+    private Player p3;
+    private Player p4;
+    private Player p5;
+
+
+    /**
+     * Initializes a board with five players, with 0 points.
+     *
+     * @throws NoMoreCardsException                 if thrown by simulateScenario().
+     * @throws UnacceptableItemNumberException      if thrown by simulateScenario().
+     */
+    @Before
+    public void setup() throws NoMoreCardsException, UnacceptableItemNumberException {
+
+        b = BoardConfigurer.simulateScenario();
+        p1 = b.getPlayers().get(0);
+        p2 = b.getPlayers().get(1);
+        p3 = b.getPlayers().get(2);
+        p4 = b.getPlayers().get(3);
+        p5 = b.getPlayers().get(4);
+
+    }
+
+
+    /**
+     * Tests nextAward(): 8, 6, 4, 2, 1, 1.
+     */
+    @Test
+    public void nextAward() {
+
+        int points = Scoring.MAX_AWARD;
+        List<Integer> sequence = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sequence.add(points);
+            points = Scoring.nextAward(points);
+        }
+        assertEquals(Arrays.asList(8, 6, 4, 2, 1, 1), sequence);
+
+    }
+
+
+    /**
+     * Tests rank(), with draws broken by the first occurrence.
+     */
+    @Test
+    public void rank() {
+
+        assertTrue(Scoring.rank(new ArrayList<>()).isEmpty());
+        assertEquals(Arrays.asList(p3, p2, p4), Scoring.rank(Arrays.asList(p2, p3, p3, p4, p2, p3, p4)));
+        assertEquals(Arrays.asList(p4, p2), Scoring.rank(Arrays.asList(p4, p2, p2, p4)));
+
+    }
+
+
+    /**
+     * Tests killAwards() for a player whose board is not flipped: the first player who damaged him gets an extra point.
+     */
+    @Test
+    public void killAwardsFirstBlood() {
+
+        List<Player> damages = Arrays.asList(p2, p3, p3, p3, p4, p4, p4, p2, p5, p5, p5);
+        Map<Player, Integer> awards = Scoring.killAwards(damages, 8, true);
+
+        //p3 and p4 did 3 damages, but p3 damaged first; p2 did 2 damages and the first one
+        assertEquals(Arrays.asList(p3, p4, p5, p2), new ArrayList<>(awards.keySet()));
+        assertEquals(8, (int) awards.get(p3));
+        assertEquals(6, (int) awards.get(p4));
+        assertEquals(4, (int) awards.get(p5));
+        assertEquals(2 + 1, (int) awards.get(p2));
+        assertFalse(awards.containsKey(p1));
+
+    }
+
+
+    /**
+     * Tests killAwards() after previous deaths, and for a flipped board, which gives no extra point.
+     */
+    @Test
+    public void killAwardsDecreased() {
+
+        List<Player> damages = Arrays.asList(p2, p3, p3, p4, p4, p4, p5, p5, p5, p5, p1);
+        //p2 and p1 did 1 damage, but p2 damaged first and gets the extra point
+        assertEquals(Arrays.asList(4, 2, 1, 1 + 1, 1), new ArrayList<>(Scoring.killAwards(damages, 4, true).values()));
+        Map<Player, Integer> flipped = Scoring.killAwards(damages, 2, false);
+        assertEquals(2, (int) flipped.get(p5));
+        assertEquals(1, (int) flipped.get(p4));
+        assertEquals(1, (int) flipped.get(p2));
+
+    }
+
+
+    /**
+     * Tests killShotTrackAwards(): 8, 6, 4, 2, 1 in accordance with the number of kills, draws broken by the earlier kill.
+     */
+    @Test
+    public void killShotTrackAwards() {
+
+        List<Player> killers = Arrays.asList(p4, p1, p1, p4, p2, p5, p3, p3);
+        Map<Player, Integer> awards = Scoring.killShotTrackAwards(killers);
+        assertEquals(Arrays.asList(p4, p1, p3, p2, p5), new ArrayList<>(awards.keySet()));
+        assertEquals(Arrays.asList(8, 6, 4, 2, 1), new ArrayList<>(awards.values()));
+
+    }
+
+
+    /**
+     * Tests leaderboard(): by points, then by rank on the kill shot track, then the players who did not kill anyone.
+     */
+    @Test
+    public void leaderboard() {
+
+        p1.setPoints(10);
+        p2.setPoints(12);
+        p3.setPoints(10);
+        p4.setPoints(10);
+        p5.setPoints(3);
+
+        List<Player> killers = Arrays.asList(p5, p3, p1, p1, p3);
+        assertEquals(Arrays.asList(p2, p3, p1, p4, p5), Scoring.leaderboard(Arrays.asList(p1, p2, p3, p4, p5), killers));
+        assertEquals(Arrays.asList(p2, p1, p4), Scoring.leaderboard(Arrays.asList(p4, p2, p1), killers));
+
+    }
+
+
+    /**
+     * Tests that the killers of a player get 8, 6, 4, 2, 1, 1 points for his consecutive deaths,
+     * going through Player.rewardKillers() and KillShotTrack.registerKill() as a turn does.
+     *
+     * @throws WrongTimeException                   if thrown by rewardKillers() or registerKill().
+     * @throws UnacceptableItemNumberException      if thrown by registerKill().
+     * @throws NotAvailableAttributeException       if thrown by getKillShotTrack().
+     */
+    @Test
+    public void consecutiveDeaths() throws WrongTimeException, UnacceptableItemNumberException, NotAvailableAttributeException {
+
+        KillShotTrack killShotTrack = b.getKillShotTrack();
+        List<Integer> gained = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int before = p2.getPoints();
+            p3.sufferDamage(1, p4);
+            p3.sufferDamage(10, p2);
+            p3.rewardKillers();
+            killShotTrack.registerKill(p2, p3, false);
+            gained.add(p2.getPoints() - before);
+        }
+        assertEquals(Arrays.asList(8, 6, 4, 2, 1, 1), gained);
+        //the second ranked player gets the first blood point too
+        assertEquals((6 + 1) + (4 + 1) + (2 + 1) + (1 + 1) + (1 + 1) + (1 + 1), p4.getPoints());
+
+    }
+
+}